@@ -5,6 +5,8 @@ read -p "C++ x64 sample..."
 ../dist/cpp/sample/x64/Release/xt-sample
 read -p "Java sample..."
 java -jar ../dist/java/sample/target/xt.sample-1.7.jar
+read -p "Java allocation audit..."
+java -jar ../dist/java/sample/target/xt.sample-1.7.jar 8
 read -p ".NET Framework sample..."
 mono ../dist/cli/sample/Release/net48/Xt.Sample.exe
 read -p ".NET Core sample..."
@@ -5,6 +5,8 @@ set /p ok="C++ x64 sample..."
 ..\dist\cpp\sample\x64\Release\xt-sample.exe
 set /p ok="Java sample..."
 java -jar ..\dist\java\sample\target\xt.sample-1.7.jar
+set /p ok="Java allocation audit..."
+java -jar ..\dist\java\sample\target\xt.sample-1.7.jar 8
 set /p ok=".NET Framework sample..."
 ..\dist\cli\sample\Release\net48\Xt.Sample.exe
 set /p ok=".NET Core sample..."
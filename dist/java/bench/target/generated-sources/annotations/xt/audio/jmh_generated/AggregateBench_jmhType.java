@@ -0,0 +1,4 @@
+package xt.audio.jmh_generated;
+public class AggregateBench_jmhType extends AggregateBench_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package xt.audio.jmh_generated;
+public class AttachBench_jmhType extends AttachBench_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package xt.audio.jmh_generated;
+public class BlockingBench_jmhType extends BlockingBench_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package xt.audio.jmh_generated;
+public class ConvertBench_jmhType extends ConvertBench_jmhType_B3 {
+}
+
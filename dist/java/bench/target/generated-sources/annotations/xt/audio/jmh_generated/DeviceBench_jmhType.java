@@ -0,0 +1,4 @@
+package xt.audio.jmh_generated;
+public class DeviceBench_jmhType extends DeviceBench_jmhType_B3 {
+}
+
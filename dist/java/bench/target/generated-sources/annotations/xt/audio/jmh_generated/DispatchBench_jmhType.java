@@ -0,0 +1,4 @@
+package xt.audio.jmh_generated;
+public class DispatchBench_jmhType extends DispatchBench_jmhType_B3 {
+}
+
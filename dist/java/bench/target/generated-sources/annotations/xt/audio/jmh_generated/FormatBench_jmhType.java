@@ -0,0 +1,4 @@
+package xt.audio.jmh_generated;
+public class FormatBench_jmhType extends FormatBench_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package xt.audio.jmh_generated;
+public class RoutingBench_jmhType extends RoutingBench_jmhType_B3 {
+}
+
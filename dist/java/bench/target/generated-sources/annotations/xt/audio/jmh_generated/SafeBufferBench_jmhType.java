@@ -0,0 +1,4 @@
+package xt.audio.jmh_generated;
+public class SafeBufferBench_jmhType extends SafeBufferBench_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package xt.audio.jmh_generated;
+public class UpcallBench_jmhType extends UpcallBench_jmhType_B3 {
+}
+
@@ -10,6 +10,26 @@ namespace Xt
         public StreamParams stream;
         public XtFormat format;
         public double bufferSize;
+        public int adaptive;
+        public Routing routing;
+    }
+
+    [StructLayout(LayoutKind.Sequential)]
+    struct Route
+    {
+        public int output;
+        public int channel;
+        public int bus;
+        public float gain;
+    }
+
+    [StructLayout(LayoutKind.Sequential)]
+    struct Routing
+    {
+        public IntPtr routes;
+        public int count;
+        public int inputs;
+        public int outputs;
     }
 
     [StructLayout(LayoutKind.Sequential)]
@@ -27,6 +47,7 @@ namespace Xt
         public OnBuffer onBuffer;
         public OnXRun onXRun;
         public OnRunning onRunning;
+        public int decouple;
     }
 
     [StructLayout(LayoutKind.Sequential)]
@@ -37,6 +58,7 @@ namespace Xt
         public int count;
         public XtMix mix;
         public IntPtr master;
+        public int driftCompensation;
     }
 
     [StructLayout(LayoutKind.Sequential)]
@@ -144,8 +166,29 @@ namespace Xt
         public XtStreamParams stream;
         public XtFormat format;
         public double bufferSize;
-        public XtDeviceStreamParams(in XtStreamParams stream, in XtFormat format, double bufferSize)
-        => (this.stream, this.format, this.bufferSize) = (stream, format, bufferSize);
+        public bool adaptive;
+        public XtRouting routing;
+        public XtDeviceStreamParams(in XtStreamParams stream, in XtFormat format, double bufferSize, bool adaptive = false, XtRouting routing = default)
+        => (this.stream, this.format, this.bufferSize, this.adaptive, this.routing) = (stream, format, bufferSize, adaptive, routing);
+    }
+
+    public struct XtRoute
+    {
+        public bool output;
+        public int channel;
+        public int bus;
+        public float gain;
+        public XtRoute(bool output, int channel, int bus, float gain)
+        => (this.output, this.channel, this.bus, this.gain) = (output, channel, bus, gain);
+    }
+
+    public struct XtRouting
+    {
+        public XtRoute[] routes;
+        public int inputs;
+        public int outputs;
+        public XtRouting(XtRoute[] routes, int inputs, int outputs)
+        => (this.routes, this.inputs, this.outputs) = (routes, inputs, outputs);
     }
 
     [StructLayout(LayoutKind.Sequential)]
@@ -165,8 +208,9 @@ namespace Xt
         public XtOnBuffer onBuffer;
         public XtOnXRun onXRun;
         public XtOnRunning onRunning;
-        public XtStreamParams(bool interleaved, XtOnBuffer onBuffer, XtOnXRun onXRun, XtOnRunning onRunning)
-        => (this.interleaved, this.onBuffer, this.onXRun, this.onRunning) = (interleaved, onBuffer, onXRun, onRunning);
+        public int decouple;
+        public XtStreamParams(bool interleaved, XtOnBuffer onBuffer, XtOnXRun onXRun, XtOnRunning onRunning, int decouple = 0)
+        => (this.interleaved, this.onBuffer, this.onXRun, this.onRunning, this.decouple) = (interleaved, onBuffer, onXRun, onRunning, decouple);
     }
 
     public struct XtAggregateStreamParams
@@ -176,7 +220,8 @@ namespace Xt
         public int count;
         public XtMix mix;
         public XtDevice master;
-        public XtAggregateStreamParams(in XtStreamParams stream, XtAggregateDeviceParams[] devices, int count, in XtMix mix, XtDevice master)
-        => (this.stream, this.devices, this.count, this.mix, this.master) = (stream, devices, count, mix, master);
+        public bool driftCompensation;
+        public XtAggregateStreamParams(in XtStreamParams stream, XtAggregateDeviceParams[] devices, int count, in XtMix mix, XtDevice master, bool driftCompensation = false)
+        => (this.stream, this.devices, this.count, this.mix, this.master, this.driftCompensation) = (stream, devices, count, mix, master, driftCompensation);
     }
 }
\ No newline at end of file
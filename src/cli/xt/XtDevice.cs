@@ -1,4 +1,5 @@
 using System;
+using System.Linq;
 using System.Runtime.InteropServices;
 using System.Security;
 using System.Text;
@@ -42,18 +43,38 @@ namespace Xt
             return Encoding.UTF8.GetString(buffer, 0, size - 1);
         }
 
-        public XtStream OpenStream(in XtDeviceStreamParams @params, object user)
+        static Route ToNative(XtRoute managed)
+        {
+            var result = new Route();
+            result.bus = managed.bus;
+            result.gain = managed.gain;
+            result.channel = managed.channel;
+            result.output = managed.output ? 1 : 0;
+            return result;
+        }
+
+        public unsafe XtStream OpenStream(in XtDeviceStreamParams @params, object user)
         {
             var result = new XtStream(in @params.stream, user);
             var native = new DeviceStreamParams();
-            native.format = @params.format;
-            native.bufferSize = @params.bufferSize;
-            native.stream.onBuffer = result.OnNativeBuffer();
-            native.stream.interleaved = @params.stream.interleaved ? 1 : 0;
-            native.stream.onXRun = @params.stream.onXRun == null ? null : result.OnNativeXRun();
-            native.stream.onRunning = @params.stream.onRunning == null ? null : result.OnNativeRunning();
-            result.Init(HandleError(XtDeviceOpenStream(_d, @native, IntPtr.Zero, out var r), r));
-            return result;
+            var routes = (@params.routing.routes ?? new XtRoute[0]).Select(ToNative).ToArray();
+            fixed (Route* rs = routes)
+            {
+                native.format = @params.format;
+                native.bufferSize = @params.bufferSize;
+                native.adaptive = @params.adaptive ? 1 : 0;
+                native.routing.routes = new IntPtr(rs);
+                native.routing.count = routes.Length;
+                native.routing.inputs = @params.routing.inputs;
+                native.routing.outputs = @params.routing.outputs;
+                native.stream.onBuffer = result.OnNativeBuffer();
+                native.stream.decouple = @params.stream.decouple;
+                native.stream.interleaved = @params.stream.interleaved ? 1 : 0;
+                native.stream.onXRun = @params.stream.onXRun == null ? null : result.OnNativeXRun();
+                native.stream.onRunning = @params.stream.onRunning == null ? null : result.OnNativeRunning();
+                result.Init(HandleError(XtDeviceOpenStream(_d, @native, IntPtr.Zero, out var r), r));
+                return result;
+            }
         }
     }
 }
\ No newline at end of file
@@ -60,7 +60,9 @@ namespace Xt
                 native.count = @params.count;
                 native.devices = new IntPtr(devs);
                 native.master = @params.master.Handle();
+                native.driftCompensation = @params.driftCompensation ? 1 : 0;
                 native.stream.onBuffer = result.OnNativeBuffer();
+                native.stream.decouple = @params.stream.decouple;
                 native.stream.interleaved = @params.stream.interleaved ? 1 : 0;
                 native.stream.onXRun = @params.stream.onXRun == null ? null : result.OnNativeXRun();
                 native.stream.onRunning = @params.stream.onRunning == null ? null : result.OnNativeRunning();
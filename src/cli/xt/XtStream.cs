@@ -16,6 +16,8 @@ namespace Xt
         [DllImport("xt-core")] static extern unsafe XtFormat* XtStreamGetFormat(IntPtr s);
         [DllImport("xt-core")] static extern ulong XtStreamGetFrames(IntPtr s, out int frames);
         [DllImport("xt-core")] static extern ulong XtStreamGetLatency(IntPtr s, out XtLatency latency);
+        [DllImport("xt-core")] static extern ulong XtStreamGetDecoupleXRuns(IntPtr s);
+        [DllImport("xt-core")] static extern double XtStreamGetDrift(IntPtr s, int index);
 
         IntPtr _s;
         readonly object _user;
@@ -41,6 +43,8 @@ namespace Xt
         public void Dispose() { XtStreamDestroy(_s); _s = IntPtr.Zero; }
         public int GetFrames() => HandleError(XtStreamGetFrames(_s, out var r), r);
         public XtLatency GetLatency() => HandleError(XtStreamGetLatency(_s, out var r), r);
+        public ulong GetDecoupleXRuns() => XtStreamGetDecoupleXRuns(_s);
+        public double GetDrift(int index) => XtStreamGetDrift(_s, index);
 
         internal void Init(IntPtr s) => _s = s;
         internal OnXRun OnNativeXRun() => _onNativeXRun;
@@ -0,0 +1,193 @@
+#include <xt/shared/Shared.hpp>
+#include <xt/aggregate/Drift.hpp>
+
+#include <cmath>
+#include <cstring>
+#include <algorithm>
+
+inline int32_t const
+XtiDriftSettleBuffers = 16;
+inline double const
+XtiDriftSmoothing = 0.05;
+inline double const
+XtiDriftProportional = 0.01;
+inline double const
+XtiDriftIntegral = 0.000025;
+inline double const
+XtiDriftMaxRatio = 0.005;
+inline double const
+XtiDriftCutoff = 0.95;
+
+// Blackman-Harris windowed sinc over Taps frames, Phases entries per frame.
+static std::vector<float> const&
+XtiGetSincTable()
+{
+  static std::vector<float> const table = [] {
+    int32_t size = XtResampler::Taps * XtResampler::Phases + 1;
+    double const pi = 3.14159265358979323846;
+    std::vector<float> result(static_cast<size_t>(size));
+    for(int32_t i = 0; i < size; i++)
+    {
+      double x = static_cast<double>(i) / (size - 1);
+      double t = (x - 0.5) * XtResampler::Taps * XtiDriftCutoff;
+      double sinc = t == 0.0? 1.0: std::sin(pi * t) / (pi * t);
+      double window = 0.35875 - 0.48829 * std::cos(2.0 * pi * x) + 0.14128 * std::cos(4.0 * pi * x) - 0.01168 * std::cos(6.0 * pi * x);
+      result[i] = static_cast<float>(XtiDriftCutoff * sinc * window);
+    }
+    return result;
+  }();
+  return table;
+}
+
+XtResampler::
+XtResampler(int32_t channels, int32_t capacity):
+_count(0), _phase(0.0), _channels(channels),
+_capacity(capacity + Taps), _fifo(), _kernel(Taps, 0.0f)
+{
+  XtiGetSincTable();
+  _fifo.resize(static_cast<size_t>(_capacity) * channels, 0.0f);
+}
+
+void
+XtResampler::Reset(int32_t delay)
+{
+  _phase = Taps / 2 - 1;
+  _count = Taps / 2 - 1 + delay;
+  XT_ASSERT(_count <= _capacity);
+  std::fill(_fifo.begin(), _fifo.end(), 0.0f);
+}
+
+int32_t
+XtResampler::Needed(int32_t frames, double step) const
+{
+  auto last = static_cast<int32_t>(std::floor(_phase + (frames - 1) * step));
+  return std::max(0, last + Taps / 2 + 1 - _count);
+}
+
+int32_t
+XtResampler::Available(double step) const
+{
+  double room = _count - Taps / 2 - 1 - _phase;
+  return room < 0.0? 0: static_cast<int32_t>(std::floor(room / step)) + 1;
+}
+
+void
+XtResampler::Push(float const* frames, int32_t count)
+{
+  XT_ASSERT(_count + count <= _capacity);
+  memcpy(&_fifo[static_cast<size_t>(_count) * _channels], frames, sizeof(float) * count * _channels);
+  _count += count;
+}
+
+void
+XtResampler::Pull(float* frames, int32_t count, double step)
+{
+  auto const& table = XtiGetSincTable();
+  for(int32_t i = 0; i < count; i++)
+  {
+    auto whole = static_cast<int32_t>(std::floor(_phase));
+    double position = (_phase - whole) * Phases;
+    auto index = static_cast<int32_t>(position);
+    auto fraction = static_cast<float>(position - index);
+    XT_ASSERT(whole + Taps / 2 < _count);
+    for(int32_t k = 0; k < Taps; k++)
+    {
+      int32_t at = index + (Taps - 1 - k) * Phases;
+      _kernel[k] = table[at] + fraction * (table[at + 1] - table[at]);
+    }
+    float const* history = &_fifo[static_cast<size_t>(whole - Taps / 2 + 1) * _channels];
+    for(int32_t c = 0; c < _channels; c++)
+    {
+      float sum = 0.0f;
+      for(int32_t k = 0; k < Taps; k++)
+        sum += _kernel[k] * history[k * _channels + c];
+      frames[i * _channels + c] = sum;
+    }
+    _phase += step;
+  }
+  int32_t drop = static_cast<int32_t>(std::floor(_phase)) - (Taps / 2 - 1);
+  if(drop <= 0) return;
+  drop = std::min(drop, _count);
+  memmove(_fifo.data(), &_fifo[static_cast<size_t>(drop) * _channels], sizeof(float) * (_count - drop) * _channels);
+  _count -= drop;
+  _phase -= drop;
+}
+
+XtDriftCompensator::
+XtDriftCompensator(XtSample sample, bool interleaved, XtChannels const& channels, int32_t frames):
+_frames(frames), _settle(0), _cushion(frames / 2),
+_sample(sample), _interleaved(interleaved), _channels(channels),
+_target(0.0), _error(0.0), _integral(0.0), _ratio(1.0), _drift(0.0),
+_raw(), _staging(), _input(), _output()
+{
+  int32_t capacity = frames * 3 + _cushion;
+  XtFormat format = { 0 };
+  format.mix.sample = sample;
+  format.channels = channels;
+  XtiInitIOBuffers(_raw, &format, static_cast<size_t>(capacity));
+  _staging.resize(static_cast<size_t>(capacity) * std::max(channels.inputs, channels.outputs));
+  _input = XtResampler(channels.inputs, capacity);
+  _output = XtResampler(channels.outputs, capacity);
+}
+
+void
+XtDriftCompensator::Start(XtRingBuffer& output)
+{
+  _error = 0.0;
+  _ratio = 1.0;
+  _target = 0.0;
+  _integral = 0.0;
+  _drift.store(0.0);
+  _settle = XtiDriftSettleBuffers;
+  _input.Reset(_cushion);
+  _output.Reset(0);
+  if(_channels.outputs == 0) return;
+  void* raw = _interleaved? static_cast<void*>(_raw.output.interleaved.data()): _raw.output.nonInterleaved.data();
+  XtiZeroBuffer(raw, _interleaved, 0, _channels.outputs, _frames + _cushion, XtiGetSampleSize(_sample));
+  output.Write(raw, _frames + _cushion);
+}
+
+void
+XtDriftCompensator::Update(XtRingBuffer const& input, XtRingBuffer const& output)
+{
+  bool useInput = _channels.inputs > 0;
+  double fill = useInput? input.Full() + _input.Buffered(): output.Full() + _output.Buffered();
+  if(_settle > 0)
+  {
+    _target += fill;
+    if(--_settle == 0) _target /= XtiDriftSettleBuffers;
+    return;
+  }
+  double error = (useInput? fill - _target: _target - fill) / _frames;
+  _error += XtiDriftSmoothing * (error - _error);
+  _integral = std::clamp(_integral + XtiDriftIntegral * _error, -XtiDriftMaxRatio, XtiDriftMaxRatio);
+  _ratio = 1.0 + std::clamp(XtiDriftProportional * _error + _integral, -XtiDriftMaxRatio, XtiDriftMaxRatio);
+  _drift.store(_integral * 1e6, std::memory_order_relaxed);
+}
+
+bool
+XtDriftCompensator::ReadInput(XtRingBuffer& ring, void* target, int32_t frames)
+{
+  int32_t needed = _input.Needed(frames, _ratio);
+  void* raw = _interleaved? static_cast<void*>(_raw.input.interleaved.data()): _raw.input.nonInterleaved.data();
+  int32_t read = ring.Read(raw, needed);
+  XtiToFloat(_staging.data(), raw, _interleaved, _sample, _channels.inputs, read);
+  std::fill(_staging.begin() + static_cast<size_t>(read) * _channels.inputs, _staging.begin() + static_cast<size_t>(needed) * _channels.inputs, 0.0f);
+  _input.Push(_staging.data(), needed);
+  _input.Pull(_staging.data(), frames, _ratio);
+  XtiFromFloat(target, _staging.data(), _interleaved, _sample, _channels.inputs, frames);
+  return read == needed;
+}
+
+bool
+XtDriftCompensator::WriteOutput(XtRingBuffer& ring, void const* source, int32_t frames)
+{
+  double step = 1.0 / _ratio;
+  void* raw = _interleaved? static_cast<void*>(_raw.output.interleaved.data()): _raw.output.nonInterleaved.data();
+  XtiToFloat(_staging.data(), source, _interleaved, _sample, _channels.outputs, frames);
+  _output.Push(_staging.data(), frames);
+  int32_t count = _output.Available(step);
+  _output.Pull(_staging.data(), count, step);
+  XtiFromFloat(raw, _staging.data(), _interleaved, _sample, _channels.outputs, count);
+  return ring.Write(raw, count) == count;
+}
\ No newline at end of file
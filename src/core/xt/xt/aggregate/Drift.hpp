@@ -0,0 +1,70 @@
+#ifndef XT_AGGREGATE_DRIFT_HPP
+#define XT_AGGREGATE_DRIFT_HPP
+
+#include <xt/api/Structs.h>
+#include <xt/shared/Structs.hpp>
+#include <xt/aggregate/RingBuffer.hpp>
+
+#include <atomic>
+#include <vector>
+#include <cstdint>
+
+// Windowed sinc interpolation at a variable step close to 1, over
+// a fifo of interleaved float frames. _phase is the position of the
+// next output frame, the fifo keeps the history the kernel needs.
+struct XtResampler
+{
+  int32_t _count;
+  double _phase;
+  int32_t _channels;
+  int32_t _capacity;
+  std::vector<float> _fifo;
+  std::vector<float> _kernel;
+
+  static inline int32_t const Taps = 32;
+  static inline int32_t const Phases = 256;
+
+  XtResampler() = default;
+  XtResampler(int32_t channels, int32_t capacity);
+
+  void Reset(int32_t delay);
+  int32_t Available(double step) const;
+  int32_t Needed(int32_t frames, double step) const;
+  void Push(float const* frames, int32_t count);
+  void Pull(float* frames, int32_t count, double step);
+  double Buffered() const { return _count - _phase; }
+};
+
+// Keeps a slave device of an aggregate stream in step with the master.
+// Once per master buffer, the fill level of the slave's rings (input if
+// it has any, output otherwise) drives a PI controller whose output is
+// the ratio of the slave's clock to the master's. Audio is resampled by
+// that ratio between the rings and the application. Runs on the master's
+// thread, only _drift may be read from elsewhere.
+struct XtDriftCompensator
+{
+  int32_t _frames;
+  int32_t _settle;
+  int32_t _cushion;
+  XtSample _sample;
+  bool _interleaved;
+  XtChannels _channels;
+  double _target;
+  double _error;
+  double _integral;
+  double _ratio;
+  std::atomic<double> _drift;
+  XtIOBuffers _raw;
+  std::vector<float> _staging;
+  XtResampler _input;
+  XtResampler _output;
+
+  XtDriftCompensator(XtSample sample, bool interleaved, XtChannels const& channels, int32_t frames);
+
+  void Start(XtRingBuffer& output);
+  void Update(XtRingBuffer const& input, XtRingBuffer const& output);
+  bool ReadInput(XtRingBuffer& ring, void* target, int32_t frames);
+  bool WriteOutput(XtRingBuffer& ring, void const* source, int32_t frames);
+};
+
+#endif // XT_AGGREGATE_DRIFT_HPP
\ No newline at end of file
@@ -1,126 +1,94 @@
 #include <xt/aggregate/RingBuffer.hpp>
 #include <cstring>
 
+static int32_t
+XtiNextPowerOfTwo(int32_t value)
+{
+  int32_t result = 1;
+  while(result < value) result <<= 1;
+  return result;
+}
+
 XtRingBuffer::
 XtRingBuffer(
   bool interleaved, int32_t frames,
   int32_t channels, int32_t size):
-_end(0), _full(0), _begin(0), _frames(frames),
-_channels(channels), _interleaved(interleaved),
-_sampleSize(size), _locked(), _blocks()
+_mask(XtiNextPowerOfTwo(frames) - 1), _frames(frames),
+_stride(0), _channels(channels), _interleaved(interleaved),
+_sampleSize(size), _storage(), _read(), _write()
 {
-  if(interleaved)
+  int32_t blocks = interleaved? 1: channels;
+  int32_t blockSize = (_mask + 1) * (interleaved? channels: 1) * size;
+  _stride = (blockSize + XtiCacheLineSize - 1) / XtiCacheLineSize * XtiCacheLineSize;
+  _storage.resize(static_cast<size_t>(_stride) * blocks + XtiCacheLineSize - 1, 0);
+  Clear();
+}
+
+void
+XtRingBuffer::CopyIn(void const* source, int32_t offset, int32_t position, int32_t frames)
+{
+  uint8_t* data = Data();
+  if(_interleaved)
   {
-    auto count = frames * channels * size;
-    std::vector<uint8_t> buffer(count, 0);
-    _blocks = std::vector<std::vector<uint8_t>>(1, buffer);
+    int32_t frameSize = _channels * _sampleSize;
+    auto ilSource = static_cast<uint8_t const*>(source);
+    memcpy(data + position * frameSize, ilSource + offset * frameSize, frames * frameSize);
   } else
   {
-    auto count = frames * size;
-    std::vector<uint8_t> channel(count, 0);
-    _blocks = std::vector<std::vector<uint8_t>>(channels, channel);
+    auto niSource = static_cast<uint8_t const* const*>(source);
+    for(int32_t i = 0; i < _channels; i++)
+      memcpy(data + i * _stride + position * _sampleSize, niSource[i] + offset * _sampleSize, frames * _sampleSize);
   }
 }
 
-int32_t
-XtRingBuffer::Read(void* target, int32_t frames)
+void
+XtRingBuffer::CopyOut(void* target, int32_t offset, int32_t position, int32_t frames)
 {
-  Lock();
-  XT_ASSERT(0 <= _full && _full <= _frames);
-
-  int32_t i;
-  int32_t frameSize = _channels * _sampleSize;
-  int32_t beginFrames = _begin * frameSize;
-  int32_t beginSamples = _begin * _sampleSize;
-  int32_t result = _full > frames? frames: _full;
-  uint8_t* ilTarget = static_cast<uint8_t*>(target);
-  uint8_t** niTarget = static_cast<uint8_t**>(target);
-  
-  if(_end > _begin)
+  uint8_t const* data = Data();
+  if(_interleaved)
   {
-    int32_t resultFrames = result * frameSize;
-    int32_t resultSamples = result * _sampleSize;
-    if(_interleaved)
-      memcpy(ilTarget, &(_blocks[0][beginFrames]), resultFrames);
-    else for(i = 0; i < _channels; i++)
-      memcpy(niTarget[i], &(_blocks[i][beginSamples]), resultSamples);
-  } else 
+    int32_t frameSize = _channels * _sampleSize;
+    auto ilTarget = static_cast<uint8_t*>(target);
+    memcpy(ilTarget + offset * frameSize, data + position * frameSize, frames * frameSize);
+  } else
   {
-    int32_t split = result > _frames - _begin? _frames - _begin: result;
-    int32_t wrap = result - split;
-    int32_t wrapFrames = wrap * frameSize;
-    int32_t splitFrames = split * frameSize;
-    int32_t wrapSamples = wrap * _sampleSize;
-    int32_t splitSamples = split * _sampleSize;
-    if(_interleaved)
-    {
-      memcpy(ilTarget, &(_blocks[0][beginFrames]), splitFrames);
-      if(_frames - _begin < result)
-        memcpy(ilTarget + splitFrames, &(_blocks[0][0]), wrapFrames);
-    } else for(i = 0; i < _channels; i++) 
-    {
-      memcpy(niTarget[i], &(_blocks[i][beginSamples]), splitSamples);
-      if(_frames - _begin < result)
-        memcpy(niTarget[i] + splitSamples, &(_blocks[i][0]), wrapSamples);
-    }
+    auto niTarget = static_cast<uint8_t**>(target);
+    for(int32_t i = 0; i < _channels; i++)
+      memcpy(niTarget[i] + offset * _sampleSize, data + i * _stride + position * _sampleSize, frames * _sampleSize);
   }
+}
+
+int32_t
+XtRingBuffer::Read(void* target, int32_t frames)
+{
+  auto read = static_cast<uint32_t>(_read.v.load(std::memory_order_relaxed));
+  auto write = static_cast<uint32_t>(_write.v.load(std::memory_order_acquire));
+  auto full = static_cast<int32_t>(write - read);
+  XT_ASSERT(0 <= full && full <= _frames);
 
-  _full -= result;
-  _begin += result;
-  if(_begin >= _frames) _begin -= _frames;
-  assert(0 <= _full && _full <= _frames);
-  Unlock();
+  int32_t result = full > frames? frames: full;
+  int32_t position = static_cast<int32_t>(read & static_cast<uint32_t>(_mask));
+  int32_t split = result > _mask + 1 - position? _mask + 1 - position: result;
+  CopyOut(target, 0, position, split);
+  if(split < result) CopyOut(target, split, 0, result - split);
+  _read.v.store(static_cast<int32_t>(read + static_cast<uint32_t>(result)), std::memory_order_release);
   return result;
 }
 
 int32_t
 XtRingBuffer::Write(void const* source, int32_t frames)
 {
-  Lock();
-  XT_ASSERT(0 <= _full && _full <= _frames);
+  auto read = static_cast<uint32_t>(_read.v.load(std::memory_order_acquire));
+  auto write = static_cast<uint32_t>(_write.v.load(std::memory_order_relaxed));
+  auto full = static_cast<int32_t>(write - read);
+  XT_ASSERT(0 <= full && full <= _frames);
 
-  int32_t i;
-  int32_t empty = _frames - _full;
+  int32_t empty = _frames - full;
   int32_t result = empty > frames? frames: empty;
-  int32_t frameSize = _channels * _sampleSize;
-  int32_t endFrames = _end * frameSize;
-  int32_t endSamples = _end * _sampleSize;  
-  auto ilSource = static_cast<uint8_t const*>(source);
-  auto niSource = static_cast<uint8_t const* const*>(source);
-
-  if (_end < _begin)
-  {
-    int32_t resultFrames = result * frameSize;
-    int32_t resultSamples = result * _sampleSize;
-    if(_interleaved)
-      memcpy(&(_blocks[0][endFrames]), ilSource, resultFrames);
-    else for(i = 0; i < _channels; i++)
-      memcpy(&(_blocks[i][endSamples]), niSource[i], resultSamples);
-  } else 
-  {
-    int32_t split = result > _frames - _end? _frames - _end: result;
-    int32_t wrap = result - split;
-    int32_t wrapFrames = wrap * frameSize;
-    int32_t splitFrames = split * frameSize;
-    int32_t wrapSamples = wrap * _sampleSize;
-    int32_t splitSamples = split * _sampleSize;
-    if(_interleaved) 
-    {
-      memcpy(&(_blocks[0][endFrames]), ilSource, splitFrames);
-      if(_frames - _end < result)
-        memcpy(&(_blocks[0][0]), ilSource + splitFrames, wrapFrames);
-    } else for(i = 0; i < _channels; i++) 
-    {
-      memcpy(&(_blocks[i][endSamples]), niSource[i], splitSamples);
-      if(_frames - _end < result)
-        memcpy(&(_blocks[i][0]), niSource[i] + splitSamples, wrapSamples);
-    }
-  }
-
-  _end += result;
-  _full += result;
-  if (_end >= _frames) _end -= _frames;
-  assert(0 <= _full && _full <= _frames);
-  Unlock();
+  int32_t position = static_cast<int32_t>(write & static_cast<uint32_t>(_mask));
+  int32_t split = result > _mask + 1 - position? _mask + 1 - position: result;
+  CopyIn(source, 0, position, split);
+  if(split < result) CopyIn(source, split, 0, result - split);
+  _write.v.store(static_cast<int32_t>(write + static_cast<uint32_t>(result)), std::memory_order_release);
   return result;
 }
\ No newline at end of file
@@ -4,20 +4,29 @@
 #include <xt/shared/Shared.hpp>
 #include <xt/shared/Structs.hpp>
 
+#include <atomic>
+#include <vector>
 #include <cstdint>
-#include <cassert>
 
+inline int32_t const
+XtiCacheLineSize = 64;
+
+// Wait-free single producer, single consumer ring of up to _frames
+// frames. Storage is a power of two frames per block, one block when
+// interleaved or one per channel otherwise, each cache line aligned.
+// Read and write positions are free running counters on their own
+// cache lines. Clear only while neither side is running.
 struct XtRingBuffer 
 {
-  int32_t _end;
-  int32_t _full;
-  int32_t _begin;
+  int32_t _mask;
   int32_t _frames;
+  int32_t _stride;
   int32_t _channels;
   bool _interleaved;
   int32_t _sampleSize;
-  mutable XtAtomicInt _locked;
-  std::vector<std::vector<uint8_t>> _blocks;
+  std::vector<uint8_t> _storage;
+  alignas(XtiCacheLineSize) XtAtomicInt _read;
+  alignas(XtiCacheLineSize) XtAtomicInt _write;
 
   inline void Clear();
   inline int32_t Full() const;
@@ -28,8 +37,9 @@ struct XtRingBuffer
   XtRingBuffer(bool interleaved, int32_t frames, int32_t channels, int32_t size);
 
 private:
-  inline void Lock() const;
-  inline void Unlock() const;
+  inline uint8_t* Data();
+  void CopyIn(void const* source, int32_t offset, int32_t position, int32_t frames);
+  void CopyOut(void* target, int32_t offset, int32_t position, int32_t frames);
 };
 
 struct XtIORingBuffers
@@ -38,33 +48,29 @@ struct XtIORingBuffers
   XtRingBuffer output;
 };
 
-inline int32_t
-XtRingBuffer::Full() const 
-{
-  int32_t result;
-  Lock();
-  result = _full;
-  Unlock();
-  return result;
-}
-
 inline void
 XtRingBuffer::Clear() 
 {
-  Lock();
-  _begin = _end = _full = 0;
-  Unlock();
+  _read.v.store(0, std::memory_order_relaxed);
+  _write.v.store(0, std::memory_order_relaxed);
 }
 
-inline void
-XtRingBuffer::Unlock() const 
-{ 
-  bool ok = XtiCompareExchange(_locked.v, 1, 0); 
-  assert(ok);
+// Exact on the reading and writing threads, a snapshot elsewhere.
+inline int32_t
+XtRingBuffer::Full() const 
+{
+  auto read = static_cast<uint32_t>(_read.v.load(std::memory_order_acquire));
+  auto write = static_cast<uint32_t>(_write.v.load(std::memory_order_acquire));
+  auto result = static_cast<int32_t>(write - read);
+  return result < 0? 0: result > _frames? _frames: result;
 }
 
-inline void
-XtRingBuffer::Lock() const 
-{ while(!XtiCompareExchange(_locked.v, 0, 1)); }
+inline uint8_t*
+XtRingBuffer::Data()
+{
+  auto data = reinterpret_cast<uintptr_t>(_storage.data());
+  auto align = static_cast<uintptr_t>(XtiCacheLineSize - 1);
+  return reinterpret_cast<uint8_t*>((data + align) & ~align);
+}
 
 #endif // XT_AGGREGATE_RING_BUFFER_HPP
\ No newline at end of file
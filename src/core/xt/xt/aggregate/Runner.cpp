@@ -61,6 +61,8 @@ XtAggregateRunner::OnMasterBuffer(int32_t index, XtBuffer const* buffer)
     if(i != _stream->_masterIndex)
       if((fault = _stream->_streams[i]->ProcessBuffer()) != 0) return fault;
   if((fault = OnSlaveBuffer(index, buffer)) != 0) return fault;
+  for(size_t i = 0; i < _stream->_streams.size(); i++)
+    if(_stream->_drift[i]) _stream->_drift[i]->Update(_stream->_rings[i].input, _stream->_rings[i].output);
 
   int32_t totalChannels = 0;
   auto& wi = _stream->_weave.input;
@@ -70,13 +72,15 @@ XtAggregateRunner::OnMasterBuffer(int32_t index, XtBuffer const* buffer)
   for(size_t i = 0; i < _stream->_streams.size(); i++)
   {
     XtRingBuffer* ring = &_stream->_rings[i].input;
+    XtDriftCompensator* drift = _stream->_drift[i].get();
     XtBlockingStream const* str = _stream->_streams[i].get();
     XtFormat const* fmt = &_stream->_streams[i]->_params.format;
     int32_t thisIns = fmt->channels.inputs;
     if(thisIns > 0)
     {
-      int32_t read = ring->Read(ringInput, buffer->frames);
       int32_t allIns = _stream->_params.format.channels.inputs;
+      if(drift != nullptr && !drift->ReadInput(*ring, ringInput, buffer->frames)) OnXRun(index);
+      int32_t read = drift != nullptr? buffer->frames: ring->Read(ringInput, buffer->frames);
       if(read < buffer->frames)
       {
         XtiZeroBuffer(ringInput, interleaved, read, thisIns, buffer->frames - read, sampleSize);
@@ -95,12 +99,13 @@ XtAggregateRunner::OnMasterBuffer(int32_t index, XtBuffer const* buffer)
   XtBuffer appBuffer = *buffer;
   appBuffer.input = appInput;
   appBuffer.output = appOutput;
-  if((fault = _params.stream.onBuffer(this, &appBuffer, _user)) != 0) return fault;
+  if((fault = OnUserBuffer(&appBuffer)) != 0) return fault;
 
   totalChannels = 0;
   for(size_t i = 0; i < _stream->_streams.size(); i++)
   {
     XtRingBuffer* ring = &_stream->_rings[i].output;
+    XtDriftCompensator* drift = _stream->_drift[i].get();
     XtBlockingStream const* str = _stream->_streams[i].get();
     XtFormat const* fmt = &_stream->_streams[i]->_params.format;
     int32_t thisOuts = fmt->channels.outputs;
@@ -110,7 +115,8 @@ XtAggregateRunner::OnMasterBuffer(int32_t index, XtBuffer const* buffer)
       for(int32_t c = 0; c < thisOuts; c++)
         XtiWeave(ringOutput, appOutput, interleaved, thisOuts, allOuts, c, totalChannels + c, buffer->frames, sampleSize);
       totalChannels += thisOuts;
-      int32_t written = ring->Write(ringOutput, buffer->frames);
+      if(drift != nullptr && !drift->WriteOutput(*ring, ringOutput, buffer->frames)) OnXRun(index);
+      int32_t written = drift != nullptr? buffer->frames: ring->Write(ringOutput, buffer->frames);
       if(written < buffer->frames) OnXRun(index);
     }
   }
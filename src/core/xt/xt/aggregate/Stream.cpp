@@ -50,6 +50,7 @@ XtAggregateStream::StartSlaveBuffer()
   {
     _rings[i].input.Clear();
     _rings[i].output.Clear();
+    if(_drift[i]) _drift[i]->Start(_rings[i].output);
   }
 
   auto guard = XtiGuard([this] { StopSlaveBuffer(); });
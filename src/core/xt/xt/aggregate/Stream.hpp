@@ -2,6 +2,7 @@
 #define XT_AGGREGATE_STREAM_HPP
 
 #include <xt/blocking/Stream.hpp>
+#include <xt/aggregate/Drift.hpp>
 #include <xt/aggregate/RingBuffer.hpp>
 
 #include <vector>
@@ -18,6 +19,7 @@ public XtBlockingStream
   std::vector<XtChannels> _channels;
   std::vector<XtIORingBuffers> _rings;
   std::vector<std::unique_ptr<XtBlockingStream>> _streams;
+  std::vector<std::unique_ptr<XtDriftCompensator>> _drift;
 
   XtAggregateStream() = default;
   XtSystem GetSystem() const override;
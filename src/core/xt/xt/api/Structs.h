@@ -11,12 +11,14 @@
 
 /** @cond */
 typedef struct XtMix XtMix;
+typedef struct XtRoute XtRoute;
 typedef struct XtFormat XtFormat;
 typedef struct XtBuffer XtBuffer; 
 typedef struct XtVersion XtVersion; 
 typedef struct XtLatency XtLatency; 
 typedef struct XtLocation XtLocation;
 typedef struct XtChannels XtChannels; 
+typedef struct XtRouting XtRouting;
 typedef struct XtErrorInfo XtErrorInfo; 
 typedef struct XtBufferSize XtBufferSize;
 typedef struct XtAttributes XtAttributes;
@@ -110,6 +112,23 @@ struct XtStreamParams
   XtOnBuffer onBuffer;
   XtOnXRun onXRun;
   XtOnRunning onRunning;
+  int32_t decouple;
+};
+
+struct XtRoute
+{
+  XtBool output;
+  int32_t channel;
+  int32_t bus;
+  float gain;
+};
+
+struct XtRouting
+{
+  XtRoute const* routes;
+  int32_t count;
+  int32_t inputs;
+  int32_t outputs;
 };
 
 struct XtDeviceStreamParams 
@@ -117,6 +136,8 @@ struct XtDeviceStreamParams
   XtStreamParams stream;
   XtFormat format;
   double bufferSize;
+  XtBool adaptive;
+  XtRouting routing;
 };
 
 struct XtAggregateDeviceParams 
@@ -133,6 +154,7 @@ struct XtAggregateStreamParams
   int32_t count;
   XtMix mix;
   XtDevice const* master;
+  XtBool driftCompensation;
 };
 
 #endif // XT_API_STRUCTS_H
\ No newline at end of file
@@ -64,5 +64,7 @@ XtAudioInit(char const* id, void* window, XtOnError onError)
   if(dsound) result->_services.emplace_back(std::move(dsound));
   auto wasapi = XtiCreateWasapiService();
   if(wasapi) result->_services.emplace_back(std::move(wasapi));
+  auto null = XtiCreateNullService();
+  if(null) result->_services.emplace_back(std::move(null));
   return XtPlatform::instance = result.release();
 }
\ No newline at end of file
@@ -74,6 +74,26 @@ XtDeviceGetBufferSize(XtDevice const* d, XtFormat const* format, XtBufferSize* s
   return XtiCreateError(d->GetSystem(), d->GetBufferSize(format, size));
 }
 
+XtError XT_CALL
+XtDeviceQueryFormats(XtDevice const* d, XtFormat const* formats, int32_t count, XtBool* supports, XtBufferSize* sizes)
+{
+  XtFault fault;
+  XT_ASSERT(d != nullptr);
+  XT_ASSERT(count >= 0);
+  XT_ASSERT(supports != nullptr);
+  XT_ASSERT(formats != nullptr);
+  XT_ASSERT(XtiCalledOnMainThread());
+  std::memset(supports, 0, count * sizeof(XtBool));
+  if(sizes != nullptr) std::memset(sizes, 0, count * sizeof(XtBufferSize));
+  for(int32_t i = 0; i < count; i++)
+  {
+    if((fault = d->SupportsFormat(&formats[i], &supports[i])) != 0) return XtiCreateError(d->GetSystem(), fault);
+    if(sizes == nullptr || !supports[i]) continue;
+    if((fault = d->GetBufferSize(&formats[i], &sizes[i])) != 0) return XtiCreateError(d->GetSystem(), fault);
+  }
+  return 0;
+}
+
 XtError XT_CALL
 XtDeviceGetChannelName(XtDevice const* d, XtBool output, int32_t index, char* buffer, int32_t* size)
 {
@@ -93,9 +113,20 @@ XtDeviceOpenStream(XtDevice* d, XtDeviceStreamParams const* params, void* user,
   XT_ASSERT(stream != nullptr);
   XT_ASSERT(XtiCalledOnMainThread());
   XT_ASSERT(params->bufferSize > 0.0);
+  XT_ASSERT(params->stream.decouple >= 0);
   XT_ASSERT(params->stream.onBuffer != nullptr);
-  if((fault = XtiSupportsFormat(d, &params->format)) != 0) return XtiCreateError(d->GetSystem(), fault);
-  return d->OpenStream(params, user, stream);
+  XT_ASSERT(params->routing.count >= 0);
+  XT_ASSERT(params->routing.inputs >= 0);
+  XT_ASSERT(params->routing.outputs >= 0);
+  XT_ASSERT(params->routing.count == 0 || params->routing.routes != nullptr);
+  for(int32_t r = 0; r < params->routing.count; r++)
+  {
+    auto const& route = params->routing.routes[r];
+    XT_ASSERT(0 <= route.bus && route.bus < (route.output? params->routing.outputs: params->routing.inputs));
+    XT_ASSERT(0 <= route.channel && route.channel < (route.output? params->format.channels.outputs: params->format.channels.inputs));
+  }
+  if(!params->adaptive && (fault = XtiSupportsFormat(d, &params->format)) != 0) return XtiCreateError(d->GetSystem(), fault);
+  return XtiCreateError(d->GetSystem(), d->OpenStream(params, user, stream));
 }
 
 XtError XT_CALL
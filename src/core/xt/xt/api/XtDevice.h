@@ -28,6 +28,8 @@ XtDeviceSupportsFormat(XtDevice const* d, const XtFormat* format, XtBool* suppor
 XT_API XtError XT_CALL 
 XtDeviceGetBufferSize(XtDevice const* d, const XtFormat* format, XtBufferSize* size);
 XT_API XtError XT_CALL 
+XtDeviceQueryFormats(XtDevice const* d, XtFormat const* formats, int32_t count, XtBool* supports, XtBufferSize* sizes);
+XT_API XtError XT_CALL 
 XtDeviceOpenStream(XtDevice* d, XtDeviceStreamParams const* params, void* user, XtStream** stream);
 XT_API XtError XT_CALL 
 XtDeviceGetChannelName(XtDevice const* d, XtBool output, int32_t index, char* buffer, int32_t* size);
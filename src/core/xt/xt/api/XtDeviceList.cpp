@@ -48,4 +48,13 @@ XtDeviceListGetCapabilities(XtDeviceList const* l, char const* id, XtDeviceCaps*
   XT_ASSERT(XtiCalledOnMainThread());
   *capabilities = XtDeviceCapsNone;
   return XtiCreateError(l->GetSystem(), l->GetCapabilities(id, capabilities));
+}
+
+XtError XT_CALL
+XtDeviceListGetSnapshot(XtDeviceList const* l, uint8_t* buffer, int32_t* size)
+{
+  XT_ASSERT(l != nullptr);
+  XT_ASSERT(XtiCalledOnMainThread());
+  XT_ASSERT(size != nullptr && *size >= 0);
+  return XtiCreateError(l->GetSystem(), l->GetSnapshot(buffer, size));
 }
\ No newline at end of file
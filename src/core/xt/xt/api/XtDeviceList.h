@@ -21,6 +21,8 @@ XT_API XtError XT_CALL
 XtDeviceListGetName(XtDeviceList const* l, char const* id, char* buffer, int32_t* size);
 XT_API XtError XT_CALL 
 XtDeviceListGetCapabilities(XtDeviceList const* l, char const* id, XtDeviceCaps* capabilities);
+XT_API XtError XT_CALL
+XtDeviceListGetSnapshot(XtDeviceList const* l, uint8_t* buffer, int32_t* size);
 
 #ifdef __cplusplus
 }
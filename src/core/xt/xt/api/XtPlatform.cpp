@@ -14,7 +14,7 @@ XtPlatformGetService(XtPlatform const* p, XtSystem system)
 {
   XT_ASSERT(p != nullptr);
   XT_ASSERT(XtiCalledOnMainThread());
-  XT_ASSERT(XtSystemALSA <= system && system <= XtSystemDSound);
+  XT_ASSERT(XtSystemALSA <= system && system <= XtSystemNull);
   return p->GetService(system);
 }
 
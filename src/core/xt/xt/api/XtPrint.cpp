@@ -45,6 +45,7 @@ XtPrintSystem(XtSystem system)
   case XtSystemWASAPI: return "WASAPI";
   case XtSystemPulse: return "PulseAudio";
   case XtSystemDSound: return "DirectSound";
+  case XtSystemNull: return "Null";
   default: XT_ASSERT(false); return nullptr;
   }
 }
@@ -51,6 +51,7 @@ XtServiceAggregateStream(XtService const* s, XtAggregateStreamParams const* para
   XT_ASSERT(XtiCalledOnMainThread());
   XT_ASSERT(params->master != nullptr);
   XT_ASSERT(params->devices != nullptr);
+  XT_ASSERT(params->stream.decouple >= 0);
   XT_ASSERT(params->stream.onBuffer != nullptr);
   XT_ASSERT((s->GetCapabilities() & XtServiceCapsAggregation) != 0);
   return XtiCreateError(s->GetSystem(), s->AggregateStream(params, user, stream));
@@ -1,6 +1,7 @@
 #include <xt/api/XtStream.h>
 #include <xt/shared/Shared.hpp>
 #include <xt/private/Stream.hpp>
+#include <xt/aggregate/Runner.hpp>
 
 #include <cstring>
 
@@ -24,13 +25,14 @@ XtStreamStop(XtStream* s)
   XT_ASSERT(s != nullptr);
   XT_ASSERT(XtiCalledOnMainThread());
   s->Stop();
+  if(s->_decoupler) s->_decoupler->Stop();
 }
 
 XtFormat const* XT_CALL 
 XtStreamGetFormat(XtStream const* s) 
 {
   XT_ASSERT(s != nullptr);
-  return &s->_params.format;
+  return &s->GetFormat();
 }
 
 XtBool XT_CALL
@@ -45,7 +47,11 @@ XtStreamStart(XtStream* s)
 {
   XT_ASSERT(s != nullptr);
   XT_ASSERT(XtiCalledOnMainThread());
-  return XtiCreateError(s->GetSystem(), s->Start());
+  if(s->_adapter) s->_adapter->Start();
+  if(s->_decoupler) s->_decoupler->Start();
+  XtFault fault = s->Start();
+  if(fault != 0 && s->_decoupler) s->_decoupler->Stop();
+  return XtiCreateError(s->GetSystem(), fault);
 }
 
 XtError XT_CALL 
@@ -54,7 +60,9 @@ XtStreamGetFrames(XtStream const* s, int32_t* frames)
   XT_ASSERT(s != nullptr);
   XT_ASSERT(frames != nullptr);
   *frames = 0;
-  return XtiCreateError(s->GetSystem(), s->GetFrames(frames));
+  XtFault fault = s->GetFrames(frames);
+  if(fault == 0 && s->_adapter) *frames = s->_adapter->_maxFrames;
+  return XtiCreateError(s->GetSystem(), fault);
 }
 
 XtError XT_CALL 
@@ -63,5 +71,26 @@ XtStreamGetLatency(XtStream const* s, XtLatency* latency)
   XT_ASSERT(s != nullptr);
   XT_ASSERT(latency != nullptr);
   memset(latency, 0, sizeof(XtLatency));
-  return XtiCreateError(s->GetSystem(), s->GetLatency(latency));
+  XtFault fault = s->GetLatency(latency);
+  if(fault == 0 && s->_adapter) s->_adapter->AddLatency(latency);
+  if(fault == 0 && s->_decoupler) s->_decoupler->AddLatency(latency);
+  return XtiCreateError(s->GetSystem(), fault);
+}
+
+uint64_t XT_CALL
+XtStreamGetDecoupleXRuns(XtStream const* s)
+{
+  XT_ASSERT(s != nullptr);
+  return s->_decoupler? s->_decoupler->_xruns.load(): 0;
+}
+
+double XT_CALL
+XtStreamGetDrift(XtStream const* s, int32_t index)
+{
+  XT_ASSERT(s != nullptr);
+  auto runner = dynamic_cast<XtAggregateRunner const*>(s);
+  if(runner == nullptr) return 0.0;
+  XT_ASSERT(0 <= index && index < static_cast<int32_t>(runner->_stream->_drift.size()));
+  auto const& drift = runner->_stream->_drift[index];
+  return drift? drift->_drift.load(std::memory_order_relaxed): 0.0;
 }
\ No newline at end of file
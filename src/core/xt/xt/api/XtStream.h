@@ -27,6 +27,10 @@ XT_API XtError XT_CALL
 XtStreamGetFrames(XtStream const* s, int32_t* frames);
 XT_API XtError XT_CALL 
 XtStreamGetLatency(XtStream const* s, XtLatency* latency);
+XT_API uint64_t XT_CALL
+XtStreamGetDecoupleXRuns(XtStream const* s);
+XT_API double XT_CALL
+XtStreamGetDrift(XtStream const* s, int32_t index);
 
 #ifdef __cplusplus
 }
@@ -0,0 +1,86 @@
+#if XT_ENABLE_NULL
+#include <xt/blocking/Device.hpp>
+#include <xt/backend/null/Shared.hpp>
+
+#include <memory>
+#include <string>
+#include <cmath>
+
+NullDevice::
+NullDevice(XtNullConfig const& config):
+_config(config) { }
+
+void*
+NullDevice::GetHandle() const
+{ return nullptr; }
+XtFault
+NullDevice::ShowControlPanel()
+{ return 0; }
+XtFault 
+NullDevice::SupportsAccess(XtBool interleaved, XtBool* supports) const 
+{ *supports = XtTrue; return 0; }
+XtFault 
+NullDevice::GetChannelCount(XtBool output, int32_t* count) const 
+{ *count = output? _config.outputs: _config.inputs; return 0; }
+
+XtFault 
+NullDevice::GetMix(XtBool* valid, XtMix* mix) const
+{
+  *valid = XtTrue;
+  mix->rate = _config.rate;
+  mix->sample = _config.sample;
+  return 0;
+}
+
+XtFault 
+NullDevice::GetBufferSize(XtFormat const* format, XtBufferSize* size) const
+{
+  size->min = XtiNullMinBufferSize;
+  size->max = XtiNullMaxBufferSize;
+  size->current = _config.bufferSize;
+  return 0;
+}
+
+XtFault 
+NullDevice::GetChannelName(XtBool output, int32_t index, char* buffer, int32_t* size) const
+{
+  std::string name = (output? "Output ": "Input ") + std::to_string(index + 1);
+  XtiCopyString(name.c_str(), buffer, size);
+  return 0;
+}
+
+XtFault 
+NullDevice::SupportsFormat(XtFormat const* format, XtBool* supports) const
+{
+  if(format->mix.rate < XtiNullMinRate) return 0;
+  if(format->mix.rate > XtiNullMaxRate) return 0;
+  if(_config.fixed && format->mix.rate != _config.rate) return 0;
+  if(_config.fixed && format->mix.sample != _config.sample) return 0;
+  if(format->channels.inputs > _config.inputs) return 0;
+  if(format->channels.outputs > _config.outputs) return 0;
+  for(int32_t i = _config.inputs; i < 64; i++)
+    if(format->channels.inMask & (1ULL << i)) return 0;
+  for(int32_t i = _config.outputs; i < 64; i++)
+    if(format->channels.outMask & (1ULL << i)) return 0;
+  *supports = XtTrue;
+  return 0;
+}
+
+XtFault 
+NullDevice::OpenBlockingStream(XtBlockingParams const* params, XtBlockingStream** stream)
+{
+  double df = params->bufferSize / 1000.0 * params->format.mix.rate;
+  auto result = std::make_unique<NullStream>();
+  result->_blocks = 0;
+  result->_drift = 0.0;
+  result->_position = 0;
+  result->_config = _config;
+  result->_random.seed(_config.seed);
+  result->_frames = static_cast<int32_t>(std::ceil(df));
+  auto capacity = result->_frames + (_config.drift > 0.0? static_cast<int32_t>(std::ceil(df * _config.drift / 1e6)) + 1: 0);
+  XtiInitIOBuffers(result->_buffers, &params->format, static_cast<size_t>(capacity));
+  *stream = result.release();
+  return 0;
+}
+
+#endif // XT_ENABLE_NULL
@@ -0,0 +1,50 @@
+#if XT_ENABLE_NULL
+#include <xt/shared/Shared.hpp>
+#include <xt/backend/null/Shared.hpp>
+
+#include <cstring>
+
+NullDeviceList::
+NullDeviceList(bool input, bool output):
+_input(input), _output(output) { }
+
+XtFault
+NullDeviceList::GetCount(int32_t* count) const
+{
+  *count = (_input? 1: 0) + (_output? 1: 0) + (_input || _output? 1: 0);
+  return 0;
+}
+  
+XtFault 
+NullDeviceList::GetId(int32_t index, char* buffer, int32_t* size) const
+{  
+  if(index == 0 && _input) XtiCopyString("0", buffer, size);
+  else if(index == (_input? 1: 0) && _output) XtiCopyString("1", buffer, size);
+  else XtiCopyString("2", buffer, size);
+  return 0;
+}
+
+XtFault
+NullDeviceList::GetName(char const* id, char* buffer, int32_t* size) const
+{
+  XtFault fault;
+  XtNullConfig config;
+  if((fault = XtiParseNullConfig(id, &config)) != 0) return fault;
+  if(config.inputs > 0 && config.outputs > 0) XtiCopyString("Null Duplex", buffer, size);
+  else if(config.inputs > 0) XtiCopyString("Null Input", buffer, size);
+  else XtiCopyString("Null Output", buffer, size);
+  return 0;
+}
+
+XtFault
+NullDeviceList::GetCapabilities(char const* id, XtDeviceCaps* capabilities) const
+{ 
+  XtFault fault;
+  XtNullConfig config;
+  if((fault = XtiParseNullConfig(id, &config)) != 0) return fault;
+  int32_t caps = (config.inputs > 0? XtDeviceCapsInput: 0) | (config.outputs > 0? XtDeviceCapsOutput: 0);
+  *capabilities = static_cast<XtDeviceCaps>(caps);
+  return 0;
+}
+
+#endif // XT_ENABLE_NULL
@@ -0,0 +1,92 @@
+#if XT_ENABLE_NULL
+#include <xt/shared/Services.hpp>
+#include <xt/backend/null/Shared.hpp>
+#include <xt/backend/null/Private.hpp>
+
+#include <string>
+#include <cstdlib>
+#include <cstring>
+
+std::unique_ptr<XtService>
+XtiCreateNullService()
+{ return std::make_unique<NullService>(); }
+
+XtServiceError
+XtiGetNullError(XtFault fault)
+{
+  XtServiceError result;
+  switch(fault)
+  {
+  case XT_NULL_ERR_FORMAT: result.cause = XtCauseFormat; result.text = "XT_NULL_ERR_FORMAT"; break;
+  case XT_NULL_ERR_INVALID_ID: result.cause = XtCauseEndpoint; result.text = "XT_NULL_ERR_INVALID_ID"; break;
+  default: result.cause = XtCauseUnknown; result.text = "Unknown error."; break;
+  }
+  return result;
+}
+
+static bool
+XtiParseNullSample(std::string const& value, XtSample* sample)
+{
+  if(value == "uint8") *sample = XtSampleUInt8;
+  else if(value == "int16") *sample = XtSampleInt16;
+  else if(value == "int24") *sample = XtSampleInt24;
+  else if(value == "int32") *sample = XtSampleInt32;
+  else if(value == "float32") *sample = XtSampleFloat32;
+  else return false;
+  return true;
+}
+
+static bool
+XtiParseNullValue(std::string const& key, std::string const& value, XtNullConfig* config)
+{
+  char* end;
+  if(key == "sample") return XtiParseNullSample(value, &config->sample);
+  double number = strtod(value.c_str(), &end);
+  if(value.empty() || *end != '\0' || (number < 0.0 && key != "drift")) return false;
+  if(key == "rate") config->rate = static_cast<int32_t>(number);
+  else if(key == "xrun") config->xrun = static_cast<int32_t>(number);
+  else if(key == "seed") config->seed = static_cast<uint32_t>(number);
+  else if(key == "inputs") config->inputs = static_cast<int32_t>(number);
+  else if(key == "outputs") config->outputs = static_cast<int32_t>(number);
+  else if(key == "drift") config->drift = number;
+  else if(key == "jitter") config->jitter = number;
+  else if(key == "buffer") config->bufferSize = number;
+  else if(key == "fixed") config->fixed = number != 0.0;
+  else if(key == "freerun") config->freeRun = number != 0.0;
+  else return false;
+  return true;
+}
+
+XtFault
+XtiParseNullConfig(char const* id, XtNullConfig* config)
+{
+  std::string s(id);
+  size_t query = s.find('?');
+  std::string base = s.substr(0, query);
+  *config = XtNullConfig();
+  config->rate = 48000;
+  config->bufferSize = 10.0;
+  config->sample = XtSampleFloat32;
+  if(base == "0") config->inputs = 2;
+  else if(base == "1") config->outputs = 2;
+  else if(base == "2") config->inputs = config->outputs = 2;
+  else return XT_NULL_ERR_INVALID_ID;
+  if(query == std::string::npos) return 0;
+  for(size_t pos = query + 1; pos <= s.size(); )
+  {
+    size_t next = s.find('&', pos);
+    if(next == std::string::npos) next = s.size();
+    std::string pair = s.substr(pos, next - pos);
+    size_t equals = pair.find('=');
+    if(equals == std::string::npos) return XT_NULL_ERR_INVALID_ID;
+    if(!XtiParseNullValue(pair.substr(0, equals), pair.substr(equals + 1), config)) return XT_NULL_ERR_INVALID_ID;
+    pos = next + 1;
+  }
+  if(config->rate < XtiNullMinRate || config->rate > XtiNullMaxRate) return XT_NULL_ERR_INVALID_ID;
+  if(config->inputs > XtiNullMaxChannels || config->outputs > XtiNullMaxChannels) return XT_NULL_ERR_INVALID_ID;
+  if(config->inputs + config->outputs == 0) return XT_NULL_ERR_INVALID_ID;
+  if(config->bufferSize < XtiNullMinBufferSize || config->bufferSize > XtiNullMaxBufferSize) return XT_NULL_ERR_INVALID_ID;
+  return 0;
+}
+
+#endif // XT_ENABLE_NULL
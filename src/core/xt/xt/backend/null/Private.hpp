@@ -0,0 +1,52 @@
+#ifndef XT_NULL_PRIVATE_HPP
+#define XT_NULL_PRIVATE_HPP
+#if XT_ENABLE_NULL
+#include <xt/api/Enums.h>
+#include <xt/api/Shared.h>
+#include <cstdint>
+
+inline int32_t const
+XtiNullMinRate = 1;
+inline int32_t const
+XtiNullMaxRate = 384000;
+inline int32_t const
+XtiNullMaxChannels = 64;
+
+inline double const
+XtiNullMinBufferSize = 1.0;
+inline double const
+XtiNullMaxBufferSize = 2000.0;
+
+inline XtFault const
+XT_NULL_ERR_FORMAT = 1;
+inline XtFault const
+XT_NULL_ERR_INVALID_ID = 2;
+
+// Device ids are "0" (input), "1" (output) or "2" (duplex), optionally
+// followed by a query: "1?outputs=8&rate=96000&sample=int16&buffer=5".
+// xrun=N reports an xrun every N buffers, jitter=MS delays each wakeup
+// by up to MS milliseconds, freerun=1 ignores the clock altogether.
+// drift=PPM makes the stream deliver PPM parts per million more (or,
+// when negative, fewer) frames than its clock, to emulate a device on
+// an independent clock inside an aggregate stream. fixed=1 supports
+// only the configured rate and sample type.
+struct XtNullConfig
+{
+  int32_t rate;
+  int32_t xrun;
+  int32_t inputs;
+  int32_t outputs;
+  uint32_t seed;
+  double drift;
+  double jitter;
+  bool fixed;
+  bool freeRun;
+  XtSample sample;
+  double bufferSize;
+};
+
+XtFault
+XtiParseNullConfig(char const* id, XtNullConfig* config);
+
+#endif // XT_ENABLE_NULL
+#endif // XT_NULL_PRIVATE_HPP
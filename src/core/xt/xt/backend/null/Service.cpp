@@ -0,0 +1,43 @@
+#if XT_ENABLE_NULL
+#include <xt/backend/null/Shared.hpp>
+
+XtFault
+NullService::GetFormatFault() const
+{ return XT_NULL_ERR_FORMAT; }
+
+XtServiceCaps 
+NullService::GetCapabilities() const
+{ 
+  auto result = XtServiceCapsTime | XtServiceCapsLatency | XtServiceCapsFullDuplex 
+    | XtServiceCapsAggregation | XtServiceCapsXRunDetection;
+  return static_cast<XtServiceCaps>(result); 
+}
+
+XtFault
+NullService::OpenDeviceList(XtEnumFlags flags, XtDeviceList** list) const
+{
+  bool input = (flags & XtEnumFlagsInput) != 0;
+  bool output = (flags & XtEnumFlagsOutput) != 0;
+  *list = new NullDeviceList(input, output);
+  return 0; 
+}
+
+XtFault
+NullService::OpenDevice(char const* id, XtDevice** device) const
+{
+  XtFault fault;
+  XtNullConfig config;
+  if((fault = XtiParseNullConfig(id, &config)) != 0) return fault;
+  *device = new NullDevice(config);
+  return 0;
+}
+
+XtFault
+NullService::GetDefaultDeviceId(XtBool output, XtBool* valid, char* buffer, int32_t* size) const
+{
+  XtiCopyString(output? "1": "0", buffer, size);
+  *valid = XtTrue;
+  return 0;
+}
+
+#endif // XT_ENABLE_NULL
@@ -0,0 +1,60 @@
+#ifndef XT_NULL_SHARED_HPP
+#define XT_NULL_SHARED_HPP
+#if XT_ENABLE_NULL
+#include <xt/private/Device.hpp>
+#include <xt/private/Stream.hpp>
+#include <xt/private/Service.hpp>
+#include <xt/blocking/Device.hpp>
+#include <xt/blocking/Stream.hpp>
+#include <xt/private/DeviceList.hpp>
+#include <xt/backend/null/Private.hpp>
+
+#include <chrono>
+#include <random>
+#include <cstdint>
+
+struct NullService final: 
+public XtService 
+{
+  XT_IMPLEMENT_SERVICE(Null);
+};
+
+struct NullDevice final: 
+public XtBlockingDevice
+{
+  XtNullConfig const _config;
+  XT_IMPLEMENT_DEVICE();
+  XT_IMPLEMENT_DEVICE_BLOCKING();
+  XT_IMPLEMENT_DEVICE_BASE(Null);
+  NullDevice(XtNullConfig const& config);
+};
+
+struct NullStream final:
+public XtBlockingStream 
+{
+  int32_t _frames;
+  uint64_t _blocks;
+  double _drift;
+  uint64_t _position;
+  XtIOBuffers _buffers;
+  XtNullConfig _config;
+  std::mt19937 _random;
+  std::chrono::steady_clock::time_point _start;
+  
+  NullStream() = default;
+  XT_IMPLEMENT_STREAM_BASE();
+  XT_IMPLEMENT_BLOCKING_STREAM();
+  XT_IMPLEMENT_STREAM_BASE_SYSTEM(Null);
+};
+
+struct NullDeviceList final:
+public XtDeviceList 
+{
+  bool const _input;
+  bool const _output;
+  XT_IMPLEMENT_DEVICE_LIST(Null);
+  NullDeviceList(bool input, bool output);
+};
+
+#endif // XT_ENABLE_NULL
+#endif // XT_NULL_SHARED_HPP
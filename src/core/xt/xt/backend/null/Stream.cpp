@@ -0,0 +1,92 @@
+#if XT_ENABLE_NULL
+#include <xt/backend/null/Shared.hpp>
+
+#include <thread>
+
+void
+NullStream::StopSlaveBuffer() { }
+void
+NullStream::StopMasterBuffer() { }
+
+void*
+NullStream::GetHandle() const
+{ return nullptr; }
+XtFault
+NullStream::StartSlaveBuffer()
+{ return 0; }
+XtFault
+NullStream::PrefillOutputBuffer() 
+{ return 0; }
+XtFault
+NullStream::GetFrames(int32_t* frames) const
+{ *frames = _frames; return 0; }
+
+XtFault
+NullStream::StartMasterBuffer()
+{
+  _blocks = 0;
+  _start = std::chrono::steady_clock::now();
+  return 0;
+}
+
+XtFault
+NullStream::GetLatency(XtLatency* latency) const
+{
+  double ms = _frames * 1000.0 / _params.format.mix.rate;
+  latency->input = _params.format.channels.inputs > 0? ms: 0.0;
+  latency->output = _params.format.channels.outputs > 0? ms: 0.0;
+  return 0;
+}
+
+// Sleeps until the next period boundary, plus jitter. Waking up more
+// than a period late counts as an xrun and restarts the clock.
+XtFault
+NullStream::BlockMasterBuffer(XtBool* ready)
+{
+  using namespace std::chrono;
+  *ready = XtTrue;
+  if(_config.freeRun) return 0;
+  auto period = duration<double>(_frames / static_cast<double>(_params.format.mix.rate));
+  auto deadline = _start + duration_cast<steady_clock::duration>(period * static_cast<double>(_blocks + 1));
+  auto now = steady_clock::now();
+  if(now > deadline + period)
+  {
+    OnXRun(_params.index);
+    _blocks = 0;
+    _start = now;
+    return 0;
+  }
+  if(_config.jitter > 0.0)
+  {
+    std::uniform_real_distribution<double> jitter(0.0, _config.jitter / 1000.0);
+    deadline += duration_cast<steady_clock::duration>(duration<double>(jitter(_random)));
+  }
+  std::this_thread::sleep_until(deadline);
+  return 0;
+}
+
+XtFault 
+NullStream::ProcessBuffer()
+{  
+  XtFault fault;
+  XtBuffer buffer = { 0 };
+  bool interleaved = _params.interleaved != XtFalse;
+  if(_params.format.channels.inputs > 0)
+    buffer.input = interleaved? static_cast<void*>(_buffers.input.interleaved.data()): _buffers.input.nonInterleaved.data();
+  if(_params.format.channels.outputs > 0)
+    buffer.output = interleaved? static_cast<void*>(_buffers.output.interleaved.data()): _buffers.output.nonInterleaved.data();
+  _drift += _frames * _config.drift / 1e6;
+  auto drift = static_cast<int32_t>(_drift);
+  _drift -= drift;
+  buffer.frames = _frames + drift;
+  buffer.position = _position;
+  buffer.time = _position * 1000.0 / _params.format.mix.rate;
+  buffer.timeValid = XtTrue;
+  if(_config.xrun > 0 && _position > 0 && (_position / _frames) % _config.xrun == 0) OnXRun(_params.index);
+  if((fault = OnBuffer(_params.index, &buffer)) != 0) return fault;
+  _position += buffer.frames;
+  _blocks++;
+  return 0;
+}
+
+#endif // XT_ENABLE_NULL
@@ -44,8 +44,8 @@ XtBlockingRunner::ReceiveControl(State state, XtFault fault)
   std::unique_lock guard(_lock);
   _state = state;
   _received = true;
+  _respond.notify_one();
   guard.unlock();
-  _respond.notify_one();  
   if(state == State::Started) OnRunning(XtTrue, 0);
   if(state == State::Stopped) OnRunning(XtFalse, fault);
 }   
@@ -73,12 +73,9 @@ XtBlockingRunner::RunBlockingStream(XtBlockingRunner* runner)
   XtPlatform::BeginThread();
   XtPlatform::RaiseThreadPriority(&threadPolicy, &prevThreadPrio);
 
-  while((state = runner->_state.load()) != State::Closed)
+  while((state = runner->_state.load()) != State::Closing)
     switch(state)
     {
-    case State::Closing:
-      runner->ReceiveControl(State::Closed, 0);
-      break;
     case State::Stopping:
       runner->_stream->StopBuffer();
       runner->ReceiveControl(State::Stopped, 0);
@@ -116,4 +113,6 @@ XtBlockingRunner::RunBlockingStream(XtBlockingRunner* runner)
     }  
   XtPlatform::RevertThreadPriority(threadPolicy, prevThreadPrio);
   XtPlatform::EndThread();
+  // The runner may be gone as soon as the lock is released.
+  runner->ReceiveControl(State::Closed, 0);
 }
\ No newline at end of file
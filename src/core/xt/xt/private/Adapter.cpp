@@ -0,0 +1,359 @@
+#include <xt/shared/Shared.hpp>
+#include <xt/private/Device.hpp>
+#include <xt/private/Stream.hpp>
+#include <xt/private/Adapter.hpp>
+
+#include <cmath>
+#include <cstring>
+#include <numeric>
+#include <algorithm>
+
+inline double const
+XtiAdapterCutoff = 0.88;
+
+static int32_t
+XtiGetAdaptedFrames(int32_t deviceRate, int32_t rate, int32_t frames)
+{
+  if(deviceRate == rate) return frames;
+  return static_cast<int32_t>((static_cast<int64_t>(frames) * rate + deviceRate - 1) / deviceRate) + 2;
+}
+
+// Taps is a multiple of 8, the partial sums map onto vector registers.
+static float
+XtiDot(float const* h, float const* x, int32_t taps)
+{
+  float sum[8] = { 0.0f };
+  for(int32_t k = 0; k < taps; k += 8)
+    for(int32_t j = 0; j < 8; j++)
+      sum[j] += h[k + j] * x[k + j];
+  return ((sum[0] + sum[4]) + (sum[1] + sum[5])) + ((sum[2] + sum[6]) + (sum[3] + sum[7]));
+}
+
+static void
+XtiMapChannels(float* dst, int32_t dstChannels, float const* src, int32_t srcChannels, int32_t frames)
+{
+  int32_t channels = std::min(dstChannels, srcChannels);
+  for(int32_t f = 0; f < frames; f++)
+  {
+    float* d = dst + f * dstChannels;
+    float const* s = src + f * srcChannels;
+    for(int32_t c = 0; c < channels; c++) d[c] = s[c];
+    for(int32_t c = channels; c < dstChannels; c++) d[c] = 0.0f;
+  }
+}
+
+XtPolyphase::
+XtPolyphase(int32_t inRate, int32_t outRate, int32_t channels, int32_t capacity):
+_up(0), _down(0), _taps(0), _phases(0), _channels(channels),
+_capacity(0), _count(0), _index(0), _phase(0), _fifo(), _filter()
+{
+  int32_t divisor = std::gcd(inRate, outRate);
+  _up = outRate / divisor;
+  _down = inRate / divisor;
+  _phases = std::min(_up, MaxPhases);
+  double scale = std::min(1.0, static_cast<double>(_up) / _down);
+  _taps = (static_cast<int32_t>(std::ceil(Taps / scale)) + 7) & ~7;
+  _capacity = capacity + _taps * 2 + 4;
+  _fifo.resize(static_cast<size_t>(_capacity) * channels, 0.0f);
+  _filter.resize(static_cast<size_t>(_phases) * _taps);
+
+  // Blackman-Harris windowed sinc, each phase normalized to unity gain.
+  double const pi = 3.14159265358979323846;
+  double cutoff = XtiAdapterCutoff * scale;
+  for(int32_t p = 0; p < _phases; p++)
+  {
+    double sum = 0.0;
+    float* h = &_filter[static_cast<size_t>(p) * _taps];
+    for(int32_t k = 0; k < _taps; k++)
+    {
+      double t = _taps / 2 - 1 - k + static_cast<double>(p) / _phases;
+      double x = (t + _taps / 2) / _taps;
+      double sinc = t == 0.0? 1.0: std::sin(pi * cutoff * t) / (pi * cutoff * t);
+      double window = 0.35875 - 0.48829 * std::cos(2.0 * pi * x) + 0.14128 * std::cos(4.0 * pi * x) - 0.01168 * std::cos(6.0 * pi * x);
+      h[k] = static_cast<float>(sinc * window);
+      sum += h[k];
+    }
+    for(int32_t k = 0; k < _taps; k++) h[k] = static_cast<float>(h[k] / sum);
+  }
+}
+
+void
+XtPolyphase::Reset(int32_t delay)
+{
+  _phase = 0;
+  _index = _taps / 2 - 1;
+  _count = _index + delay;
+  XT_ASSERT(_count <= _capacity);
+  std::fill(_fifo.begin(), _fifo.end(), 0.0f);
+}
+
+int32_t
+XtPolyphase::Available() const
+{
+  int32_t room = _count - _taps / 2 - 1 - _index;
+  if(room < 0) return 0;
+  return static_cast<int32_t>(((room + 1) * static_cast<int64_t>(_up) - 1 - _phase) / _down) + 1;
+}
+
+int32_t
+XtPolyphase::Needed(int32_t frames) const
+{
+  if(frames == 0) return 0;
+  auto last = _index + static_cast<int32_t>((_phase + (frames - 1) * static_cast<int64_t>(_down)) / _up);
+  return std::max(0, last + _taps / 2 + 1 - _count);
+}
+
+void
+XtPolyphase::Push(float const* frames, int32_t count)
+{
+  XT_ASSERT(_count + count <= _capacity);
+  for(int32_t c = 0; c < _channels; c++)
+  {
+    float* fifo = &_fifo[static_cast<size_t>(c) * _capacity + _count];
+    for(int32_t f = 0; f < count; f++) fifo[f] = frames[f * _channels + c];
+  }
+  _count += count;
+}
+
+void
+XtPolyphase::Pull(float* frames, int32_t count)
+{
+  for(int32_t i = 0; i < count; i++)
+  {
+    XT_ASSERT(_index + _taps / 2 < _count);
+    float const* x = &_fifo[_index - _taps / 2 + 1];
+    float const* h = &_filter[static_cast<size_t>(static_cast<int64_t>(_phase) * _phases / _up) * _taps];
+    for(int32_t c = 0; c < _channels; c++)
+      frames[i * _channels + c] = XtiDot(h, x + static_cast<size_t>(c) * _capacity, _taps);
+    _phase += _down;
+    _index += _phase / _up;
+    _phase %= _up;
+  }
+  int32_t drop = std::min(_index - (_taps / 2 - 1), _count);
+  if(drop <= 0) return;
+  for(int32_t c = 0; c < _channels; c++)
+  {
+    float* fifo = &_fifo[static_cast<size_t>(c) * _capacity];
+    memmove(fifo, fifo + drop, sizeof(float) * (_count - drop));
+  }
+  _count -= drop;
+  _index -= drop;
+}
+
+XtAdapter::
+XtAdapter(XtStream* stream, XtFormat const& format, int32_t frames, XtRouting const* routing):
+_stream(stream), _format(format), _frames(frames),
+_maxFrames(XtiGetAdaptedFrames(stream->_params.format.mix.rate, format.mix.rate, frames)),
+_resample(stream->_params.format.mix.rate != format.mix.rate), _routed(routing != nullptr),
+_position(0), _buffers(), _device(), _mapped(), _user(), _buses(), _inputRoutes(), _outputRoutes(),
+_outputChannels(), _silent(), _input(), _output()
+{
+  auto const& device = stream->_params.format;
+  auto const& channels = format.channels;
+  int32_t deviceChannels = std::max(device.channels.inputs, device.channels.outputs);
+  int32_t userChannels = std::max(channels.inputs, channels.outputs);
+  _device.resize(static_cast<size_t>(frames) * deviceChannels);
+  _mapped.resize(static_cast<size_t>(frames) * userChannels);
+  _user.resize(static_cast<size_t>(_maxFrames) * userChannels);
+  XtiInitIOBuffers(_buffers, &_format, _maxFrames);
+
+  // Routes to channels the device was not opened with (when adapting) are dropped.
+  for(int32_t r = 0; _routed && r < routing->count; r++)
+  {
+    auto const& route = routing->routes[r];
+    int32_t count = route.output? device.channels.outputs: device.channels.inputs;
+    if(route.gain != 0.0f && route.channel < count) (route.output? _outputRoutes: _inputRoutes).push_back(route);
+  }
+  auto byChannel = [](XtRoute const& l, XtRoute const& r) { return l.channel < r.channel; };
+  std::stable_sort(_outputRoutes.begin(), _outputRoutes.end(), byChannel);
+  for(auto const& r: _outputRoutes)
+    if(_outputChannels.empty() || _outputChannels.back() != r.channel) _outputChannels.push_back(r.channel);
+  _silent.resize(channels.outputs);
+  if(_routed) _buses.resize(static_cast<size_t>(frames) * userChannels);
+
+  if(!_resample) return;
+  _input = XtPolyphase(device.mix.rate, format.mix.rate, channels.inputs, frames);
+  _output = XtPolyphase(format.mix.rate, device.mix.rate, channels.outputs, _maxFrames);
+}
+
+void
+XtAdapter::Start()
+{
+  _position = 0;
+  if(!_resample) return;
+  _input.Reset(_input._taps / 2 + 1);
+  _output.Reset(_output._taps / 2 + 2);
+}
+
+void
+XtAdapter::AddLatency(XtLatency* latency) const
+{
+  if(!_resample) return;
+  if(latency->input != 0.0) latency->input += (_input._taps + 1) * 1000.0 / _stream->_params.format.mix.rate;
+  if(latency->output != 0.0) latency->output += (_output._taps + 2) * 1000.0 / _format.mix.rate;
+}
+
+XtFault
+XtAdapter::OnBuffer(XtBuffer const* buffer)
+{
+  auto const& device = _stream->_params.format;
+  XtBool interleaved = _stream->_params.stream.interleaved;
+  int32_t inputs = _format.channels.inputs;
+  int32_t outputs = _format.channels.outputs;
+  int32_t deviceInputs = device.channels.inputs;
+  int32_t deviceOutputs = device.channels.outputs;
+  bool deviceInput = buffer->input != nullptr && deviceInputs > 0;
+  bool deviceOutput = buffer->output != nullptr && deviceOutputs > 0;
+  void* input = interleaved? static_cast<void*>(_buffers.input.interleaved.data()): _buffers.input.nonInterleaved.data();
+  void* output = interleaved? static_cast<void*>(_buffers.output.interleaved.data()): _buffers.output.nonInterleaved.data();
+
+  int32_t frames = buffer->frames;
+  if(inputs > 0)
+  {
+    float* mapped = _resample? _mapped.data(): _user.data();
+    LoadInput(deviceInput? buffer->input: nullptr, mapped, buffer->frames);
+    if(_resample)
+    {
+      _input.Push(mapped, buffer->frames);
+      frames = std::min(_input.Available(), _maxFrames);
+      _input.Pull(_user.data(), frames);
+    }
+    XtiFromFloat(input, _user.data(), interleaved, _format.mix.sample, inputs, frames);
+  } else if(_resample && outputs > 0)
+    frames = std::min(_output.Needed(buffer->frames), _maxFrames);
+
+  XtFault fault = 0;
+  XtBuffer converted = *buffer;
+  converted.frames = frames;
+  converted.position = _position;
+  converted.input = inputs > 0? input: nullptr;
+  converted.output = outputs > 0? output: nullptr;
+  if(frames > 0 && (fault = _stream->OnAdaptedBuffer(&converted)) != 0) return fault;
+  _position += frames;
+  if(!deviceOutput) return 0;
+  if(outputs == 0)
+  {
+    XtiZeroBuffer(buffer->output, interleaved, 0, deviceOutputs, buffer->frames, XtiGetSampleSize(device.mix.sample));
+    return 0;
+  }
+
+  float* mapped = _user.data();
+  XtiToFloat(_user.data(), output, interleaved, _format.mix.sample, outputs, frames);
+  if(_resample)
+  {
+    mapped = _mapped.data();
+    _output.Push(_user.data(), frames);
+    int32_t available = std::min(_output.Available(), buffer->frames);
+    _output.Pull(mapped, available);
+    std::fill(mapped + available * outputs, mapped + buffer->frames * outputs, 0.0f);
+    if(available < buffer->frames) _stream->OnXRun(XRunIndex);
+  }
+  StoreOutput(buffer->output, mapped, buffer->frames);
+  return 0;
+}
+
+void
+XtAdapter::LoadInput(void const* input, float* mapped, int32_t frames)
+{
+  auto const& device = _stream->_params.format;
+  XtBool interleaved = _stream->_params.stream.interleaved;
+  int32_t inputs = _format.channels.inputs;
+  int32_t deviceInputs = device.channels.inputs;
+  if(input == nullptr)
+  {
+    std::fill(mapped, mapped + frames * inputs, 0.0f);
+    return;
+  }
+
+  if(!_routed)
+  {
+    float* loaded = inputs == deviceInputs? mapped: _device.data();
+    XtiToFloat(loaded, input, interleaved, device.mix.sample, deviceInputs, frames);
+    if(loaded != mapped) XtiMapChannels(mapped, inputs, loaded, deviceInputs, frames);
+    return;
+  }
+  // Mix planar, then interleave the buses once.
+  float* buses = _buses.data();
+  std::fill(buses, buses + frames * inputs, 0.0f);
+  for(auto const& r: _inputRoutes)
+    XtiMixChannelToFloat(buses + r.bus * frames, input, interleaved, device.mix.sample, deviceInputs, r.channel, frames, r.gain);
+  for(int32_t b = 0; b < inputs; b++)
+    for(int32_t f = 0; f < frames; f++) mapped[f * inputs + b] = buses[b * frames + f];
+}
+
+void
+XtAdapter::StoreOutput(void* output, float const* mapped, int32_t frames)
+{
+  auto const& device = _stream->_params.format;
+  XtBool interleaved = _stream->_params.stream.interleaved;
+  int32_t outputs = _format.channels.outputs;
+  int32_t deviceOutputs = device.channels.outputs;
+  if(!_routed)
+  {
+    float const* stored = outputs == deviceOutputs? mapped: _device.data();
+    if(stored != mapped) XtiMapChannels(_device.data(), deviceOutputs, mapped, outputs, frames);
+    XtiFromFloat(output, stored, interleaved, device.mix.sample, deviceOutputs, frames);
+    return;
+  }
+
+  XtiZeroBuffer(output, interleaved, 0, deviceOutputs, frames, XtiGetSampleSize(device.mix.sample));
+  float* buses = _buses.data();
+  for(int32_t b = 0; b < outputs; b++)
+  {
+    float* bus = buses + b * frames;
+    for(int32_t f = 0; f < frames; f++) bus[f] = mapped[f * outputs + b];
+    _silent[b] = std::all_of(bus, bus + frames, [](float v) { return v == 0.0f; });
+  }
+  float* channel = _device.data();
+  auto route = _outputRoutes.begin();
+  for(int32_t c: _outputChannels)
+  {
+    bool audible = false;
+    std::fill(channel, channel + frames, 0.0f);
+    for(; route != _outputRoutes.end() && route->channel == c; ++route)
+    {
+      if(_silent[route->bus]) continue;
+      audible = true;
+      float const* bus = buses + route->bus * frames;
+      for(int32_t f = 0; f < frames; f++) channel[f] += route->gain * bus[f];
+    }
+    if(audible) XtiChannelFromFloat(output, channel, interleaved, device.mix.sample, deviceOutputs, c, frames);
+  }
+}
+
+XtFault
+XtAdapter::Resolve(XtDevice const* device, XtFormat const* format, XtFormat* resolved)
+{
+  XtFault fault;
+  XtBool valid;
+  XtBool supports = XtFalse;
+  XtMix mix = format->mix;
+  int32_t inputs = 0;
+  int32_t outputs = 0;
+
+  *resolved = *format;
+  if((fault = device->GetMix(&valid, &mix)) != 0) return fault;
+  if(!valid) mix = format->mix;
+  if((fault = device->GetChannelCount(XtFalse, &inputs)) != 0) return fault;
+  if((fault = device->GetChannelCount(XtTrue, &outputs)) != 0) return fault;
+
+  XtChannels channels[3] = { format->channels };
+  channels[1].inputs = std::min(format->channels.inputs, inputs);
+  channels[1].outputs = std::min(format->channels.outputs, outputs);
+  channels[2].inputs = format->channels.inputs > 0? inputs: 0;
+  channels[2].outputs = format->channels.outputs > 0? outputs: 0;
+  XtSample samples[] = { mix.sample, XtSampleFloat32, XtSampleInt32, XtSampleInt24, XtSampleInt16, XtSampleUInt8 };
+  for(auto const& c: channels)
+    for(auto sample: samples)
+    {
+      XtFormat candidate = { { mix.rate, sample }, c };
+      if(c.inputs + c.outputs == 0) continue;
+      // The device already rejected the requested format.
+      if(&c == channels && candidate.mix.rate == format->mix.rate && sample == format->mix.sample) continue;
+      if((fault = device->SupportsFormat(&candidate, &supports)) != 0) return fault;
+      if(!supports) continue;
+      *resolved = candidate;
+      return 0;
+    }
+  return XtiSupportsFormat(device, format);
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+#ifndef XT_PRIVATE_ADAPTER_HPP
+#define XT_PRIVATE_ADAPTER_HPP
+
+#include <xt/api/Structs.h>
+#include <xt/shared/Shared.hpp>
+#include <xt/shared/Structs.hpp>
+
+#include <vector>
+#include <cstdint>
+
+struct XtStream;
+struct XtDevice;
+
+// Rational polyphase sample rate converter over interleaved float
+// frames. Output frame n sits at input frame n * _down / _up, the fifo
+// keeps the history the filter needs, one channel after the other. Rate
+// pairs with more than MaxPhases output phases use the nearest lower
+// phase.
+struct XtPolyphase
+{
+  int32_t _up;
+  int32_t _down;
+  int32_t _taps;
+  int32_t _phases;
+  int32_t _channels;
+  int32_t _capacity;
+  int32_t _count;
+  int32_t _index;
+  int32_t _phase;
+  std::vector<float> _fifo;
+  std::vector<float> _filter;
+
+  static inline int32_t const Taps = 64;
+  static inline int32_t const MaxPhases = 4096;
+
+  XtPolyphase() = default;
+  XtPolyphase(int32_t inRate, int32_t outRate, int32_t channels, int32_t capacity);
+
+  void Reset(int32_t delay);
+  int32_t Available() const;
+  int32_t Needed(int32_t frames) const;
+  void Push(float const* frames, int32_t count);
+  void Pull(float* frames, int32_t count);
+};
+
+// Converts between the format the device was opened with and the one
+// the application asked for: rate, sample type and channel count, with
+// channels matched up in order or mixed through a sparse routing matrix
+// into the application's channels (buses). Only routed device channels
+// are converted and silent buses are skipped. Runs on the audio thread
+// between access mode emulation and the application (or the decoupler).
+// When the rates differ, buffers passed on vary in length by a frame or
+// so. Resolve picks the device format for a format the device does not
+// support.
+struct XtAdapter
+{
+  XtStream* const _stream;
+  XtFormat const _format;
+  int32_t const _frames;
+  int32_t const _maxFrames;
+  bool const _resample;
+  bool const _routed;
+  uint64_t _position;
+  XtIOBuffers _buffers;
+  std::vector<float> _device;
+  std::vector<float> _mapped;
+  std::vector<float> _user;
+  std::vector<float> _buses;
+  std::vector<XtRoute> _inputRoutes;
+  std::vector<XtRoute> _outputRoutes;
+  std::vector<int32_t> _outputChannels;
+  std::vector<uint8_t> _silent;
+  XtPolyphase _input;
+  XtPolyphase _output;
+
+  // Passed to XtOnXRun when the output resampler runs dry.
+  static inline int32_t const XRunIndex = -2;
+
+  XtAdapter(XtStream* stream, XtFormat const& format, int32_t frames, XtRouting const* routing);
+
+  void Start();
+  void AddLatency(XtLatency* latency) const;
+  XtFault OnBuffer(XtBuffer const* buffer);
+  void LoadInput(void const* input, float* mapped, int32_t frames);
+  void StoreOutput(void* output, float const* mapped, int32_t frames);
+  static XtFault Resolve(XtDevice const* device, XtFormat const* format, XtFormat* resolved);
+};
+
+#endif // XT_PRIVATE_ADAPTER_HPP
\ No newline at end of file
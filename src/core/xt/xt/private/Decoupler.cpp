@@ -0,0 +1,133 @@
+#include <xt/shared/Shared.hpp>
+#include <xt/private/Stream.hpp>
+#include <xt/private/Platform.hpp>
+#include <xt/private/Decoupler.hpp>
+
+XtDecoupler::
+~XtDecoupler()
+{ Stop(); }
+
+XtDecoupler::
+XtDecoupler(XtStream* stream, int32_t frames):
+_stream(stream), _frames(frames),
+_buffers(stream->_params.stream.decouple),
+_thread(), _work(), _rings(), _position(0),
+_wake(), _signaled(false),
+_stopping(false), _fault(0), _xruns(0)
+{
+  auto const& format = stream->GetFormat();
+  bool interleaved = stream->_params.stream.interleaved != XtFalse;
+  int32_t size = XtiGetSampleSize(format.mix.sample);
+  int32_t capacity = (_buffers + 1) * frames;
+  _rings.input = XtRingBuffer(interleaved, capacity, format.channels.inputs, size);
+  _rings.output = XtRingBuffer(interleaved, capacity, format.channels.outputs, size);
+  XtiInitIOBuffers(_work, &format, frames);
+}
+
+void
+XtDecoupler::Stop()
+{
+  if(!_thread.joinable()) return;
+  _stopping = true;
+  _wake.Post();
+  _thread.join();
+}
+
+void
+XtDecoupler::Start()
+{
+  Stop();
+  _fault = 0;
+  _position = 0;
+  _signaled = false;
+  _stopping = false;
+  _rings.input.Clear();
+  _rings.output.Clear();
+  if(_stream->GetFormat().channels.outputs > 0)
+  {
+    bool interleaved = _stream->_params.stream.interleaved != XtFalse;
+    void* output = interleaved? static_cast<void*>(_work.output.interleaved.data()): _work.output.nonInterleaved.data();
+    XtiZeroBuffer(output, interleaved, 0, _stream->GetFormat().channels.outputs, _frames, _rings.output._sampleSize);
+    for(int32_t i = 0; i < _buffers; i++) _rings.output.Write(output, _frames);
+  }
+  _thread = std::thread(RunDecoupler, this);
+}
+
+bool
+XtDecoupler::IsReady() const
+{
+  auto const& channels = _stream->GetFormat().channels;
+  if(channels.inputs > 0 && _rings.input.Full() < _frames) return false;
+  if(channels.outputs > 0 && _rings.output._frames - _rings.output.Full() < _frames) return false;
+  return true;
+}
+
+// Input is passed on as soon as it arrives. Output plays the prefilled
+// buffers first, and without input to wait for the worker also fills
+// the ring's spare buffer.
+void
+XtDecoupler::AddLatency(XtLatency* latency) const
+{
+  auto const& format = _stream->GetFormat();
+  int32_t buffers = format.channels.inputs > 0? _buffers: _buffers + 1;
+  if(latency->output != 0.0) latency->output += buffers * _frames * 1000.0 / format.mix.rate;
+}
+
+void
+XtDecoupler::RunDecoupler(XtDecoupler* decoupler)
+{
+  XtPlatform::BeginThread();
+  while(decoupler->ProcessBuffer());
+  XtPlatform::EndThread();
+}
+
+XtFault
+XtDecoupler::OnBuffer(XtBuffer const* buffer)
+{
+  bool xrun = false;
+  XtFault fault = _fault.load();
+  if(fault != 0) return fault;
+  auto const& format = _stream->GetFormat();
+  if(buffer->input != nullptr)
+    xrun |= _rings.input.Write(buffer->input, buffer->frames) < buffer->frames;
+  if(buffer->output != nullptr)
+  {
+    int32_t read = _rings.output.Read(buffer->output, buffer->frames);
+    if(read < buffer->frames)
+    {
+      xrun = true;
+      XtBool interleaved = _stream->_params.stream.interleaved;
+      XtiZeroBuffer(buffer->output, interleaved, read, format.channels.outputs, buffer->frames - read, _rings.output._sampleSize);
+    }
+  }
+  if(xrun) _xruns++;
+  if(!_signaled.exchange(true)) _wake.Post();
+  return 0;
+}
+
+bool
+XtDecoupler::ProcessBuffer()
+{
+  _wake.Wait();
+  _signaled.exchange(false);
+
+  auto stream = _stream;
+  auto const& channels = stream->GetFormat().channels;
+  bool interleaved = stream->_params.stream.interleaved != XtFalse;
+  void* input = interleaved? static_cast<void*>(_work.input.interleaved.data()): _work.input.nonInterleaved.data();
+  void* output = interleaved? static_cast<void*>(_work.output.interleaved.data()): _work.output.nonInterleaved.data();
+  while(!_stopping.load() && _fault.load() == 0 && IsReady())
+  {
+    XtBuffer buffer = { 0 };
+    buffer.frames = _frames;
+    buffer.position = _position;
+    buffer.input = channels.inputs > 0? input: nullptr;
+    buffer.output = channels.outputs > 0? output: nullptr;
+    if(channels.inputs > 0) _rings.input.Read(input, _frames);
+    XtFault fault = stream->_params.stream.onBuffer(stream, &buffer, stream->_user);
+    if(fault != 0) _fault = fault;
+    else if(channels.outputs > 0) _rings.output.Write(output, _frames);
+    _position += _frames;
+  }
+  return !_stopping.load();
+}
\ No newline at end of file
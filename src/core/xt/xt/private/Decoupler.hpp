@@ -0,0 +1,47 @@
+#ifndef XT_PRIVATE_DECOUPLER_HPP
+#define XT_PRIVATE_DECOUPLER_HPP
+
+#include <xt/api/Structs.h>
+#include <xt/shared/Shared.hpp>
+#include <xt/shared/Structs.hpp>
+#include <xt/aggregate/RingBuffer.hpp>
+#include <xt/private/Platform.hpp>
+
+#include <atomic>
+#include <thread>
+#include <cstdint>
+
+struct XtStream;
+
+// Runs the application callback on its own thread, up to
+// params.stream.decouple buffers ahead of the device. The audio
+// thread only copies to and from the rings and posts a semaphore
+// when the worker has not been signaled yet, it never blocks.
+struct XtDecoupler
+{
+  XtStream* const _stream;
+  int32_t const _frames;
+  int32_t const _buffers;
+  std::thread _thread;
+  XtIOBuffers _work;
+  XtIORingBuffers _rings;
+  uint64_t _position;
+  XtSemaphore _wake;
+  std::atomic<bool> _signaled;
+  std::atomic<bool> _stopping;
+  std::atomic<XtFault> _fault;
+  std::atomic<uint64_t> _xruns;
+
+  ~XtDecoupler();
+  XtDecoupler(XtStream* stream, int32_t frames);
+
+  void Stop();
+  void Start();
+  bool IsReady() const;
+  bool ProcessBuffer();
+  void AddLatency(XtLatency* latency) const;
+  XtFault OnBuffer(XtBuffer const* buffer);
+  static void RunDecoupler(XtDecoupler* decoupler);
+};
+
+#endif // XT_PRIVATE_DECOUPLER_HPP
\ No newline at end of file
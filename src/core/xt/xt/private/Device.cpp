@@ -9,18 +9,31 @@ XtDevice::OpenStream(XtDeviceStreamParams const* params, void* user, XtStream**
   XtFault fault;
   int32_t frames;
   XtBool supports;
+  XtBool supportsFormat = XtTrue;
+  XtDeviceStreamParams deviceParams = *params;
+  XtFormat format = params->format;
+  XtRouting const* routing = &params->routing;
+  bool route = routing->inputs + routing->outputs > 0;
 
   *stream = nullptr;
   std::unique_ptr<XtStream> ptr;
+  if(params->adaptive && (fault = SupportsFormat(&params->format, &supportsFormat)) != 0) return fault;
+  bool adapt = params->adaptive && !supportsFormat;
+  if(route) format.channels = { routing->inputs, 0, routing->outputs, 0 };
+  if(adapt && (fault = XtAdapter::Resolve(this, &params->format, &deviceParams.format)) != 0) return fault;
   if((fault = SupportsAccess(params->stream.interleaved, &supports)) != 0) return fault;
-  if((fault = OpenStreamCore(params, stream)) != 0) return fault;
+  if((fault = OpenStreamCore(&deviceParams, stream)) != 0) return fault;
   ptr.reset(*stream);
   if((fault = ptr->GetFrames(&frames)) != 0) return fault;
 
   (*stream)->_user = user;
-  (*stream)->_params = *params;
+  (*stream)->_params = deviceParams;
+  (*stream)->_params.routing.routes = nullptr;
+  (*stream)->_params.routing.count = 0;
   (*stream)->_emulated = !supports;
-  XtiInitIOBuffers((*stream)->_buffers, &params->format, frames);
+  XtiInitIOBuffers((*stream)->_buffers, &deviceParams.format, frames);
+  if(adapt || route) (*stream)->_adapter = std::make_unique<XtAdapter>(*stream, format, frames, route? routing: nullptr);
+  (*stream)->Decouple(adapt || route? (*stream)->_adapter->_maxFrames: frames);
   ptr.release();
   return 0;
 }
\ No newline at end of file
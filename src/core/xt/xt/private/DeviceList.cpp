@@ -0,0 +1,43 @@
+#include <xt/private/DeviceList.hpp>
+
+#include <vector>
+#include <cstring>
+
+static void
+AppendInt32(std::vector<uint8_t>& buffer, int32_t value)
+{
+  size_t offset = buffer.size();
+  buffer.resize(offset + sizeof(int32_t));
+  memcpy(&buffer[offset], &value, sizeof(int32_t));
+}
+
+XtFault
+XtDeviceList::GetSnapshot(uint8_t* buffer, int32_t* size) const
+{
+  XtFault fault;
+  int32_t count;
+  std::vector<char> id;
+  std::vector<uint8_t> result;
+  if((fault = GetCount(&count)) != 0) return fault;
+  AppendInt32(result, count);
+  for(int32_t i = 0; i < count; i++)
+  {
+    int32_t idSize = 0;
+    int32_t nameSize = 0;
+    XtDeviceCaps caps = XtDeviceCapsNone;
+    if((fault = GetId(i, nullptr, &idSize)) != 0) return fault;
+    id.resize(static_cast<size_t>(idSize));
+    if((fault = GetId(i, id.data(), &idSize)) != 0) return fault;
+    if((fault = GetCapabilities(id.data(), &caps)) != 0) return fault;
+    if((fault = GetName(id.data(), nullptr, &nameSize)) != 0) return fault;
+    AppendInt32(result, caps);
+    result.insert(result.end(), id.begin(), id.end());
+    size_t offset = result.size();
+    result.resize(offset + static_cast<size_t>(nameSize));
+    if((fault = GetName(id.data(), reinterpret_cast<char*>(&result[offset]), &nameSize)) != 0) return fault;
+  }
+  bool copy = buffer != nullptr && *size >= static_cast<int32_t>(result.size());
+  if(copy) memcpy(buffer, result.data(), result.size());
+  *size = static_cast<int32_t>(result.size());
+  return 0;
+}
\ No newline at end of file
@@ -15,6 +15,7 @@
 struct XtDeviceList
 {
   virtual ~XtDeviceList() { };  
+  XtFault GetSnapshot(uint8_t* buffer, int32_t* size) const;
   virtual XtSystem GetSystem() const = 0;
   virtual XtFault GetCount(int32_t* count) const = 0;
   virtual XtFault GetId(int32_t index, char* buffer, int32_t* size) const = 0;
@@ -9,6 +9,16 @@
 #include <memory>
 #include <thread>
 
+// Counting semaphore, Post never blocks so audio threads may signal.
+struct XtSemaphore
+{
+  void* _handle;
+  ~XtSemaphore();
+  XtSemaphore();
+  void Post();
+  void Wait();
+};
+
 struct XtPlatform
 {
   ~XtPlatform();
@@ -2,10 +2,26 @@
 #include <xt/private/Platform.hpp>
 #include <errno.h>
 #include <pthread.h>
+#include <semaphore.h>
 
 void XtPlatform::EndThread() { }
 void XtPlatform::BeginThread() { }
 
+XtSemaphore::
+~XtSemaphore()
+{
+  sem_destroy(static_cast<sem_t*>(_handle));
+  delete static_cast<sem_t*>(_handle);
+}
+
+XtSemaphore::
+XtSemaphore(): _handle(new sem_t)
+{ XT_ASSERT(sem_init(static_cast<sem_t*>(_handle), 0, 0) == 0); }
+void XtSemaphore::
+Post() { XT_ASSERT(sem_post(static_cast<sem_t*>(_handle)) == 0); }
+void XtSemaphore::
+Wait() { while(sem_wait(static_cast<sem_t*>(_handle)) != 0) XT_ASSERT(errno == EINTR); }
+
 XtPlatform::~XtPlatform() {}
 XtPlatform::XtPlatform(void* window):
 XtPlatform() {}
@@ -12,6 +12,17 @@ void
 XtPlatform::BeginThread() 
 { XT_ASSERT_COM(CoInitializeEx(nullptr, COINIT_APARTMENTTHREADED)); }
 
+XtSemaphore::
+~XtSemaphore()
+{ CloseHandle(_handle); }
+XtSemaphore::
+XtSemaphore(): _handle(CreateSemaphoreW(nullptr, 0, MAXLONG, nullptr))
+{ XT_ASSERT(_handle != nullptr); }
+void XtSemaphore::
+Post() { XT_ASSERT(ReleaseSemaphore(_handle, 1, nullptr)); }
+void XtSemaphore::
+Wait() { XT_ASSERT(WaitForSingleObject(_handle, INFINITE) == WAIT_OBJECT_0); }
+
 XtPlatform::
 ~XtPlatform()
 {
@@ -71,6 +71,8 @@ XtService::AggregateStream(XtAggregateStreamParams const* params, void* user, Xt
     thisRings.input = XtRingBuffer(interleaved, result->_frames, channels.inputs, attrs.size);
     thisRings.output = XtRingBuffer(interleaved, result->_frames, channels.outputs, attrs.size);
     result->_rings.push_back(thisRings);
+    bool compensate = params->driftCompensation != XtFalse && i != result->_masterIndex;
+    result->_drift.push_back(compensate? std::make_unique<XtDriftCompensator>(params->mix.sample, interleaved, channels, result->_frames / 2): nullptr);
     XtiInitIOBuffers(result->_buffers[i], &result->_streams[i]->_params.format, result->_frames);
   }
 
@@ -91,6 +93,7 @@ XtService::AggregateStream(XtAggregateStreamParams const* params, void* user, Xt
   runner->_params.format = format;
   runner->_params.stream = params->stream;
   XtiInitIOBuffers(runner->_buffers, &format, frames);
+  runner->Decouple(frames);
   *stream = runner.release();
   return 0;
 }
\ No newline at end of file
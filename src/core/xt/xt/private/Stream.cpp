@@ -1,5 +1,6 @@
 #include <xt/shared/Shared.hpp>
 #include <xt/private/Stream.hpp>
+#include <xt/private/Decoupler.hpp>
 
 void
 XtStream::OnXRun(int32_t index) const
@@ -19,7 +20,33 @@ XtStream::OnBuffer(int32_t index, XtBuffer const* buffer)
   params.format = &_params.format;
   params.interleaved = _params.stream.interleaved;
   return XtiOnBuffer(&params, [this](XtBuffer const* converted) { 
-    return _params.stream.onBuffer(this, converted, _user); });
+    return OnUserBuffer(converted); });
+}
+
+XtFault
+XtStream::OnUserBuffer(XtBuffer const* buffer)
+{
+  if(_adapter) return _adapter->OnBuffer(buffer);
+  return OnAdaptedBuffer(buffer);
+}
+
+XtFault
+XtStream::OnAdaptedBuffer(XtBuffer const* buffer)
+{
+  if(_decoupler) return _decoupler->OnBuffer(buffer);
+  return _params.stream.onBuffer(this, buffer, _user);
+}
+
+XtFormat const&
+XtStream::GetFormat() const
+{ return _adapter? _adapter->_format: _params.format; }
+
+void
+XtStream::Decouple(int32_t frames)
+{
+  auto const& channels = GetFormat().channels;
+  if(_params.stream.decouple == 0 || channels.inputs + channels.outputs == 0) return;
+  _decoupler = std::make_unique<XtDecoupler>(this, frames);
 }
 
 void
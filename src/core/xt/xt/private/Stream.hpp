@@ -2,6 +2,10 @@
 #define XT_PRIVATE_STREAM_HPP
 
 #include <xt/private/StreamBase.hpp>
+#include <xt/private/Adapter.hpp>
+#include <xt/private/Decoupler.hpp>
+
+#include <memory>
 
 #define XT_IMPLEMENT_STREAM()     \
   void Stop() override final;     \
@@ -15,6 +19,8 @@ public XtStreamBase
   bool _emulated;
   XtIOBuffers _buffers;
   XtDeviceStreamParams _params;
+  std::unique_ptr<XtAdapter> _adapter;
+  std::unique_ptr<XtDecoupler> _decoupler;
 
   virtual void Stop() = 0;
   virtual XtFault Start() = 0;
@@ -22,7 +28,11 @@ public XtStreamBase
 
   XtStream() = default;  
   void OnXRun(int32_t index) const override final;
+  void Decouple(int32_t frames);
+  XtFormat const& GetFormat() const;
   void OnRunning(XtBool running, XtFault fault) const;
+  XtFault OnUserBuffer(XtBuffer const* buffer);
+  XtFault OnAdaptedBuffer(XtBuffer const* buffer);
   XtFault OnBuffer(int32_t index, XtBuffer const* buffer) override;
 };
 
@@ -45,6 +45,15 @@ XtiGetDSoundError(XtFault fault)
 { XT_ASSERT(false); return XtServiceError(); }
 #endif // !XT_ENABLE_DSOUND
 
+#if !XT_ENABLE_NULL
+std::unique_ptr<XtService>
+XtiCreateNullService()
+{ return std::unique_ptr<XtService>(); }
+XtServiceError
+XtiGetNullError(XtFault fault) 
+{ XT_ASSERT(false); return XtServiceError(); }
+#endif // !XT_ENABLE_NULL
+
 #if !XT_ENABLE_WASAPI
 std::unique_ptr<XtService>
 XtiCreateWasapiService()
@@ -8,6 +8,7 @@
 #include <thread>
 #include <cassert>
 #include <cstring>
+#include <algorithm>
 
 int32_t
 XtiGetPopCount64(uint64_t x) 
@@ -54,6 +55,7 @@ XtiGetServiceError(XtSystem system, XtFault fault)
   case XtSystemPulse: return XtiGetPulseError(fault);
   case XtSystemWASAPI: return XtiGetWasapiError(fault);
   case XtSystemDSound: return XtiGetDSoundError(fault);
+  case XtSystemNull: return XtiGetNullError(fault);
   default: XT_ASSERT(false); return XtServiceError();
   }
 }
@@ -131,6 +133,164 @@ XtiInterleave(void* dst, void const* const* src, int32_t frames, int32_t channel
       memcpy(&d[(f * channels + c) * size], &s[c][f * size], size);
 }
 
+static inline float
+XtiLoadUInt8(uint8_t const* p)
+{ return (p[0] - 128) * (1.0f / 128.0f); }
+static inline float
+XtiLoadInt16(uint8_t const* p)
+{ int16_t v; memcpy(&v, p, 2); return v * (1.0f / 32768.0f); }
+static inline float
+XtiLoadInt32(uint8_t const* p)
+{ int32_t v; memcpy(&v, p, 4); return v * (1.0f / 2147483648.0f); }
+static inline float
+XtiLoadFloat32(uint8_t const* p)
+{ float v; memcpy(&v, p, 4); return v; }
+
+static inline float
+XtiLoadInt24(uint8_t const* p)
+{
+  uint32_t v = static_cast<uint32_t>(p[0]) << 8 | static_cast<uint32_t>(p[1]) << 16 | static_cast<uint32_t>(p[2]) << 24;
+  return static_cast<int32_t>(v) * (1.0f / 2147483648.0f);
+}
+
+// Clamping right before the conversion keeps the loops vectorizable,
+// the bias turns truncation into rounding.
+static inline void
+XtiStoreUInt8(float v, uint8_t* p)
+{ p[0] = static_cast<uint8_t>(static_cast<int32_t>(std::min(std::max(v * 128.0f + 128.5f, 0.5f), 255.5f))); }
+static inline void
+XtiStoreInt16(float v, uint8_t* p)
+{ auto i = static_cast<int16_t>(static_cast<int32_t>(std::min(std::max(v * 32768.0f + 32768.5f, 0.5f), 65535.5f)) - 32768); memcpy(p, &i, 2); }
+static inline void
+XtiStoreInt32(float v, uint8_t* p)
+{ auto i = static_cast<int32_t>(static_cast<int64_t>(std::min(std::max(v * 2147483648.0 + 2147483648.5, 0.5), 4294967295.5)) - 2147483648); memcpy(p, &i, 4); }
+static inline void
+XtiStoreFloat32(float v, uint8_t* p)
+{ memcpy(p, &v, 4); }
+
+static inline void
+XtiStoreInt24(float v, uint8_t* p)
+{
+  auto i = static_cast<int32_t>(std::min(std::max(v * 8388608.0 + 8388608.5, 0.5), 16777215.5)) - 8388608;
+  p[0] = static_cast<uint8_t>(i); p[1] = static_cast<uint8_t>(i >> 8); p[2] = static_cast<uint8_t>(i >> 16);
+}
+
+template <float (*Load)(uint8_t const*), int32_t Size>
+static void
+XtiLoadFloat(float* dst, void const* src, XtBool interleaved, int32_t channels, int32_t frames)
+{
+  if(interleaved)
+  {
+    auto s = static_cast<uint8_t const*>(src);
+    for(int32_t i = 0; i < frames * channels; i++) dst[i] = Load(s + i * Size);
+  } else for(int32_t c = 0; c < channels; c++)
+  {
+    auto s = static_cast<uint8_t const* const*>(src)[c];
+    for(int32_t f = 0; f < frames; f++) dst[f * channels + c] = Load(s + f * Size);
+  }
+}
+
+template <void (*Store)(float, uint8_t*), int32_t Size>
+static void
+XtiStoreFloat(void* dst, float const* src, XtBool interleaved, int32_t channels, int32_t frames)
+{
+  if(interleaved)
+  {
+    auto d = static_cast<uint8_t*>(dst);
+    for(int32_t i = 0; i < frames * channels; i++) Store(src[i], d + i * Size);
+  } else for(int32_t c = 0; c < channels; c++)
+  {
+    auto d = static_cast<uint8_t* const*>(dst)[c];
+    for(int32_t f = 0; f < frames; f++) Store(src[f * channels + c], d + f * Size);
+  }
+}
+
+template <float (*Load)(uint8_t const*), int32_t Size>
+static void
+XtiMixChannel(float* dst, void const* src, XtBool interleaved, int32_t channels, int32_t channel, int32_t frames, float gain)
+{
+  if(!interleaved)
+  {
+    auto s = static_cast<uint8_t const* const*>(src)[channel];
+    for(int32_t f = 0; f < frames; f++) dst[f] += gain * Load(s + f * Size);
+  } else
+  {
+    auto s = static_cast<uint8_t const*>(src) + channel * Size;
+    for(int32_t f = 0; f < frames; f++) dst[f] += gain * Load(s + f * channels * Size);
+  }
+}
+
+template <void (*Store)(float, uint8_t*), int32_t Size>
+static void
+XtiStoreChannel(void* dst, float const* src, XtBool interleaved, int32_t channels, int32_t channel, int32_t frames)
+{
+  if(!interleaved)
+  {
+    auto d = static_cast<uint8_t* const*>(dst)[channel];
+    for(int32_t f = 0; f < frames; f++) Store(src[f], d + f * Size);
+  } else
+  {
+    auto d = static_cast<uint8_t*>(dst) + channel * Size;
+    for(int32_t f = 0; f < frames; f++) Store(src[f], d + f * channels * Size);
+  }
+}
+
+void
+XtiToFloat(float* dst, void const* src, XtBool interleaved, XtSample sample, int32_t channels, int32_t frames)
+{
+  switch(sample)
+  {
+  case XtSampleUInt8: return XtiLoadFloat<XtiLoadUInt8, 1>(dst, src, interleaved, channels, frames);
+  case XtSampleInt16: return XtiLoadFloat<XtiLoadInt16, 2>(dst, src, interleaved, channels, frames);
+  case XtSampleInt24: return XtiLoadFloat<XtiLoadInt24, 3>(dst, src, interleaved, channels, frames);
+  case XtSampleInt32: return XtiLoadFloat<XtiLoadInt32, 4>(dst, src, interleaved, channels, frames);
+  case XtSampleFloat32: return XtiLoadFloat<XtiLoadFloat32, 4>(dst, src, interleaved, channels, frames);
+  default: XT_ASSERT(false); break;
+  }
+}
+
+void
+XtiFromFloat(void* dst, float const* src, XtBool interleaved, XtSample sample, int32_t channels, int32_t frames)
+{
+  switch(sample)
+  {
+  case XtSampleUInt8: return XtiStoreFloat<XtiStoreUInt8, 1>(dst, src, interleaved, channels, frames);
+  case XtSampleInt16: return XtiStoreFloat<XtiStoreInt16, 2>(dst, src, interleaved, channels, frames);
+  case XtSampleInt24: return XtiStoreFloat<XtiStoreInt24, 3>(dst, src, interleaved, channels, frames);
+  case XtSampleInt32: return XtiStoreFloat<XtiStoreInt32, 4>(dst, src, interleaved, channels, frames);
+  case XtSampleFloat32: return XtiStoreFloat<XtiStoreFloat32, 4>(dst, src, interleaved, channels, frames);
+  default: XT_ASSERT(false); break;
+  }
+}
+
+void
+XtiMixChannelToFloat(float* dst, void const* src, XtBool interleaved, XtSample sample, int32_t channels, int32_t channel, int32_t frames, float gain)
+{
+  switch(sample)
+  {
+  case XtSampleUInt8: return XtiMixChannel<XtiLoadUInt8, 1>(dst, src, interleaved, channels, channel, frames, gain);
+  case XtSampleInt16: return XtiMixChannel<XtiLoadInt16, 2>(dst, src, interleaved, channels, channel, frames, gain);
+  case XtSampleInt24: return XtiMixChannel<XtiLoadInt24, 3>(dst, src, interleaved, channels, channel, frames, gain);
+  case XtSampleInt32: return XtiMixChannel<XtiLoadInt32, 4>(dst, src, interleaved, channels, channel, frames, gain);
+  case XtSampleFloat32: return XtiMixChannel<XtiLoadFloat32, 4>(dst, src, interleaved, channels, channel, frames, gain);
+  default: XT_ASSERT(false); break;
+  }
+}
+
+void
+XtiChannelFromFloat(void* dst, float const* src, XtBool interleaved, XtSample sample, int32_t channels, int32_t channel, int32_t frames)
+{
+  switch(sample)
+  {
+  case XtSampleUInt8: return XtiStoreChannel<XtiStoreUInt8, 1>(dst, src, interleaved, channels, channel, frames);
+  case XtSampleInt16: return XtiStoreChannel<XtiStoreInt16, 2>(dst, src, interleaved, channels, channel, frames);
+  case XtSampleInt24: return XtiStoreChannel<XtiStoreInt24, 3>(dst, src, interleaved, channels, channel, frames);
+  case XtSampleInt32: return XtiStoreChannel<XtiStoreInt32, 4>(dst, src, interleaved, channels, channel, frames);
+  case XtSampleFloat32: return XtiStoreChannel<XtiStoreFloat32, 4>(dst, src, interleaved, channels, channel, frames);
+  default: XT_ASSERT(false); break;
+  }
+}
+
 XtFault
 XtiSupportsFormat(XtDevice const* device, XtFormat const* format)
 {
@@ -50,6 +50,14 @@ XtiDeinterleave(void** dst, void const* src, int32_t frames, int32_t channels, i
 void
 XtiInterleave(void* dst, void const* const* src, int32_t frames, int32_t channels, int32_t size);
 void
+XtiToFloat(float* dst, void const* src, XtBool interleaved, XtSample sample, int32_t channels, int32_t frames);
+void
+XtiFromFloat(void* dst, float const* src, XtBool interleaved, XtSample sample, int32_t channels, int32_t frames);
+void
+XtiMixChannelToFloat(float* dst, void const* src, XtBool interleaved, XtSample sample, int32_t channels, int32_t channel, int32_t frames, float gain);
+void
+XtiChannelFromFloat(void* dst, float const* src, XtBool interleaved, XtSample sample, int32_t channels, int32_t channel, int32_t frames);
+void
 XtiZeroBuffer(void* buffer, XtBool interleaved, int32_t posFrames, int32_t channels, int32_t frames, int32_t sampleSize);
 void 
 XtiWeave(void* dst, void const* src, XtBool interleaved, int32_t dstChans, int32_t srcChans, int32_t dstChan, int32_t srcChan, int32_t frames, int32_t sampleSize);
@@ -8,7 +8,7 @@ namespace Xt {
 enum class Setup { ProAudio, SystemAudio, ConsumerAudio };
 enum class Sample { UInt8, Int16, Int24, Int32, Float32 };
 enum class Cause { Format, Service, Generic, Unknown, Endpoint };
-enum class System { ALSA = 1, ASIO, JACK, WASAPI, Pulse, DSound };
+enum class System { ALSA = 1, ASIO, JACK, WASAPI, Pulse, DSound, Null };
 
 enum EnumFlags { EnumFlagsInput = 0x1, EnumFlagsOutput = 0x2, EnumFlagsAll = EnumFlagsInput | EnumFlagsOutput };
 enum ServiceCaps { ServiceCapsNone = 0x0, ServiceCapsTime = 0x1, ServiceCapsLatency = 0x2, ServiceCapsFullDuplex = 0x4, 
@@ -104,9 +104,32 @@ struct StreamParams final
   OnBuffer onBuffer;
   OnXRun onXRun;
   OnRunning onRunning;
+  int32_t decouple;
   StreamParams() = default;
-  StreamParams(bool interleaved, OnBuffer onBuffer, OnXRun onXRun, OnRunning onRunning):
-  interleaved(interleaved), onBuffer(onBuffer), onXRun(onXRun), onRunning(onRunning) {}
+  StreamParams(bool interleaved, OnBuffer onBuffer, OnXRun onXRun, OnRunning onRunning, int32_t decouple = 0):
+  interleaved(interleaved), onBuffer(onBuffer), onXRun(onXRun), onRunning(onRunning), decouple(decouple) {}
+};
+
+struct Route final
+{
+  bool output;
+  int32_t channel;
+  int32_t bus;
+  float gain;
+  Route() = default;
+  Route(bool output, int32_t channel, int32_t bus, float gain):
+  output(output), channel(channel), bus(bus), gain(gain) {}
+};
+
+struct Routing final
+{
+  Route const* routes;
+  int32_t count;
+  int32_t inputs;
+  int32_t outputs;
+  Routing() = default;
+  Routing(Route const* routes, int32_t count, int32_t inputs, int32_t outputs):
+  routes(routes), count(count), inputs(inputs), outputs(outputs) {}
 };
 
 struct DeviceStreamParams final 
@@ -114,9 +137,11 @@ struct DeviceStreamParams final
   StreamParams stream;
   Format format;
   double bufferSize;
+  bool adaptive;
+  Routing routing;
   DeviceStreamParams() = default;
-  DeviceStreamParams(StreamParams const& stream, Format const& format, double bufferSize):
-  stream(stream), format(format), bufferSize(bufferSize) {}
+  DeviceStreamParams(StreamParams const& stream, Format const& format, double bufferSize, bool adaptive = false, Routing const& routing = Routing()):
+  stream(stream), format(format), bufferSize(bufferSize), adaptive(adaptive), routing(routing) {}
 };
 
 struct AggregateDeviceParams final 
@@ -136,9 +161,10 @@ struct AggregateStreamParams final
   int32_t count;
   Mix mix;
   Device const* master;
+  bool driftCompensation;
   AggregateStreamParams() = default;
-  AggregateStreamParams(StreamParams const& stream, AggregateDeviceParams* devices, int32_t count, Mix const& mix, Device const* master):
-  stream(stream), devices(devices), count(count), mix(mix), master(master) {}
+  AggregateStreamParams(StreamParams const& stream, AggregateDeviceParams* devices, int32_t count, Mix const& mix, Device const* master, bool driftCompensation = false):
+  stream(stream), devices(devices), count(count), mix(mix), master(master), driftCompensation(driftCompensation) {}
 };
 
 } // namespace Xt
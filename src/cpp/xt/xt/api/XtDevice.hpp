@@ -107,8 +107,22 @@ Device::OpenStream(DeviceStreamParams const& params, void* user)
 {
   XtStream* stream; 
   XtDeviceStreamParams coreParams = { 0 };
+  std::vector<XtRoute> routes(params.routing.count);
+  for(int32_t i = 0; i < params.routing.count; i++)
+  {
+    routes[i].output = params.routing.routes[i].output;
+    routes[i].channel = params.routing.routes[i].channel;
+    routes[i].bus = params.routing.routes[i].bus;
+    routes[i].gain = params.routing.routes[i].gain;
+  }
+  coreParams.routing.routes = routes.data();
+  coreParams.routing.count = params.routing.count;
+  coreParams.routing.inputs = params.routing.inputs;
+  coreParams.routing.outputs = params.routing.outputs;
+  coreParams.adaptive = params.adaptive;
   coreParams.bufferSize = params.bufferSize;
   coreParams.stream.onBuffer = &Detail::ForwardOnBuffer;
+  coreParams.stream.decouple = params.stream.decouple;
   coreParams.stream.interleaved = params.stream.interleaved;
   coreParams.format = *reinterpret_cast<XtFormat const*>(&params.format);
   coreParams.stream.onXRun = params.stream.onXRun == nullptr? nullptr: &Detail::ForwardOnXRun;
@@ -85,7 +85,9 @@ Service::AggregateStream(AggregateStreamParams const& params, void* user)
   coreParams.devices = ds.data();
   coreParams.count = params.count;
   coreParams.master = params.master->_d;
+  coreParams.driftCompensation = params.driftCompensation;
   coreParams.stream.onBuffer = Detail::ForwardOnBuffer;
+  coreParams.stream.decouple = params.stream.decouple;
   coreParams.stream.interleaved = params.stream.interleaved;
   coreParams.mix = *reinterpret_cast<XtMix const*>(&params.mix);
   coreParams.stream.onXRun = params.stream.onXRun == nullptr? nullptr: Detail::ForwardOnXRun;
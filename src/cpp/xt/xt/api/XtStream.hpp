@@ -32,6 +32,8 @@ public:
   int32_t GetFrames() const;
   Latency GetLatency() const;
   Format const& GetFormat() const;
+  uint64_t GetDecoupleXRuns() const;
+  double GetDrift(int32_t index) const;
 
 /** @cond */
   friend class Device;
@@ -60,6 +62,12 @@ Stream::IsRunning() const
 inline void
 Stream::Start() 
 { Detail::HandleError(XtStreamStart(_s)); }
+inline uint64_t
+Stream::GetDecoupleXRuns() const
+{ return XtStreamGetDecoupleXRuns(_s); }
+inline double
+Stream::GetDrift(int32_t index) const
+{ return XtStreamGetDrift(_s, index); }
 
 inline int32_t
 Stream::GetFrames() const 
@@ -0,0 +1,96 @@
+package xt.audio;
+
+import com.sun.jna.Pointer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import xt.audio.Enums.XtSample;
+import xt.audio.Enums.XtSystem;
+import xt.audio.Structs.XtAggregateDeviceParams;
+import xt.audio.Structs.XtAggregateStreamParams;
+import xt.audio.Structs.XtBuffer;
+import xt.audio.Structs.XtChannels;
+import xt.audio.Structs.XtMix;
+import xt.audio.Structs.XtStreamParams;
+import xt.audio.Structs.XtThreadParams;
+
+// Time per callback of an empty aggregate stream over free-running Null
+// devices with 8 inputs and 8 outputs each and 1 ms buffers, so mostly
+// moving audio through the per-device rings.
+@Fork(1)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AggregateBench {
+
+    static final int BUFFERS = 10000;
+    static final int CHANNELS = 8;
+
+    @Param({"4", "8"})
+    public int devices;
+    @Param({"false", "true"})
+    public boolean interleaved;
+
+    private XtStream _stream;
+    private XtDevice[] _devices;
+    private XtPlatform _platform;
+    private volatile long _buffers;
+    private volatile long _target;
+    private volatile Thread _waiter;
+
+    @Setup
+    public void setup() {
+        _platform = XtAudio.init(null, Pointer.NULL, null);
+        XtService service = _platform.getService(XtSystem.NULL);
+        _devices = new XtDevice[devices];
+        var params = new XtAggregateDeviceParams[devices];
+        String id = "2?inputs=" + CHANNELS + "&outputs=" + CHANNELS + "&buffer=1&freerun=1";
+        for(int i = 0; i < devices; i++) {
+            _devices[i] = service.openDevice(id);
+            params[i] = new XtAggregateDeviceParams(_devices[i], new XtChannels(CHANNELS, 0, CHANNELS, 0), 1.0);
+        }
+        var thread = new XtThreadParams("XtAudio", true, false, null);
+        var stream = new XtStreamParams(interleaved, this::onBuffer, null, null, thread);
+        var mix = new XtMix(48000, XtSample.FLOAT32);
+        _stream = service.aggregateStream(new XtAggregateStreamParams(stream, params, devices, mix, _devices[0]), null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        _stream.close();
+        for(XtDevice device: _devices) device.close();
+        _platform.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BUFFERS)
+    public long callback() {
+        _target = _buffers + BUFFERS;
+        _waiter = Thread.currentThread();
+        _stream.start();
+        while(_buffers < _target) LockSupport.park(this);
+        _stream.stop();
+        return _buffers;
+    }
+
+    private int onBuffer(XtStream stream, XtBuffer buffer, Object user) {
+        long buffers = _buffers + 1;
+        _buffers = buffers;
+        if(buffers == _target) LockSupport.unpark(_waiter);
+        return 0;
+    }
+}
\ No newline at end of file
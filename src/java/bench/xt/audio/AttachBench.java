@@ -0,0 +1,68 @@
+package xt.audio;
+
+import com.sun.jna.Pointer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import xt.audio.Enums.XtSample;
+import xt.audio.Structs.XtChannels;
+import xt.audio.Structs.XtDeviceStreamParams;
+import xt.audio.Structs.XtFormat;
+import xt.audio.Structs.XtMix;
+import xt.audio.Structs.XtStreamParams;
+import xt.audio.Structs.XtThreadParams;
+
+// Time per callback of an empty stream on a free-running Null device,
+// so mostly the native-to-Java transition. "attached" keeps the audio
+// thread attached to the JVM, otherwise JNA attaches and detaches it
+// around every callback.
+@Fork(1)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AttachBench {
+
+    static final int BUFFERS = 10000;
+
+    @Param({"false", "true"})
+    public boolean attached;
+
+    private long _frames;
+    private XtPlatform _platform;
+    private XtOfflineRenderer _renderer;
+
+    @Setup
+    public void setup() {
+        _platform = XtAudio.init(null, Pointer.NULL, null);
+        var format = new XtFormat(new XtMix(48000, XtSample.FLOAT32), new XtChannels(0, 0, 2, 0));
+        var thread = attached? new XtThreadParams("XtAudio", true, false, null): null;
+        var params = new XtStreamParams(true, (s, b, u) -> 0, null, null, thread);
+        _renderer = new XtOfflineRenderer(_platform, new XtDeviceStreamParams(params, format, 1.0), null);
+        _frames = (long)_renderer.getStream().getFrames() * BUFFERS;
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        _renderer.close();
+        _platform.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BUFFERS)
+    public long callback() throws Exception {
+        return _renderer.render(_frames);
+    }
+}
@@ -0,0 +1,101 @@
+package xt.audio;
+
+import com.sun.jna.Memory;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import xt.audio.Enums.XtSample;
+import xt.audio.Structs.XtBuffer;
+import xt.audio.Structs.XtChannels;
+import xt.audio.Structs.XtFormat;
+import xt.audio.Structs.XtMix;
+
+// Capture throughput of XtBlockingStream.read against hand-written
+// plumbing (XtRingBuffer written from the callback, awaitAvailable plus
+// XtConverter on the consumer). A background thread stands in for the
+// audio thread and calls back with synthetic buffers as fast as the ring
+// drains, so the score is the consumer side cost per period. Run with
+// -prof gc or an OS profiler to compare CPU use.
+@Fork(1)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BlockingBench {
+
+    static final int FRAMES = 512;
+    static final int RATE = 48000;
+
+    @Param({"INT16", "FLOAT32"})
+    public XtSample sample;
+    @Param({"2"})
+    public int channels;
+
+    private volatile boolean _done;
+    private Thread _thread;
+    private float[] _dest;
+    private Memory _staging;
+    private XtRingBuffer _ring;
+    private XtConverter _converter;
+    private XtBlockingStream _blocking;
+    private final XtBuffer _buffer = new XtBuffer();
+    private final XtBuffer _read = new XtBuffer();
+
+    @Setup
+    public void setup() {
+        int size = XtAudio.getSampleAttributes(sample).size;
+        var format = new XtFormat(new XtMix(RATE, sample), new XtChannels(channels, 0, 0, 0));
+        _dest = new float[FRAMES * channels];
+        _buffer.frames = FRAMES;
+        _buffer.input = new Memory((long)FRAMES * channels * size);
+        _buffer.input.setMemory(0, (long)FRAMES * channels * size, (byte)1);
+        _staging = new Memory((long)FRAMES * channels * size);
+        _read.output = _staging;
+        _read.frames = FRAMES;
+        _ring = new XtRingBuffer(sample, channels, FRAMES * 4, true);
+        _converter = new XtConverter(sample, channels, FRAMES, true);
+        _blocking = new XtBlockingStream(format, FRAMES, FRAMES * 3 * 1000.0 / RATE);
+        _thread = new Thread(this::drive, "BlockingBench");
+        _thread.setDaemon(true);
+        _thread.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        _done = true;
+        _thread.join();
+    }
+
+    @Benchmark
+    public float[] blocking() throws InterruptedException {
+        _blocking.read(_dest, FRAMES);
+        return _dest;
+    }
+
+    @Benchmark
+    public float[] callback() throws InterruptedException {
+        _ring.awaitAvailable(FRAMES, false);
+        _ring.read(_read);
+        _converter.toFloat(_staging, FRAMES, _dest);
+        return _dest;
+    }
+
+    private void drive() {
+        while(!_done) {
+            if(_ring.free() >= FRAMES) _ring.write(_buffer);
+            if(_blocking.available() <= _blocking.getFrames() * 3) _blocking.onBuffer(_buffer);
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package xt.audio;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xt.audio.Enums.XtSample;
+
+// XtConverter cost per period over synthetic native buffers. The native
+// side uses the layout given by "interleaved", the Java side is measured
+// both interleaved (float[]) and per channel (float[][]).
+@Fork(1)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConvertBench {
+
+    static final int FRAMES = 512;
+
+    @Param({"UINT8", "INT16", "INT24", "INT32", "FLOAT32"})
+    public XtSample sample;
+    @Param({"2", "8", "32"})
+    public int channels;
+    @Param({"true", "false"})
+    public boolean interleaved;
+
+    private Pointer _native;
+    private Memory[] _buffers;
+    private float[] _interleaved;
+    private float[][] _channels;
+    private XtConverter _converter;
+
+    @Setup
+    public void setup() {
+        int size = XtAudio.getSampleAttributes(sample).size;
+        _interleaved = new float[channels * FRAMES];
+        _channels = new float[channels][FRAMES];
+        _converter = new XtConverter(sample, channels, FRAMES, interleaved);
+        if(interleaved) _native = new Memory((long)channels * FRAMES * size);
+        else {
+            _buffers = new Memory[channels];
+            _native = new Memory((long)channels * Native.POINTER_SIZE);
+            for(int c = 0; c < channels; c++) {
+                _buffers[c] = new Memory((long)FRAMES * size);
+                _native.setPointer((long)c * Native.POINTER_SIZE, _buffers[c]);
+            }
+        }
+        for(int c = 0; c < channels; c++)
+            for(int f = 0; f < FRAMES; f++)
+                _channels[c][f] = (float)Math.sin(f * 0.01 + c);
+        _converter.fromFloat(_channels, FRAMES, _native);
+    }
+
+    @Benchmark
+    public float[] toFloatInterleaved() {
+        _converter.toFloat(_native, FRAMES, _interleaved);
+        return _interleaved;
+    }
+
+    @Benchmark
+    public float[][] toFloatChannels() {
+        _converter.toFloat(_native, FRAMES, _channels);
+        return _channels;
+    }
+
+    @Benchmark
+    public Pointer fromFloatInterleaved() {
+        _converter.fromFloat(_interleaved, FRAMES, _native);
+        return _native;
+    }
+
+    @Benchmark
+    public Pointer fromFloatChannels() {
+        _converter.fromFloat(_channels, FRAMES, _native);
+        return _native;
+    }
+}
@@ -0,0 +1,129 @@
+package xt.audio;
+
+import com.sun.jna.Pointer;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import xt.audio.Enums.XtDeviceCaps;
+import xt.audio.Enums.XtEnumFlags;
+import xt.audio.Enums.XtSample;
+import xt.audio.Enums.XtSystem;
+import xt.audio.Structs.XtBufferSize;
+import xt.audio.Structs.XtChannels;
+import xt.audio.Structs.XtDeviceStreamParams;
+import xt.audio.Structs.XtFormat;
+import xt.audio.Structs.XtMix;
+import xt.audio.Structs.XtStreamParams;
+
+// XtDeviceList and XtDevice query costs on the default output device of
+// the given system, or of the first system that has one. Fails setup
+// when no device is available.
+@Fork(1)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DeviceBench {
+
+    @Param({""})
+    public String system;
+
+    private String _id;
+    private XtFormat _format;
+    private XtDevice _device;
+    private XtPlatform _platform;
+    private XtDeviceList _list;
+    private XtDeviceStreamParams _params;
+
+    @Setup
+    public void setup() {
+        _platform = XtAudio.init(null, Pointer.NULL, null);
+        XtSystem[] systems = system.isEmpty()? _platform.getSystems(): new XtSystem[] { XtSystem.valueOf(system) };
+        for(XtSystem s: systems) {
+            XtService service = _platform.getService(s);
+            _id = service == null? null: service.getDefaultDeviceId(true);
+            if(_id == null) continue;
+            _device = service.openDevice(_id);
+            _list = service.openDeviceList(EnumSet.of(XtEnumFlags.OUTPUT));
+            break;
+        }
+        if(_device == null) throw new IllegalStateException("No output device available.");
+        XtMix mix = _device.getMix().orElse(new XtMix(48000, XtSample.FLOAT32));
+        _format = new XtFormat(mix, new XtChannels(0, 0, Math.min(2, _device.getChannelCount(true)), 0));
+        double buffer = _device.getBufferSize(_format).current;
+        _params = new XtDeviceStreamParams(new XtStreamParams(true, (s, b, u) -> 0, null, null), _format, buffer);
+    }
+
+    @TearDown
+    public void tearDown() {
+        _list.close();
+        _device.close();
+        _platform.close();
+    }
+
+    @Benchmark
+    public int listCount() { return _list.getCount(); }
+    @Benchmark
+    public String listId() { return _list.getId(0); }
+    @Benchmark
+    public String listName() { return _list.getName(_id); }
+    @Benchmark
+    public EnumSet<XtDeviceCaps> listCapabilities() { return _list.getCapabilities(_id); }
+    @Benchmark
+    public XtDeviceSnapshot listSnapshot() { return _list.getSnapshot(); }
+
+    @Benchmark
+    public int listAll() {
+        int result = 0;
+        for(int i = 0; i < _list.getCount(); i++) {
+            String id = _list.getId(i);
+            result += _list.getName(id).length() + _list.getCapabilities(id).size();
+        }
+        return result;
+    }
+    @Benchmark
+    public Object deviceMix() { return _device.getMix(); }
+    @Benchmark
+    public int deviceChannelCount() { return _device.getChannelCount(true); }
+    @Benchmark
+    public XtBufferSize deviceBufferSize() { return _device.getBufferSize(_format); }
+    @Benchmark
+    public boolean supportsFormat() { return _device.supportsFormat(_format); }
+    @Benchmark
+    public XtFormatMatrix formatMatrix() { return _device.getFormatMatrix(); }
+
+    @Benchmark
+    public int formatProbes() {
+        int result = 0;
+        int[] inputs = XtFormatMatrix.channels(_device.getChannelCount(false));
+        int[] outputs = XtFormatMatrix.channels(_device.getChannelCount(true));
+        for(int rate: XtFormatMatrix.RATES)
+            for(XtSample sample: XtSample.values())
+                for(int i: inputs)
+                    for(int o: outputs) {
+                        if(i == 0 && o == 0) continue;
+                        var format = new XtFormat(new XtMix(rate, sample), new XtChannels(i, 0, o, 0));
+                        if(_device.supportsFormat(format)) result += (int)_device.getBufferSize(format).current;
+                    }
+        return result + (_device.supportsAccess(true)? 1: 0) + (_device.supportsAccess(false)? 1: 0);
+    }
+
+    @Benchmark
+    public XtStream openStream() {
+        XtStream result = _device.openStream(_params, null);
+        result.close();
+        return result;
+    }
+}
@@ -0,0 +1,64 @@
+package xt.audio;
+
+import com.sun.jna.CallbackReference;
+import com.sun.jna.Function;
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xt.audio.NativeCallbacks.OnBuffer;
+import xt.audio.Structs.XtBuffer;
+import xt.audio.Structs.XtStreamParams;
+
+// XtStream.onBuffer dispatch with an empty user callback. "direct" calls
+// the native callback object from Java, measuring XtBuffer marshalling and
+// dispatch only. "upcall" calls it through its JNA function pointer, so
+// it includes the native-to-Java transition (and a JNA downcall to get
+// there, see UpcallBench for that part on its own).
+@Fork(1)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DispatchBench {
+
+    private Memory _native;
+    private OnBuffer _onBuffer;
+    private Function _function;
+    private Object[] _args;
+
+    @Setup
+    public void setup() {
+        var buffer = new XtBuffer();
+        buffer.input = new Memory(8);
+        buffer.output = new Memory(8);
+        buffer.frames = 512;
+        buffer.write();
+        _native = new Memory(buffer.size());
+        _native.write(0, buffer.getPointer().getByteArray(0, buffer.size()), 0, buffer.size());
+        var stream = new XtStream(new XtStreamParams(true, (s, b, u) -> 0, null, null), null);
+        _onBuffer = stream.onNativeBuffer();
+        _function = Function.getFunction(CallbackReference.getFunctionPointer(_onBuffer));
+        _args = new Object[] { Pointer.NULL, _native, Pointer.NULL };
+    }
+
+    @Benchmark
+    public int direct() throws Exception {
+        return _onBuffer.callback(Pointer.NULL, _native, Pointer.NULL);
+    }
+
+    @Benchmark
+    public int upcall() {
+        return _function.invokeInt(_args);
+    }
+}
@@ -0,0 +1,63 @@
+package xt.audio;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xt.audio.Enums.XtSample;
+import xt.audio.NativeStructs.DeviceStreamParams;
+import xt.audio.NativeStructs.StreamParams;
+import xt.audio.Structs.XtChannels;
+import xt.audio.Structs.XtFormat;
+import xt.audio.Structs.XtMix;
+import xt.audio.Structs.XtStreamParams;
+
+// Java-side marshalling that supportsFormat and openStream do before
+// reaching the backend: XtFormat passed by reference, and the
+// DeviceStreamParams built around it. Needs no device, DeviceBench has
+// the full calls.
+@Fork(1)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FormatBench {
+
+    private XtFormat _format;
+    private XtStream _stream;
+
+    @Setup
+    public void setup() {
+        _format = new XtFormat(new XtMix(48000, XtSample.FLOAT32), new XtChannels(0, 0, 2, 0));
+        _stream = new XtStream(new XtStreamParams(true, (s, b, u) -> 0, null, null), null);
+    }
+
+    @Benchmark
+    public XtFormat supportsFormat() {
+        _format.write();
+        _format.read();
+        return _format;
+    }
+
+    @Benchmark
+    public DeviceStreamParams openStream() {
+        var native_ = new DeviceStreamParams();
+        native_.format = _format;
+        native_.stream = new StreamParams();
+        native_.bufferSize = 10.0;
+        native_.stream.onBuffer = _stream.onNativeBuffer();
+        native_.stream.interleaved = true;
+        native_.stream.onXRun = _stream.onNativeXRun();
+        native_.write();
+        native_.read();
+        return native_;
+    }
+}
@@ -0,0 +1,133 @@
+package xt.audio;
+
+import com.sun.jna.Pointer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import xt.audio.Enums.XtSample;
+import xt.audio.Enums.XtSystem;
+import xt.audio.Structs.XtBuffer;
+import xt.audio.Structs.XtChannels;
+import xt.audio.Structs.XtDeviceStreamParams;
+import xt.audio.Structs.XtFormat;
+import xt.audio.Structs.XtMix;
+import xt.audio.Structs.XtRoute;
+import xt.audio.Structs.XtRouting;
+import xt.audio.Structs.XtStreamParams;
+import xt.audio.Structs.XtThreadParams;
+
+// Time per callback of a free-running Null device with 32 inputs and 32
+// outputs and 5 ms buffers, mixing the inputs down to 4 buses and the
+// buses out to 8 outputs. Native routes in the core, java opens all device
+// channels and mixes through float views of XtSafeBuffer.
+@Fork(1)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RoutingBench {
+
+    static final int BUSES = 4;
+    static final int BUFFERS = 2000;
+    static final int CHANNELS = 32;
+
+    @Param({"native", "java"})
+    public String routing;
+    @Param({"INT16", "FLOAT32"})
+    public XtSample sample;
+    @Param({"false", "true"})
+    public boolean interleaved;
+
+    private XtStream _stream;
+    private XtDevice _device;
+    private boolean _native;
+    private XtRoute[] _routes;
+    private XtPlatform _platform;
+    private XtSafeBuffer<float[][]> _safe;
+    private float[][] _buses;
+    private volatile long _buffers;
+    private volatile long _target;
+    private volatile Thread _waiter;
+
+    @Setup
+    public void setup() {
+        _platform = XtAudio.init(null, Pointer.NULL, null);
+        XtService service = _platform.getService(XtSystem.NULL);
+        _device = service.openDevice("2?inputs=" + CHANNELS + "&outputs=" + CHANNELS + "&buffer=5&freerun=1");
+        _routes = new XtRoute[CHANNELS + BUSES * 2];
+        for(int c = 0; c < CHANNELS; c++)
+            _routes[c] = new XtRoute(false, c, c * BUSES / CHANNELS, (float)BUSES / CHANNELS);
+        for(int b = 0; b < BUSES * 2; b++)
+            _routes[CHANNELS + b] = new XtRoute(true, b, b / 2, 1.0f);
+        _native = routing.equals("native");
+        var thread = new XtThreadParams("XtAudio", true, false, null);
+        var stream = new XtStreamParams(interleaved, this::onBuffer, null, null, thread);
+        var format = new XtFormat(new XtMix(48000, sample), new XtChannels(CHANNELS, 0, CHANNELS, 0));
+        var routes = _native? new XtRouting(_routes, BUSES, BUSES): null;
+        _stream = _device.openStream(new XtDeviceStreamParams(stream, format, 5.0, false, routes), null);
+        _safe = XtSafeBuffer.registerFloat(_stream, false);
+        _buses = new float[BUSES][_stream.getFrames()];
+    }
+
+    @TearDown
+    public void tearDown() {
+        _safe.close();
+        _stream.close();
+        _device.close();
+        _platform.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BUFFERS)
+    public long callback() {
+        _target = _buffers + BUFFERS;
+        _waiter = Thread.currentThread();
+        _stream.start();
+        while(_buffers < _target) LockSupport.park(this);
+        _stream.stop();
+        return _buffers;
+    }
+
+    private int onBuffer(XtStream stream, XtBuffer buffer, Object user) {
+        _safe.lock(buffer);
+        float[][] input = _safe.getInput();
+        float[][] output = _safe.getOutput();
+        if(_native) process(input, output, buffer.frames);
+        else {
+            for(float[] bus: _buses) Arrays.fill(bus, 0, buffer.frames, 0.0f);
+            for(XtRoute r: _routes)
+                if(!r.output)
+                    for(int f = 0; f < buffer.frames; f++) _buses[r.bus][f] += r.gain * input[r.channel][f];
+            process(_buses, _buses, buffer.frames);
+            for(float[] channel: output) Arrays.fill(channel, 0, buffer.frames, 0.0f);
+            for(XtRoute r: _routes)
+                if(r.output)
+                    for(int f = 0; f < buffer.frames; f++) output[r.channel][f] += r.gain * _buses[r.bus][f];
+        }
+        _safe.unlock(buffer);
+        long buffers = _buffers + 1;
+        _buffers = buffers;
+        if(buffers == _target) LockSupport.unpark(_waiter);
+        return 0;
+    }
+
+    // Input buses are silent on the Null device, keep the output buses busy.
+    private static void process(float[][] input, float[][] output, int frames) {
+        for(int b = 0; b < BUSES; b++)
+            for(int f = 0; f < frames; f++) output[b][f] = input[b][f] * 0.5f + 0.25f;
+    }
+}
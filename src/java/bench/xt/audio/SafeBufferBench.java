@@ -0,0 +1,82 @@
+package xt.audio;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xt.audio.Enums.XtSample;
+import xt.audio.Structs.XtBuffer;
+import xt.audio.Structs.XtChannels;
+import xt.audio.Structs.XtFormat;
+import xt.audio.Structs.XtMix;
+
+// XtSafeBuffer.lock/unlock per period over synthetic native buffers of
+// a full-duplex stream, for the native-typed and float views.
+@Fork(1)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SafeBufferBench {
+
+    static final int FRAMES = 512;
+
+    @Param({"UINT8", "INT16", "INT24", "INT32", "FLOAT32"})
+    public XtSample sample;
+    @Param({"2", "8", "32"})
+    public int channels;
+    @Param({"true", "false"})
+    public boolean interleaved;
+    @Param({"false", "true"})
+    public boolean floatView;
+
+    private Memory[] _buffers;
+    private XtSafeBuffer<?> _safe;
+    private final XtBuffer _buffer = new XtBuffer();
+
+    @Setup
+    public void setup() {
+        int size = XtAudio.getSampleAttributes(sample).size;
+        var format = new XtFormat(new XtMix(48000, sample), new XtChannels(channels, 0, channels, 0));
+        _safe = floatView
+            ? XtSafeBuffer.createFloat(null, format, FRAMES, interleaved, interleaved)
+            : XtSafeBuffer.create(null, format, FRAMES, interleaved);
+        Pointer native_;
+        if(interleaved) native_ = new Memory((long)channels * FRAMES * size);
+        else {
+            _buffers = new Memory[channels];
+            native_ = new Memory((long)channels * Native.POINTER_SIZE);
+            for(int c = 0; c < channels; c++) {
+                _buffers[c] = new Memory((long)FRAMES * size);
+                native_.setPointer((long)c * Native.POINTER_SIZE, _buffers[c]);
+            }
+        }
+        _buffer.input = native_;
+        _buffer.output = native_;
+        _buffer.frames = FRAMES;
+    }
+
+    @Benchmark
+    public Object lock() {
+        _safe.lock(_buffer);
+        return _safe.getInput();
+    }
+
+    @Benchmark
+    public XtBuffer unlock() {
+        _safe.unlock(_buffer);
+        return _buffer;
+    }
+}
@@ -0,0 +1,99 @@
+package xt.audio;
+
+import com.sun.jna.Callback;
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+// Native-to-Java upcall cost, JNA Callback (as used by NativeCallbacks)
+// versus an FFM upcall stub (as used by the xt.audio.ffm module). Both
+// sides are driven by libc qsort over 2 ints, so every operation is one
+// downcall plus exactly one upcall, and no audio hardware is required.
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UpcallBench {
+
+    interface JnaCompare extends Callback {
+        int callback(Pointer a, Pointer b);
+    }
+
+    static class JnaLibC {
+        static { Native.register(Platform.C_LIBRARY_NAME); }
+        static native void qsort(Pointer base, long count, long size, JnaCompare compare);
+    }
+
+    static final Linker LINKER = Linker.nativeLinker();
+    static final MethodHandle FfmQSort = LINKER.downcallHandle(
+            LINKER.defaultLookup().find("qsort").orElseThrow(),
+            FunctionDescriptor.ofVoid(ADDRESS, JAVA_LONG, JAVA_LONG, ADDRESS));
+    static final FunctionDescriptor FFM_COMPARE = FunctionDescriptor.of(JAVA_INT,
+            ADDRESS.withTargetLayout(JAVA_INT), ADDRESS.withTargetLayout(JAVA_INT));
+
+    static int ffmCompare(MemorySegment a, MemorySegment b) {
+        return Integer.compare(a.get(JAVA_INT, 0), b.get(JAVA_INT, 0));
+    }
+
+    private Arena _arena;
+    private Memory _jnaData;
+    private MemorySegment _ffmData;
+    private MemorySegment _ffmCompare;
+    private final JnaCompare _jnaCompare = (a, b) -> Integer.compare(a.getInt(0), b.getInt(0));
+
+    @Setup
+    public void setup() throws Exception {
+        _arena = Arena.ofConfined();
+        _jnaData = new Memory(2 * Integer.BYTES);
+        _ffmData = _arena.allocateArray(JAVA_INT, 2);
+        var type = MethodType.methodType(int.class, MemorySegment.class, MemorySegment.class);
+        var compare = MethodHandles.lookup().findStatic(UpcallBench.class, "ffmCompare", type);
+        _ffmCompare = LINKER.upcallStub(compare, FFM_COMPARE, _arena);
+    }
+
+    @TearDown
+    public void tearDown() {
+        _arena.close();
+    }
+
+    @Benchmark
+    public int jna() {
+        _jnaData.setInt(0, 1);
+        _jnaData.setInt(Integer.BYTES, 0);
+        JnaLibC.qsort(_jnaData, 2, Integer.BYTES, _jnaCompare);
+        return _jnaData.getInt(0);
+    }
+
+    @Benchmark
+    public int ffm() throws Throwable {
+        _ffmData.setAtIndex(JAVA_INT, 0, 1);
+        _ffmData.setAtIndex(JAVA_INT, 1, 0);
+        FfmQSort.invokeExact(_ffmData, 2L, (long)Integer.BYTES, _ffmCompare);
+        return _ffmData.getAtIndex(JAVA_INT, 0);
+    }
+}
@@ -0,0 +1,5 @@
+module xt.audio {
+  requires transitive java.management;
+  requires jdk.management;
+  exports xt.audio;
+}
@@ -0,0 +1,28 @@
+package xt.audio;
+
+import xt.audio.Enums.XtDeviceChange;
+import xt.audio.Structs.XtBuffer;
+import xt.audio.Structs.XtLocation;
+
+public interface Callbacks {
+
+    interface XtOnXRun {
+        void callback(XtStream stream, int index, Object user) throws Exception;
+    }
+
+    interface XtOnError {
+        void callback(XtLocation location, String message) throws Exception;
+    }
+
+    interface XtOnBuffer {
+        int callback(XtStream stream, XtBuffer buffer, Object user) throws Exception;
+    }
+
+    interface XtOnRunning {
+        void callback(XtStream stream, boolean running, long error, Object user) throws Exception;
+    }
+
+    interface XtOnDeviceChange {
+        void callback(XtDeviceWatcher watcher, XtDeviceChange change, String id) throws Exception;
+    }
+}
@@ -0,0 +1,117 @@
+package xt.audio;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import xt.audio.Enums.XtSample;
+import xt.audio.Structs.XtChannels;
+import xt.audio.Structs.XtFormat;
+import xt.audio.Structs.XtMix;
+import xt.audio.Structs.XtRoute;
+import xt.audio.Structs.XtRouting;
+import static java.lang.foreign.MemoryLayout.PathElement.groupElement;
+import static java.lang.foreign.MemoryLayout.paddingLayout;
+import static java.lang.foreign.MemoryLayout.structLayout;
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_DOUBLE;
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+interface NativeStructs {
+
+    StructLayout MIX = structLayout(JAVA_INT.withName("rate"), JAVA_INT.withName("sample"));
+    StructLayout VERSION = structLayout(JAVA_INT.withName("major"), JAVA_INT.withName("minor"));
+    StructLayout LATENCY = structLayout(JAVA_DOUBLE.withName("input"), JAVA_DOUBLE.withName("output"));
+    StructLayout BUFFER_SIZE = structLayout(JAVA_DOUBLE.withName("min"), JAVA_DOUBLE.withName("max"), JAVA_DOUBLE.withName("current"));
+    StructLayout ATTRIBUTES = structLayout(JAVA_INT.withName("size"), JAVA_INT.withName("count"), JAVA_INT.withName("isFloat"), JAVA_INT.withName("isSigned"));
+    StructLayout LOCATION = structLayout(ADDRESS.withName("file"), ADDRESS.withName("func"), JAVA_INT.withName("line"), paddingLayout(4));
+    StructLayout SERVICE_ERROR = structLayout(JAVA_INT.withName("cause"), paddingLayout(4), ADDRESS.withName("text"));
+    StructLayout ERROR_INFO = structLayout(JAVA_INT.withName("fault"), JAVA_INT.withName("system"), SERVICE_ERROR.withName("service"));
+    StructLayout CHANNELS = structLayout(
+            JAVA_INT.withName("inputs"), paddingLayout(4), JAVA_LONG.withName("inMask"),
+            JAVA_INT.withName("outputs"), paddingLayout(4), JAVA_LONG.withName("outMask"));
+    StructLayout FORMAT = structLayout(MIX.withName("mix"), CHANNELS.withName("channels"));
+    StructLayout BUFFER = structLayout(
+            ADDRESS.withName("input"), ADDRESS.withName("output"), JAVA_DOUBLE.withName("time"),
+            JAVA_LONG.withName("position"), JAVA_INT.withName("frames"), JAVA_INT.withName("timeValid"));
+    StructLayout STREAM_PARAMS = structLayout(
+            JAVA_INT.withName("interleaved"), paddingLayout(4), ADDRESS.withName("onBuffer"),
+            ADDRESS.withName("onXRun"), ADDRESS.withName("onRunning"), JAVA_INT.withName("decouple"), paddingLayout(4));
+    StructLayout ROUTE = structLayout(
+            JAVA_INT.withName("output"), JAVA_INT.withName("channel"), JAVA_INT.withName("bus"), JAVA_FLOAT.withName("gain"));
+    StructLayout ROUTING = structLayout(
+            ADDRESS.withName("routes"), JAVA_INT.withName("count"), JAVA_INT.withName("inputs"),
+            JAVA_INT.withName("outputs"), paddingLayout(4));
+    StructLayout DEVICE_STREAM_PARAMS = structLayout(
+            STREAM_PARAMS.withName("stream"), FORMAT.withName("format"), JAVA_DOUBLE.withName("bufferSize"),
+            JAVA_INT.withName("adaptive"), paddingLayout(4), ROUTING.withName("routing"));
+    StructLayout AGGREGATE_DEVICE_PARAMS = structLayout(
+            ADDRESS.withName("device"), CHANNELS.withName("channels"), JAVA_DOUBLE.withName("bufferSize"));
+    StructLayout AGGREGATE_STREAM_PARAMS = structLayout(
+            STREAM_PARAMS.withName("stream"), ADDRESS.withName("devices"), JAVA_INT.withName("count"),
+            MIX.withName("mix"), paddingLayout(4), ADDRESS.withName("master"),
+            JAVA_INT.withName("driftCompensation"), paddingLayout(4));
+
+    static long offset(MemoryLayout layout, String... path) {
+        var elements = new MemoryLayout.PathElement[path.length];
+        for(int i = 0; i < path.length; i++) elements[i] = groupElement(path[i]);
+        return layout.byteOffset(elements);
+    }
+
+    static void writeMix(MemorySegment s, long offset, XtMix mix) {
+        s.set(JAVA_INT, offset, mix.rate);
+        s.set(JAVA_INT, offset + 4, mix.sample.ordinal());
+    }
+
+    static XtMix readMix(MemorySegment s, long offset) {
+        var result = new XtMix();
+        result.rate = s.get(JAVA_INT, offset);
+        result.sample = XtSample.values()[s.get(JAVA_INT, offset + 4)];
+        return result;
+    }
+
+    static void writeChannels(MemorySegment s, long offset, XtChannels channels) {
+        s.set(JAVA_INT, offset + offset(CHANNELS, "inputs"), channels.inputs);
+        s.set(JAVA_LONG, offset + offset(CHANNELS, "inMask"), channels.inMask);
+        s.set(JAVA_INT, offset + offset(CHANNELS, "outputs"), channels.outputs);
+        s.set(JAVA_LONG, offset + offset(CHANNELS, "outMask"), channels.outMask);
+    }
+
+    static XtChannels readChannels(MemorySegment s, long offset) {
+        var result = new XtChannels();
+        result.inputs = s.get(JAVA_INT, offset + offset(CHANNELS, "inputs"));
+        result.inMask = s.get(JAVA_LONG, offset + offset(CHANNELS, "inMask"));
+        result.outputs = s.get(JAVA_INT, offset + offset(CHANNELS, "outputs"));
+        result.outMask = s.get(JAVA_LONG, offset + offset(CHANNELS, "outMask"));
+        return result;
+    }
+
+    static void writeFormat(MemorySegment s, long offset, XtFormat format) {
+        writeMix(s, offset + offset(FORMAT, "mix"), format.mix);
+        writeChannels(s, offset + offset(FORMAT, "channels"), format.channels);
+    }
+
+    static void writeRouting(MemorySegment s, long offset, XtRouting routing, Arena arena) {
+        if(routing == null) return;
+        var routes = arena.allocateArray(ROUTE, routing.routes.length);
+        for(int i = 0; i < routing.routes.length; i++) {
+            XtRoute r = routing.routes[i];
+            var route = routes.asSlice(i * ROUTE.byteSize(), ROUTE);
+            route.set(JAVA_INT, offset(ROUTE, "output"), r.output? 1: 0);
+            route.set(JAVA_INT, offset(ROUTE, "channel"), r.channel);
+            route.set(JAVA_INT, offset(ROUTE, "bus"), r.bus);
+            route.set(JAVA_FLOAT, offset(ROUTE, "gain"), r.gain);
+        }
+        s.set(ADDRESS, offset + offset(ROUTING, "routes"), routes);
+        s.set(JAVA_INT, offset + offset(ROUTING, "count"), routing.routes.length);
+        s.set(JAVA_INT, offset + offset(ROUTING, "inputs"), routing.inputs);
+        s.set(JAVA_INT, offset + offset(ROUTING, "outputs"), routing.outputs);
+    }
+
+    static XtFormat readFormat(MemorySegment s, long offset) {
+        var mix = readMix(s, offset + offset(FORMAT, "mix"));
+        return new XtFormat(mix, readChannels(s, offset + offset(FORMAT, "channels")));
+    }
+}
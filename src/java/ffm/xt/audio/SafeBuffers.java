@@ -0,0 +1,184 @@
+package xt.audio;
+
+import java.lang.foreign.MemorySegment;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_SHORT;
+
+// One final class per sample type and layout so every copy is a
+// statically bound, monomorphic MemorySegment.copy on a typed array.
+interface SafeBuffers {
+
+    final class ByteInterleaved extends XtSafeBuffer<byte[]> {
+        private final byte[] _input;
+        private final byte[] _output;
+        @Override public byte[] getInput() { return _input; }
+        @Override public byte[] getOutput() { return _output; }
+        @Override void fromNative(MemorySegment source, int frames) { MemorySegment.copy(source, JAVA_BYTE, 0, _input, 0, frames * _inputs * _count); }
+        @Override void toNative(MemorySegment dest, int frames) { MemorySegment.copy(_output, 0, dest, JAVA_BYTE, 0, frames * _outputs * _count); }
+        ByteInterleaved(XtStream stream, int inputs, int outputs, int count, int elems) {
+            super(stream, inputs, outputs, count);
+            _input = new byte[inputs * elems];
+            _output = new byte[outputs * elems];
+        }
+    }
+
+    final class ByteChannels extends XtSafeBuffer<byte[][]> {
+        private final byte[][] _input;
+        private final byte[][] _output;
+        @Override public byte[][] getInput() { return _input; }
+        @Override public byte[][] getOutput() { return _output; }
+        ByteChannels(XtStream stream, int inputs, int outputs, int count, int elems) {
+            super(stream, inputs, outputs, count);
+            _input = new byte[inputs][elems];
+            _output = new byte[outputs][elems];
+        }
+        @Override void fromNative(MemorySegment source, int frames) {
+            int elems = frames * _count;
+            for(int i = 0; i < _inputs; i++) MemorySegment.copy(channel(source, i, JAVA_BYTE, elems), JAVA_BYTE, 0, _input[i], 0, elems);
+        }
+        @Override void toNative(MemorySegment dest, int frames) {
+            int elems = frames * _count;
+            for(int i = 0; i < _outputs; i++) MemorySegment.copy(_output[i], 0, channel(dest, i, JAVA_BYTE, elems), JAVA_BYTE, 0, elems);
+        }
+    }
+
+    final class ShortInterleaved extends XtSafeBuffer<short[]> {
+        private final short[] _input;
+        private final short[] _output;
+        @Override public short[] getInput() { return _input; }
+        @Override public short[] getOutput() { return _output; }
+        @Override void fromNative(MemorySegment source, int frames) { MemorySegment.copy(source, JAVA_SHORT, 0, _input, 0, frames * _inputs * _count); }
+        @Override void toNative(MemorySegment dest, int frames) { MemorySegment.copy(_output, 0, dest, JAVA_SHORT, 0, frames * _outputs * _count); }
+        ShortInterleaved(XtStream stream, int inputs, int outputs, int count, int elems) {
+            super(stream, inputs, outputs, count);
+            _input = new short[inputs * elems];
+            _output = new short[outputs * elems];
+        }
+    }
+
+    final class ShortChannels extends XtSafeBuffer<short[][]> {
+        private final short[][] _input;
+        private final short[][] _output;
+        @Override public short[][] getInput() { return _input; }
+        @Override public short[][] getOutput() { return _output; }
+        ShortChannels(XtStream stream, int inputs, int outputs, int count, int elems) {
+            super(stream, inputs, outputs, count);
+            _input = new short[inputs][elems];
+            _output = new short[outputs][elems];
+        }
+        @Override void fromNative(MemorySegment source, int frames) {
+            int elems = frames * _count;
+            for(int i = 0; i < _inputs; i++) MemorySegment.copy(channel(source, i, JAVA_SHORT, elems), JAVA_SHORT, 0, _input[i], 0, elems);
+        }
+        @Override void toNative(MemorySegment dest, int frames) {
+            int elems = frames * _count;
+            for(int i = 0; i < _outputs; i++) MemorySegment.copy(_output[i], 0, channel(dest, i, JAVA_SHORT, elems), JAVA_SHORT, 0, elems);
+        }
+    }
+
+    final class IntInterleaved extends XtSafeBuffer<int[]> {
+        private final int[] _input;
+        private final int[] _output;
+        @Override public int[] getInput() { return _input; }
+        @Override public int[] getOutput() { return _output; }
+        @Override void fromNative(MemorySegment source, int frames) { MemorySegment.copy(source, JAVA_INT, 0, _input, 0, frames * _inputs * _count); }
+        @Override void toNative(MemorySegment dest, int frames) { MemorySegment.copy(_output, 0, dest, JAVA_INT, 0, frames * _outputs * _count); }
+        IntInterleaved(XtStream stream, int inputs, int outputs, int count, int elems) {
+            super(stream, inputs, outputs, count);
+            _input = new int[inputs * elems];
+            _output = new int[outputs * elems];
+        }
+    }
+
+    final class IntChannels extends XtSafeBuffer<int[][]> {
+        private final int[][] _input;
+        private final int[][] _output;
+        @Override public int[][] getInput() { return _input; }
+        @Override public int[][] getOutput() { return _output; }
+        IntChannels(XtStream stream, int inputs, int outputs, int count, int elems) {
+            super(stream, inputs, outputs, count);
+            _input = new int[inputs][elems];
+            _output = new int[outputs][elems];
+        }
+        @Override void fromNative(MemorySegment source, int frames) {
+            int elems = frames * _count;
+            for(int i = 0; i < _inputs; i++) MemorySegment.copy(channel(source, i, JAVA_INT, elems), JAVA_INT, 0, _input[i], 0, elems);
+        }
+        @Override void toNative(MemorySegment dest, int frames) {
+            int elems = frames * _count;
+            for(int i = 0; i < _outputs; i++) MemorySegment.copy(_output[i], 0, channel(dest, i, JAVA_INT, elems), JAVA_INT, 0, elems);
+        }
+    }
+
+    final class FloatInterleaved extends XtSafeBuffer<float[]> {
+        private final float[] _input;
+        private final float[] _output;
+        @Override public float[] getInput() { return _input; }
+        @Override public float[] getOutput() { return _output; }
+        @Override void fromNative(MemorySegment source, int frames) { MemorySegment.copy(source, JAVA_FLOAT, 0, _input, 0, frames * _inputs * _count); }
+        @Override void toNative(MemorySegment dest, int frames) { MemorySegment.copy(_output, 0, dest, JAVA_FLOAT, 0, frames * _outputs * _count); }
+        FloatInterleaved(XtStream stream, int inputs, int outputs, int count, int elems) {
+            super(stream, inputs, outputs, count);
+            _input = new float[inputs * elems];
+            _output = new float[outputs * elems];
+        }
+    }
+
+    final class FloatChannels extends XtSafeBuffer<float[][]> {
+        private final float[][] _input;
+        private final float[][] _output;
+        @Override public float[][] getInput() { return _input; }
+        @Override public float[][] getOutput() { return _output; }
+        FloatChannels(XtStream stream, int inputs, int outputs, int count, int elems) {
+            super(stream, inputs, outputs, count);
+            _input = new float[inputs][elems];
+            _output = new float[outputs][elems];
+        }
+        @Override void fromNative(MemorySegment source, int frames) {
+            int elems = frames * _count;
+            for(int i = 0; i < _inputs; i++) MemorySegment.copy(channel(source, i, JAVA_FLOAT, elems), JAVA_FLOAT, 0, _input[i], 0, elems);
+        }
+        @Override void toNative(MemorySegment dest, int frames) {
+            int elems = frames * _count;
+            for(int i = 0; i < _outputs; i++) MemorySegment.copy(_output[i], 0, channel(dest, i, JAVA_FLOAT, elems), JAVA_FLOAT, 0, elems);
+        }
+    }
+
+    final class FloatViewInterleaved extends XtSafeBuffer<float[]> {
+        private final float[] _input;
+        private final float[] _output;
+        private final XtConverter _inputConverter;
+        private final XtConverter _outputConverter;
+        @Override public float[] getInput() { return _input; }
+        @Override public float[] getOutput() { return _output; }
+        @Override void fromNative(MemorySegment source, int frames) { _inputConverter.toFloat(source, frames, _input); }
+        @Override void toNative(MemorySegment dest, int frames) { _outputConverter.fromFloat(_output, frames, dest); }
+        FloatViewInterleaved(XtStream stream, XtConverter input, XtConverter output, int frames) {
+            super(stream, input.getChannels(), output.getChannels(), 1);
+            _inputConverter = input;
+            _outputConverter = output;
+            _input = new float[_inputs * frames];
+            _output = new float[_outputs * frames];
+        }
+    }
+
+    final class FloatViewChannels extends XtSafeBuffer<float[][]> {
+        private final float[][] _input;
+        private final float[][] _output;
+        private final XtConverter _inputConverter;
+        private final XtConverter _outputConverter;
+        @Override public float[][] getInput() { return _input; }
+        @Override public float[][] getOutput() { return _output; }
+        @Override void fromNative(MemorySegment source, int frames) { _inputConverter.toFloat(source, frames, _input); }
+        @Override void toNative(MemorySegment dest, int frames) { _outputConverter.fromFloat(_output, frames, dest); }
+        FloatViewChannels(XtStream stream, XtConverter input, XtConverter output, int frames) {
+            super(stream, input.getChannels(), output.getChannels(), 1);
+            _inputConverter = input;
+            _outputConverter = output;
+            _input = new float[_inputs][frames];
+            _output = new float[_outputs][frames];
+        }
+    }
+}
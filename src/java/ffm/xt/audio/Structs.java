@@ -0,0 +1,167 @@
+package xt.audio;
+
+import java.lang.foreign.MemorySegment;
+import xt.audio.Callbacks.XtOnBuffer;
+import xt.audio.Callbacks.XtOnRunning;
+import xt.audio.Callbacks.XtOnXRun;
+import xt.audio.Enums.XtCause;
+import xt.audio.Enums.XtSample;
+import xt.audio.Enums.XtSystem;
+import static xt.audio.Utility.printErrorInfo;
+import static xt.audio.Utility.printLocation;
+
+public interface Structs {
+
+    public static class XtMix {
+        public int rate;
+        public XtSample sample;
+        public XtMix() { }
+        public XtMix(int rate, XtSample sample) { this.rate = rate; this.sample = sample; }
+    }
+
+    public static class XtStreamParams {
+        public boolean interleaved;
+        public XtOnBuffer onBuffer;
+        public XtOnXRun onXRun;
+        public XtOnRunning onRunning;
+        public int decouple;
+        public XtStreamParams() {}
+        public XtStreamParams(boolean interleaved, XtOnBuffer onBuffer, XtOnXRun onXRun, XtOnRunning onRunning) {
+            this.interleaved = interleaved; this.onBuffer = onBuffer; this.onXRun = onXRun; this.onRunning = onRunning;
+        }
+    }
+
+    public static class XtVersion {
+        public int major;
+        public int minor;
+    }
+
+    public static class XtLatency {
+        public double input;
+        public double output;
+    }
+
+    public static class XtLocation {
+        public String file;
+        public String func;
+        public int line;
+        @Override public String toString() { return printLocation(this); }
+    }
+
+    public static class XtDeviceStreamParams {
+        public XtStreamParams stream;
+        public XtFormat format;
+        public double bufferSize;
+        public boolean adaptive;
+        public XtRouting routing;
+        public XtDeviceStreamParams() {}
+        public XtDeviceStreamParams(XtStreamParams stream, XtFormat format, double bufferSize) {
+            this(stream, format, bufferSize, false);
+        }
+        public XtDeviceStreamParams(XtStreamParams stream, XtFormat format, double bufferSize, boolean adaptive) {
+            this.stream = stream; this.format = format; this.bufferSize = bufferSize; this.adaptive = adaptive;
+        }
+        public XtDeviceStreamParams(XtStreamParams stream, XtFormat format, double bufferSize, boolean adaptive, XtRouting routing) {
+            this(stream, format, bufferSize, adaptive); this.routing = routing;
+        }
+    }
+
+    public static class XtRoute {
+        public boolean output;
+        public int channel;
+        public int bus;
+        public float gain;
+        public XtRoute() {}
+        public XtRoute(boolean output, int channel, int bus, float gain) {
+            this.output = output; this.channel = channel; this.bus = bus; this.gain = gain;
+        }
+    }
+
+    public static class XtRouting {
+        public XtRoute[] routes;
+        public int inputs;
+        public int outputs;
+        public XtRouting() {}
+        public XtRouting(XtRoute[] routes, int inputs, int outputs) {
+            this.routes = routes; this.inputs = inputs; this.outputs = outputs;
+        }
+    }
+
+    public static class XtAggregateDeviceParams {
+        public XtDevice device;
+        public XtChannels channels;
+        public double bufferSize;
+        public XtAggregateDeviceParams() {}
+        public XtAggregateDeviceParams(XtDevice device, XtChannels channels, double bufferSize) {
+            this.device = device; this.channels = channels; this.bufferSize = bufferSize;
+        }
+    }
+
+    public static class XtBufferSize {
+        public double min;
+        public double max;
+        public double current;
+    }
+
+    public static class XtFormat {
+        public XtMix mix = new XtMix();
+        public XtChannels channels = new XtChannels();
+        public XtFormat() { }
+        public XtFormat(XtMix mix, XtChannels channels) { this.mix = mix; this.channels = channels; }
+    }
+
+    public static class XtBuffer {
+        public MemorySegment input;
+        public MemorySegment output;
+        public double time;
+        public long position;
+        public int frames;
+        public boolean timeValid;
+    }
+
+    public static class XtServiceError {
+        public XtCause cause;
+        public String text;
+    }
+
+    public static class XtErrorInfo {
+        public int fault;
+        public XtSystem system;
+        public XtServiceError service;
+        @Override public String toString() { return printErrorInfo(this); }
+    }
+
+    public static class XtAttributes {
+        public int size;
+        public int count;
+        public boolean isFloat;
+        public boolean isSigned;
+    }
+
+    public static class XtChannels {
+        public int inputs;
+        public long inMask;
+        public int outputs;
+        public long outMask;
+        public XtChannels() { }
+        public XtChannels(int inputs, long inMask, int outputs, long outMask) {
+            this.inputs = inputs; this.inMask = inMask; this.outputs = outputs; this.outMask = outMask;
+        }
+    }
+
+    public static class XtAggregateStreamParams {
+        public XtStreamParams stream;
+        public XtAggregateDeviceParams[] devices;
+        public int count;
+        public XtMix mix;
+        public XtDevice master;
+        public boolean driftCompensation;
+        public XtAggregateStreamParams() {}
+        public XtAggregateStreamParams(XtStreamParams stream, XtAggregateDeviceParams[] devices, int count, XtMix mix, XtDevice master) {
+            this(stream, devices, count, mix, master, false);
+        }
+        public XtAggregateStreamParams(XtStreamParams stream, XtAggregateDeviceParams[] devices, int count, XtMix mix, XtDevice master, boolean driftCompensation) {
+            this.stream = stream; this.devices = devices; this.count = count; this.mix = mix; this.master = master; this.driftCompensation = driftCompensation;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package xt.audio;
+
+import java.io.File;
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.lang.invoke.MethodHandle;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import xt.audio.Structs.XtErrorInfo;
+import xt.audio.Structs.XtLocation;
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static xt.audio.NativeStructs.ERROR_INFO;
+import static xt.audio.NativeStructs.LOCATION;
+import static xt.audio.NativeStructs.SERVICE_ERROR;
+import static xt.audio.NativeStructs.offset;
+
+class Utility {
+
+    interface NativeCall<T> {
+        T call() throws Throwable;
+    }
+
+    static final Linker LINKER = Linker.nativeLinker();
+    static final SymbolLookup LIBRARY;
+    static {
+        URI location = null;
+        try {
+            location = Utility.class.getProtectionDomain().getCodeSource().getLocation().toURI();
+        } catch(URISyntaxException e) {
+            throw new RuntimeException(e);
+        }
+        var folder = new File(location).getParent();
+        var path = Path.of(folder, "x64", System.mapLibraryName("xt-core"));
+        LIBRARY = SymbolLookup.libraryLookup(path.toAbsolutePath(), Arena.global());
+    }
+
+    private static final MethodHandle XtPrintLocation = downcall("XtPrintLocation", FunctionDescriptor.of(ADDRESS, ADDRESS));
+    private static final MethodHandle XtPrintErrorInfo = downcall("XtPrintErrorInfo", FunctionDescriptor.of(ADDRESS, ADDRESS));
+
+    static MethodHandle downcall(String name, FunctionDescriptor descriptor) {
+        return LINKER.downcallHandle(LIBRARY.find(name).orElseThrow(), descriptor);
+    }
+
+    static <T> T invoke(NativeCall<T> call) {
+        try {
+            return call.call();
+        } catch(RuntimeException | Error e) {
+            throw e;
+        } catch(Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    // Exceptions must not propagate out of an upcall, that would abort the JVM.
+    static void onUpcallException(Throwable t) {
+        var thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+    }
+
+    static void handleError(long error) { if(error != 0) throw new XtException(error); }
+    static <T> T handleError(long error, T result) { if(error != 0) throw new XtException(error); return result; }
+    static long threadId() { return Thread.currentThread().threadId(); }
+
+    static String toJava(MemorySegment s) {
+        return s.equals(MemorySegment.NULL)? null: s.reinterpret(Long.MAX_VALUE).getUtf8String(0);
+    }
+
+    static String toJava(MemorySegment buffer, int size) {
+        return new String(buffer.asSlice(0, size - 1).toArray(JAVA_BYTE), StandardCharsets.UTF_8);
+    }
+
+    static MemorySegment toNative(Arena arena, String s) {
+        return s == null? MemorySegment.NULL: arena.allocateUtf8String(s);
+    }
+
+    static String printLocation(XtLocation location) {
+        try(var arena = Arena.ofConfined()) {
+            var native_ = arena.allocate(LOCATION);
+            native_.set(ADDRESS, offset(LOCATION, "file"), toNative(arena, location.file));
+            native_.set(ADDRESS, offset(LOCATION, "func"), toNative(arena, location.func));
+            native_.set(JAVA_INT, offset(LOCATION, "line"), location.line);
+            return toJava(invoke(() -> (MemorySegment)XtPrintLocation.invokeExact(native_)));
+        }
+    }
+
+    static String printErrorInfo(XtErrorInfo info) {
+        try(var arena = Arena.ofConfined()) {
+            var native_ = arena.allocate(ERROR_INFO);
+            long service = offset(ERROR_INFO, "service");
+            native_.set(JAVA_INT, offset(ERROR_INFO, "fault"), info.fault);
+            native_.set(JAVA_INT, offset(ERROR_INFO, "system"), info.system.ordinal() + 1);
+            native_.set(JAVA_INT, service + offset(SERVICE_ERROR, "cause"), info.service.cause.ordinal());
+            native_.set(ADDRESS, service + offset(SERVICE_ERROR, "text"), toNative(arena, info.service.text));
+            return toJava(invoke(() -> (MemorySegment)XtPrintErrorInfo.invokeExact(native_)));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package xt.audio;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import xt.audio.Callbacks.XtOnError;
+import xt.audio.Enums.XtCause;
+import xt.audio.Enums.XtSample;
+import xt.audio.Enums.XtSystem;
+import xt.audio.Structs.XtAttributes;
+import xt.audio.Structs.XtErrorInfo;
+import xt.audio.Structs.XtLocation;
+import xt.audio.Structs.XtServiceError;
+import xt.audio.Structs.XtVersion;
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static xt.audio.NativeStructs.ATTRIBUTES;
+import static xt.audio.NativeStructs.ERROR_INFO;
+import static xt.audio.NativeStructs.LOCATION;
+import static xt.audio.NativeStructs.SERVICE_ERROR;
+import static xt.audio.NativeStructs.VERSION;
+import static xt.audio.NativeStructs.offset;
+import static xt.audio.Utility.downcall;
+import static xt.audio.Utility.invoke;
+import static xt.audio.Utility.toJava;
+
+public final class XtAudio {
+
+    private static final MethodHandle XtAudioGetVersion = downcall("XtAudioGetVersion", FunctionDescriptor.of(VERSION));
+    private static final MethodHandle XtAudioGetErrorInfo = downcall("XtAudioGetErrorInfo", FunctionDescriptor.of(ERROR_INFO, JAVA_LONG));
+    private static final MethodHandle XtAudioGetSampleAttributes = downcall("XtAudioGetSampleAttributes", FunctionDescriptor.of(ATTRIBUTES, JAVA_INT));
+    private static final MethodHandle XtAudioInit = downcall("XtAudioInit", FunctionDescriptor.of(ADDRESS, ADDRESS, ADDRESS, ADDRESS));
+    private static final FunctionDescriptor ON_ERROR = FunctionDescriptor.ofVoid(ADDRESS.withTargetLayout(LOCATION), ADDRESS);
+
+    private XtAudio() {}
+
+    public static XtVersion getVersion() {
+        try(var arena = Arena.ofConfined()) {
+            var native_ = invoke(() -> (MemorySegment)XtAudioGetVersion.invokeExact((SegmentAllocator)arena));
+            var result = new XtVersion();
+            result.major = native_.get(JAVA_INT, offset(VERSION, "major"));
+            result.minor = native_.get(JAVA_INT, offset(VERSION, "minor"));
+            return result;
+        }
+    }
+
+    public static XtErrorInfo getErrorInfo(long error) {
+        try(var arena = Arena.ofConfined()) {
+            var native_ = invoke(() -> (MemorySegment)XtAudioGetErrorInfo.invokeExact((SegmentAllocator)arena, error));
+            long service = offset(ERROR_INFO, "service");
+            var result = new XtErrorInfo();
+            result.service = new XtServiceError();
+            result.fault = native_.get(JAVA_INT, offset(ERROR_INFO, "fault"));
+            result.system = XtSystem.values()[native_.get(JAVA_INT, offset(ERROR_INFO, "system")) - 1];
+            result.service.cause = XtCause.values()[native_.get(JAVA_INT, service + offset(SERVICE_ERROR, "cause"))];
+            result.service.text = toJava(native_.get(ADDRESS, service + offset(SERVICE_ERROR, "text")));
+            return result;
+        }
+    }
+
+    public static XtAttributes getSampleAttributes(XtSample sample) {
+        try(var arena = Arena.ofConfined()) {
+            int native_ = sample.ordinal();
+            var attrs = invoke(() -> (MemorySegment)XtAudioGetSampleAttributes.invokeExact((SegmentAllocator)arena, native_));
+            var result = new XtAttributes();
+            result.size = attrs.get(JAVA_INT, offset(ATTRIBUTES, "size"));
+            result.count = attrs.get(JAVA_INT, offset(ATTRIBUTES, "count"));
+            result.isFloat = attrs.get(JAVA_INT, offset(ATTRIBUTES, "isFloat")) != 0;
+            result.isSigned = attrs.get(JAVA_INT, offset(ATTRIBUTES, "isSigned")) != 0;
+            return result;
+        }
+    }
+
+    public static XtPlatform init(String id, MemorySegment window, XtOnError onError) {
+        var arena = Arena.ofShared();
+        var nativeId = Utility.toNative(arena, id);
+        var nativeWindow = window == null? MemorySegment.NULL: window;
+        var nativeOnError = onError == null? MemorySegment.NULL: upcallOnError(onError, arena);
+        var p = invoke(() -> (MemorySegment)XtAudioInit.invokeExact(nativeId, nativeWindow, nativeOnError));
+        return new XtPlatform(p, onError, arena);
+    }
+
+    static MemorySegment upcallOnError(XtOnError onError, Arena arena) {
+        var handle = invoke(() -> MethodHandles.lookup().findStatic(XtAudio.class, "onError",
+                MethodType.methodType(void.class, XtOnError.class, MemorySegment.class, MemorySegment.class)));
+        return Utility.LINKER.upcallStub(MethodHandles.insertArguments(handle, 0, onError), ON_ERROR, arena);
+    }
+
+    private static void onError(XtOnError onError, MemorySegment location, MemorySegment message) {
+        try {
+            var result = new XtLocation();
+            result.file = toJava(location.get(ADDRESS, offset(LOCATION, "file")));
+            result.func = toJava(location.get(ADDRESS, offset(LOCATION, "func")));
+            result.line = location.get(JAVA_INT, offset(LOCATION, "line"));
+            onError.callback(result, toJava(message));
+        } catch(Throwable t) {
+            Utility.onUpcallException(t);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package xt.audio;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandle;
+import java.util.Optional;
+import xt.audio.Structs.XtBufferSize;
+import xt.audio.Structs.XtDeviceStreamParams;
+import xt.audio.Structs.XtFormat;
+import xt.audio.Structs.XtMix;
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_DOUBLE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static xt.audio.NativeStructs.BUFFER_SIZE;
+import static xt.audio.NativeStructs.DEVICE_STREAM_PARAMS;
+import static xt.audio.NativeStructs.FORMAT;
+import static xt.audio.NativeStructs.MIX;
+import static xt.audio.NativeStructs.offset;
+import static xt.audio.NativeStructs.readMix;
+import static xt.audio.NativeStructs.writeFormat;
+import static xt.audio.NativeStructs.writeRouting;
+import static xt.audio.Utility.downcall;
+import static xt.audio.Utility.handleError;
+import static xt.audio.Utility.invoke;
+import static xt.audio.Utility.toJava;
+
+public final class XtDevice implements AutoCloseable {
+
+    private static final MethodHandle XtDeviceDestroy = downcall("XtDeviceDestroy", FunctionDescriptor.ofVoid(ADDRESS));
+    private static final MethodHandle XtDeviceGetHandle = downcall("XtDeviceGetHandle", FunctionDescriptor.of(ADDRESS, ADDRESS));
+    private static final MethodHandle XtDeviceShowControlPanel = downcall("XtDeviceShowControlPanel", FunctionDescriptor.of(JAVA_LONG, ADDRESS));
+    private static final MethodHandle XtDeviceGetMix = downcall("XtDeviceGetMix", FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle XtDeviceGetBufferSize = downcall("XtDeviceGetBufferSize", FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle XtDeviceQueryFormats = downcall("XtDeviceQueryFormats", FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS, JAVA_INT, ADDRESS, ADDRESS));
+    private static final MethodHandle XtDeviceGetChannelCount = downcall("XtDeviceGetChannelCount", FunctionDescriptor.of(JAVA_LONG, ADDRESS, JAVA_INT, ADDRESS));
+    private static final MethodHandle XtDeviceSupportsFormat = downcall("XtDeviceSupportsFormat", FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle XtDeviceSupportsAccess = downcall("XtDeviceSupportsAccess", FunctionDescriptor.of(JAVA_LONG, ADDRESS, JAVA_INT, ADDRESS));
+    private static final MethodHandle XtDeviceGetChannelName = downcall("XtDeviceGetChannelName", FunctionDescriptor.of(JAVA_LONG, ADDRESS, JAVA_INT, JAVA_INT, ADDRESS, ADDRESS));
+    private static final MethodHandle XtDeviceOpenStream = downcall("XtDeviceOpenStream", FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS, ADDRESS, ADDRESS));
+
+    private MemorySegment _d;
+    MemorySegment handle() { return _d; }
+    XtDevice(MemorySegment d) { _d = d; }
+
+    public MemorySegment getHandle() { return invoke(() -> (MemorySegment)XtDeviceGetHandle.invokeExact(_d)); }
+    public void showControlPanel() { handleError(invoke(() -> (long)XtDeviceShowControlPanel.invokeExact(_d))); }
+
+    @Override public void close() {
+        invoke(() -> { XtDeviceDestroy.invokeExact(_d); return null; });
+        _d = MemorySegment.NULL;
+    }
+
+    public XtBufferSize getBufferSize(XtFormat format) {
+        try(var arena = Arena.ofConfined()) {
+            var size = arena.allocate(BUFFER_SIZE);
+            var nativeFormat = arena.allocate(FORMAT);
+            writeFormat(nativeFormat, 0, format);
+            handleError(invoke(() -> (long)XtDeviceGetBufferSize.invokeExact(_d, nativeFormat, size)));
+            var result = new XtBufferSize();
+            result.min = size.get(JAVA_DOUBLE, offset(BUFFER_SIZE, "min"));
+            result.max = size.get(JAVA_DOUBLE, offset(BUFFER_SIZE, "max"));
+            result.current = size.get(JAVA_DOUBLE, offset(BUFFER_SIZE, "current"));
+            return result;
+        }
+    }
+
+    public XtFormatMatrix getFormatMatrix() {
+        return XtFormatMatrix.probe(this);
+    }
+
+    // Formats are passed as parallel arrays without channel masks, sizes
+    // receive min, max and current for each format.
+    void queryFormats(int[] rates, int[] samples, int[] inputs, int[] outputs, boolean[] supports, double[] sizes) {
+        int count = rates.length;
+        if(count == 0) return;
+        try(var arena = Arena.ofConfined()) {
+            var nativeSupports = arena.allocateArray(JAVA_INT, count);
+            var nativeSizes = arena.allocateArray(BUFFER_SIZE, count);
+            var nativeFormats = arena.allocateArray(FORMAT, count);
+            long rate = offset(FORMAT, "mix", "rate");
+            long sample = offset(FORMAT, "mix", "sample");
+            long in = offset(FORMAT, "channels", "inputs");
+            long out = offset(FORMAT, "channels", "outputs");
+            for(int i = 0; i < count; i++) {
+                long offset = i * FORMAT.byteSize();
+                nativeFormats.set(JAVA_INT, offset + rate, rates[i]);
+                nativeFormats.set(JAVA_INT, offset + sample, samples[i]);
+                nativeFormats.set(JAVA_INT, offset + in, inputs[i]);
+                nativeFormats.set(JAVA_INT, offset + out, outputs[i]);
+            }
+            handleError(invoke(() -> (long)XtDeviceQueryFormats.invokeExact(_d, nativeFormats, count, nativeSupports, nativeSizes)));
+            MemorySegment.copy(nativeSizes, JAVA_DOUBLE, 0, sizes, 0, count * 3);
+            for(int i = 0; i < count; i++) supports[i] = nativeSupports.getAtIndex(JAVA_INT, i) != 0;
+        }
+    }
+
+    public int getChannelCount(boolean output) {
+        try(var arena = Arena.ofConfined()) {
+            int nativeOutput = output? 1: 0;
+            var count = arena.allocate(JAVA_INT);
+            handleError(invoke(() -> (long)XtDeviceGetChannelCount.invokeExact(_d, nativeOutput, count)));
+            return count.get(JAVA_INT, 0);
+        }
+    }
+
+    public boolean supportsFormat(XtFormat format) {
+        try(var arena = Arena.ofConfined()) {
+            var supports = arena.allocate(JAVA_INT);
+            var nativeFormat = arena.allocate(FORMAT);
+            writeFormat(nativeFormat, 0, format);
+            handleError(invoke(() -> (long)XtDeviceSupportsFormat.invokeExact(_d, nativeFormat, supports)));
+            return supports.get(JAVA_INT, 0) != 0;
+        }
+    }
+
+    public boolean supportsAccess(boolean interleaved) {
+        try(var arena = Arena.ofConfined()) {
+            int nativeInterleaved = interleaved? 1: 0;
+            var supports = arena.allocate(JAVA_INT);
+            handleError(invoke(() -> (long)XtDeviceSupportsAccess.invokeExact(_d, nativeInterleaved, supports)));
+            return supports.get(JAVA_INT, 0) != 0;
+        }
+    }
+
+    public Optional<XtMix> getMix() {
+        try(var arena = Arena.ofConfined()) {
+            var mix = arena.allocate(MIX);
+            var valid = arena.allocate(JAVA_INT);
+            handleError(invoke(() -> (long)XtDeviceGetMix.invokeExact(_d, valid, mix)));
+            return valid.get(JAVA_INT, 0) == 0? Optional.empty(): Optional.of(readMix(mix, 0));
+        }
+    }
+
+    public String getChannelName(boolean output, int index) {
+        try(var arena = Arena.ofConfined()) {
+            int nativeOutput = output? 1: 0;
+            var size = arena.allocate(JAVA_INT);
+            handleError(invoke(() -> (long)XtDeviceGetChannelName.invokeExact(_d, nativeOutput, index, MemorySegment.NULL, size)));
+            var buffer = arena.allocateArray(JAVA_BYTE, size.get(JAVA_INT, 0));
+            handleError(invoke(() -> (long)XtDeviceGetChannelName.invokeExact(_d, nativeOutput, index, buffer, size)));
+            return toJava(buffer, size.get(JAVA_INT, 0));
+        }
+    }
+
+    public XtStream openStream(XtDeviceStreamParams params, Object user) {
+        var result = new XtStream(params.stream, user);
+        try(var arena = Arena.ofConfined()) {
+            var stream = arena.allocate(ADDRESS);
+            var native_ = arena.allocate(DEVICE_STREAM_PARAMS);
+            result.writeParams(native_, offset(DEVICE_STREAM_PARAMS, "stream"));
+            writeFormat(native_, offset(DEVICE_STREAM_PARAMS, "format"), params.format);
+            native_.set(JAVA_DOUBLE, offset(DEVICE_STREAM_PARAMS, "bufferSize"), params.bufferSize);
+            native_.set(JAVA_INT, offset(DEVICE_STREAM_PARAMS, "adaptive"), params.adaptive? 1: 0);
+            writeRouting(native_, offset(DEVICE_STREAM_PARAMS, "routing"), params.routing, arena);
+            handleError(invoke(() -> (long)XtDeviceOpenStream.invokeExact(_d, native_, MemorySegment.NULL, stream)));
+            result.init(stream.get(ADDRESS, 0));
+            return result;
+        } catch(RuntimeException e) {
+            result.release();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package xt.audio;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandle;
+import java.util.EnumSet;
+import xt.audio.Enums.XtDeviceCaps;
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static xt.audio.Utility.downcall;
+import static xt.audio.Utility.handleError;
+import static xt.audio.Utility.invoke;
+import static xt.audio.Utility.toJava;
+
+public final class XtDeviceList implements AutoCloseable {
+
+    private static final MethodHandle XtDeviceListDestroy = downcall("XtDeviceListDestroy", FunctionDescriptor.ofVoid(ADDRESS));
+    private static final MethodHandle XtDeviceListGetCount = downcall("XtDeviceListGetCount", FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS));
+    private static final MethodHandle XtDeviceListGetId = downcall("XtDeviceListGetId", FunctionDescriptor.of(JAVA_LONG, ADDRESS, JAVA_INT, ADDRESS, ADDRESS));
+    private static final MethodHandle XtDeviceListGetName = downcall("XtDeviceListGetName", FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle XtDeviceListGetCapabilities = downcall("XtDeviceListGetCapabilities", FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle XtDeviceListGetSnapshot = downcall("XtDeviceListGetSnapshot", FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS, ADDRESS));
+
+    static final int SNAPSHOT_SIZE = 4096;
+
+    private MemorySegment _l;
+    XtDeviceList(MemorySegment l) { _l = l; }
+
+    @Override public void close() {
+        invoke(() -> { XtDeviceListDestroy.invokeExact(_l); return null; });
+        _l = MemorySegment.NULL;
+    }
+
+    public int getCount() {
+        try(var arena = Arena.ofConfined()) {
+            var count = arena.allocate(JAVA_INT);
+            handleError(invoke(() -> (long)XtDeviceListGetCount.invokeExact(_l, count)));
+            return count.get(JAVA_INT, 0);
+        }
+    }
+
+    public XtDeviceSnapshot getSnapshot() {
+        try(var arena = Arena.ofConfined()) {
+            var size = arena.allocate(JAVA_INT);
+            size.set(JAVA_INT, 0, SNAPSHOT_SIZE);
+            var first = arena.allocateArray(JAVA_BYTE, SNAPSHOT_SIZE);
+            handleError(invoke(() -> (long)XtDeviceListGetSnapshot.invokeExact(_l, first, size)));
+            if(size.get(JAVA_INT, 0) <= SNAPSHOT_SIZE) return XtDeviceSnapshot.decode(first.toArray(JAVA_BYTE));
+            var buffer = arena.allocateArray(JAVA_BYTE, size.get(JAVA_INT, 0));
+            handleError(invoke(() -> (long)XtDeviceListGetSnapshot.invokeExact(_l, buffer, size)));
+            return XtDeviceSnapshot.decode(buffer.toArray(JAVA_BYTE));
+        }
+    }
+
+    public EnumSet<XtDeviceCaps> getCapabilities(String id) {
+        try(var arena = Arena.ofConfined()) {
+            var flags = arena.allocate(JAVA_INT);
+            var nativeId = arena.allocateUtf8String(id);
+            var result = EnumSet.noneOf(XtDeviceCaps.class);
+            handleError(invoke(() -> (long)XtDeviceListGetCapabilities.invokeExact(_l, nativeId, flags)));
+            for(XtDeviceCaps caps: XtDeviceCaps.values())
+                if((flags.get(JAVA_INT, 0) & caps._flag) != 0)
+                    result.add(caps);
+            return result;
+        }
+    }
+
+    public String getId(int index) {
+        try(var arena = Arena.ofConfined()) {
+            var size = arena.allocate(JAVA_INT);
+            handleError(invoke(() -> (long)XtDeviceListGetId.invokeExact(_l, index, MemorySegment.NULL, size)));
+            var buffer = arena.allocateArray(JAVA_BYTE, size.get(JAVA_INT, 0));
+            handleError(invoke(() -> (long)XtDeviceListGetId.invokeExact(_l, index, buffer, size)));
+            return toJava(buffer, size.get(JAVA_INT, 0));
+        }
+    }
+
+    public String getName(String id) {
+        try(var arena = Arena.ofConfined()) {
+            var size = arena.allocate(JAVA_INT);
+            var nativeId = arena.allocateUtf8String(id);
+            handleError(invoke(() -> (long)XtDeviceListGetName.invokeExact(_l, nativeId, MemorySegment.NULL, size)));
+            var buffer = arena.allocateArray(JAVA_BYTE, size.get(JAVA_INT, 0));
+            handleError(invoke(() -> (long)XtDeviceListGetName.invokeExact(_l, nativeId, buffer, size)));
+            return toJava(buffer, size.get(JAVA_INT, 0));
+        }
+    }
+}
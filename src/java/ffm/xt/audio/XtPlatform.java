@@ -0,0 +1,55 @@
+package xt.audio;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandle;
+import xt.audio.Callbacks.XtOnError;
+import xt.audio.Enums.XtSetup;
+import xt.audio.Enums.XtSystem;
+import java.util.Arrays;
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static xt.audio.Utility.downcall;
+import static xt.audio.Utility.invoke;
+
+public final class XtPlatform implements AutoCloseable {
+
+    private static final MethodHandle XtPlatformDestroy = downcall("XtPlatformDestroy", FunctionDescriptor.ofVoid(ADDRESS));
+    private static final MethodHandle XtPlatformGetService = downcall("XtPlatformGetService", FunctionDescriptor.of(ADDRESS, ADDRESS, JAVA_INT));
+    private static final MethodHandle XtPlatformSetupToSystem = downcall("XtPlatformSetupToSystem", FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_INT));
+    private static final MethodHandle XtPlatformGetSystems = downcall("XtPlatformGetSystems", FunctionDescriptor.ofVoid(ADDRESS, ADDRESS, ADDRESS));
+
+    MemorySegment _p;
+    final Arena _arena;
+    final XtOnError _onError;
+    XtPlatform(MemorySegment p, XtOnError onError, Arena arena) { _p = p; _onError = onError; _arena = arena; }
+
+    @Override public void close() {
+        invoke(() -> { XtPlatformDestroy.invokeExact(_p); return null; });
+        _p = MemorySegment.NULL;
+        _arena.close();
+    }
+
+    public XtSystem setupToSystem(XtSetup setup) {
+        int native_ = setup.ordinal();
+        return XtSystem.values()[invoke(() -> (int)XtPlatformSetupToSystem.invokeExact(_p, native_)) - 1];
+    }
+
+    public XtService getService(XtSystem system) {
+        int native_ = system.ordinal() + 1;
+        var s = invoke(() -> (MemorySegment)XtPlatformGetService.invokeExact(_p, native_));
+        return s.equals(MemorySegment.NULL)? null: new XtService(s);
+    }
+
+    public XtSystem[] getSystems() {
+        try(var arena = Arena.ofConfined()) {
+            var size = arena.allocate(JAVA_INT);
+            invoke(() -> { XtPlatformGetSystems.invokeExact(_p, MemorySegment.NULL, size); return null; });
+            var buffer = arena.allocateArray(JAVA_INT, size.get(JAVA_INT, 0));
+            invoke(() -> { XtPlatformGetSystems.invokeExact(_p, buffer, size); return null; });
+            var result = buffer.toArray(JAVA_INT);
+            return Arrays.stream(result).mapToObj(s -> XtSystem.values()[s - 1]).toArray(XtSystem[]::new);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package xt.audio;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import xt.audio.Structs.XtBuffer;
+import xt.audio.Structs.XtFormat;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import static java.lang.foreign.ValueLayout.ADDRESS;
+
+public abstract class XtSafeBuffer<T> implements AutoCloseable {
+
+    static final VarHandle SAFE;
+    static {
+        try {
+            SAFE = MethodHandles.lookup().findVarHandle(XtStream.class, "_safe", XtSafeBuffer.class);
+        } catch(ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // T is byte[] for UINT8/INT24, short[] for INT16, int[] for INT32 and
+    // float[] for FLOAT32, or the corresponding T[] when non-interleaved.
+    public static <T> XtSafeBuffer<T> register(XtStream stream, boolean interleaved) {
+        XtSafeBuffer<T> result = create(stream, interleaved);
+        stream._safe = result;
+        return result;
+    }
+
+    // Float view: T is float[] or float[][] in [-1, 1] whatever the stream's
+    // sample type, converted to and from the stream's native layout.
+    public static <T> XtSafeBuffer<T> registerFloat(XtStream stream, boolean interleaved) {
+        XtSafeBuffer<T> result = createFloat(stream, interleaved);
+        stream._safe = result;
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> XtSafeBuffer<T> createFloat(XtStream stream, boolean interleaved) {
+        XtFormat format = stream.getFormat();
+        int frames = stream.getFrames();
+        var input = new XtConverter(format.mix.sample, format.channels.inputs, frames, stream.interleaved());
+        var output = new XtConverter(format.mix.sample, format.channels.outputs, frames, stream.interleaved());
+        return (XtSafeBuffer<T>)(interleaved
+            ? new SafeBuffers.FloatViewInterleaved(stream, input, output, frames)
+            : new SafeBuffers.FloatViewChannels(stream, input, output, frames));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> XtSafeBuffer<T> create(XtStream stream, boolean interleaved) {
+        XtFormat format = stream.getFormat();
+        int count = XtAudio.getSampleAttributes(format.mix.sample).count;
+        int elems = stream.getFrames() * count;
+        int inputs = format.channels.inputs;
+        int outputs = format.channels.outputs;
+        switch(format.mix.sample) {
+        case UINT8: case INT24: return (XtSafeBuffer<T>)(interleaved
+            ? new SafeBuffers.ByteInterleaved(stream, inputs, outputs, count, elems)
+            : new SafeBuffers.ByteChannels(stream, inputs, outputs, count, elems));
+        case INT16: return (XtSafeBuffer<T>)(interleaved
+            ? new SafeBuffers.ShortInterleaved(stream, inputs, outputs, count, elems)
+            : new SafeBuffers.ShortChannels(stream, inputs, outputs, count, elems));
+        case INT32: return (XtSafeBuffer<T>)(interleaved
+            ? new SafeBuffers.IntInterleaved(stream, inputs, outputs, count, elems)
+            : new SafeBuffers.IntChannels(stream, inputs, outputs, count, elems));
+        case FLOAT32: return (XtSafeBuffer<T>)(interleaved
+            ? new SafeBuffers.FloatInterleaved(stream, inputs, outputs, count, elems)
+            : new SafeBuffers.FloatChannels(stream, inputs, outputs, count, elems));
+        default: throw new IllegalArgumentException();
+        }
+    }
+
+    final int _count;
+    final int _inputs;
+    final int _outputs;
+    private final XtStream _stream;
+
+    public abstract T getInput();
+    public abstract T getOutput();
+    abstract void fromNative(MemorySegment source, int frames);
+    abstract void toNative(MemorySegment dest, int frames);
+
+    public void close() { SAFE.compareAndSet(_stream, this, null); }
+    public static XtSafeBuffer<?> get(XtStream stream) { return stream._safe; }
+
+    // Throws ClassCastException if the buffer's arrays are not a T.
+    @SuppressWarnings("unchecked")
+    public static <T> XtSafeBuffer<T> get(XtStream stream, Class<T> type) {
+        XtSafeBuffer<?> result = stream._safe;
+        if(result != null) type.cast(result.getInput());
+        return (XtSafeBuffer<T>)result;
+    }
+
+    XtSafeBuffer(XtStream stream, int inputs, int outputs, int count) {
+        _count = count;
+        _stream = stream;
+        _inputs = inputs;
+        _outputs = outputs;
+    }
+
+    public final void lock(XtBuffer buffer) {
+        if(buffer.input == null) return;
+        fromNative(buffer.input, buffer.frames);
+    }
+
+    public final void unlock(XtBuffer buffer) {
+        if(buffer.output == null) return;
+        toNative(buffer.output, buffer.frames);
+    }
+
+    final MemorySegment channel(MemorySegment buffer, int channel, ValueLayout layout, int elems) {
+        return buffer.getAtIndex(ADDRESS, channel).reinterpret(elems * layout.byteSize());
+    }
+}
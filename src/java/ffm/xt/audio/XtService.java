@@ -0,0 +1,112 @@
+package xt.audio;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandle;
+import java.util.EnumSet;
+import xt.audio.Enums.XtEnumFlags;
+import xt.audio.Enums.XtServiceCaps;
+import xt.audio.Structs.XtAggregateStreamParams;
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_DOUBLE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static xt.audio.NativeStructs.AGGREGATE_DEVICE_PARAMS;
+import static xt.audio.NativeStructs.AGGREGATE_STREAM_PARAMS;
+import static xt.audio.NativeStructs.offset;
+import static xt.audio.NativeStructs.writeChannels;
+import static xt.audio.NativeStructs.writeMix;
+import static xt.audio.Utility.downcall;
+import static xt.audio.Utility.handleError;
+import static xt.audio.Utility.invoke;
+import static xt.audio.Utility.toJava;
+
+public final class XtService {
+
+    private static final MethodHandle XtServiceGetCapabilities = downcall("XtServiceGetCapabilities", FunctionDescriptor.of(JAVA_INT, ADDRESS));
+    private static final MethodHandle XtServiceOpenDevice = downcall("XtServiceOpenDevice", FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle XtServiceOpenDeviceList = downcall("XtServiceOpenDeviceList", FunctionDescriptor.of(JAVA_LONG, ADDRESS, JAVA_INT, ADDRESS));
+    private static final MethodHandle XtServiceAggregateStream = downcall("XtServiceAggregateStream", FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle XtServiceGetDefaultDeviceId = downcall("XtServiceGetDefaultDeviceId", FunctionDescriptor.of(JAVA_LONG, ADDRESS, JAVA_INT, ADDRESS, ADDRESS, ADDRESS));
+
+    private final MemorySegment _s;
+    XtService(MemorySegment s) { _s = s; }
+
+    public XtDevice openDevice(String id) {
+        try(var arena = Arena.ofConfined()) {
+            var d = arena.allocate(ADDRESS);
+            var nativeId = arena.allocateUtf8String(id);
+            handleError(invoke(() -> (long)XtServiceOpenDevice.invokeExact(_s, nativeId, d)));
+            return new XtDevice(d.get(ADDRESS, 0));
+        }
+    }
+
+    public String getDefaultDeviceId(boolean output) {
+        try(var arena = Arena.ofConfined()) {
+            int nativeOutput = output? 1: 0;
+            var size = arena.allocate(JAVA_INT);
+            var valid = arena.allocate(JAVA_INT);
+            handleError(invoke(() -> (long)XtServiceGetDefaultDeviceId.invokeExact(_s, nativeOutput, valid, MemorySegment.NULL, size)));
+            if(valid.get(JAVA_INT, 0) == 0) return null;
+            var buffer = arena.allocateArray(JAVA_BYTE, size.get(JAVA_INT, 0));
+            handleError(invoke(() -> (long)XtServiceGetDefaultDeviceId.invokeExact(_s, nativeOutput, valid, buffer, size)));
+            if(valid.get(JAVA_INT, 0) == 0) return null;
+            return toJava(buffer, size.get(JAVA_INT, 0));
+        }
+    }
+
+    public XtDeviceList openDeviceList(EnumSet<XtEnumFlags> flags) {
+        int flag = 0;
+        for(XtEnumFlags f: flags) flag |= f._flag;
+        int nativeFlags = flag;
+        try(var arena = Arena.ofConfined()) {
+            var list = arena.allocate(ADDRESS);
+            handleError(invoke(() -> (long)XtServiceOpenDeviceList.invokeExact(_s, nativeFlags, list)));
+            return new XtDeviceList(list.get(ADDRESS, 0));
+        }
+    }
+
+    public XtDeviceSnapshot getDeviceSnapshot(EnumSet<XtEnumFlags> flags) {
+        try(var list = openDeviceList(flags)) {
+            return list.getSnapshot();
+        }
+    }
+
+    public EnumSet<XtServiceCaps> getCapabilities() {
+        var result = EnumSet.noneOf(XtServiceCaps.class);
+        int flags = invoke(() -> (int)XtServiceGetCapabilities.invokeExact(_s));
+        for(XtServiceCaps caps: XtServiceCaps.values())
+            if((flags & caps._flag) != 0)
+                result.add(caps);
+        return result;
+    }
+
+    public XtStream aggregateStream(XtAggregateStreamParams params, Object user) {
+        var result = new XtStream(params.stream, user);
+        try(var arena = Arena.ofConfined()) {
+            var stream = arena.allocate(ADDRESS);
+            var native_ = arena.allocate(AGGREGATE_STREAM_PARAMS);
+            var devices = arena.allocateArray(AGGREGATE_DEVICE_PARAMS, params.count);
+            for(int i = 0; i < params.count; i++) {
+                var device = devices.asSlice(i * AGGREGATE_DEVICE_PARAMS.byteSize(), AGGREGATE_DEVICE_PARAMS);
+                device.set(ADDRESS, offset(AGGREGATE_DEVICE_PARAMS, "device"), params.devices[i].device.handle());
+                device.set(JAVA_DOUBLE, offset(AGGREGATE_DEVICE_PARAMS, "bufferSize"), params.devices[i].bufferSize);
+                writeChannels(device, offset(AGGREGATE_DEVICE_PARAMS, "channels"), params.devices[i].channels);
+            }
+            result.writeParams(native_, offset(AGGREGATE_STREAM_PARAMS, "stream"));
+            writeMix(native_, offset(AGGREGATE_STREAM_PARAMS, "mix"), params.mix);
+            native_.set(ADDRESS, offset(AGGREGATE_STREAM_PARAMS, "devices"), devices);
+            native_.set(JAVA_INT, offset(AGGREGATE_STREAM_PARAMS, "count"), params.count);
+            native_.set(ADDRESS, offset(AGGREGATE_STREAM_PARAMS, "master"), params.master.handle());
+            native_.set(JAVA_INT, offset(AGGREGATE_STREAM_PARAMS, "driftCompensation"), params.driftCompensation? 1: 0);
+            handleError(invoke(() -> (long)XtServiceAggregateStream.invokeExact(_s, native_, MemorySegment.NULL, stream)));
+            result.init(stream.get(ADDRESS, 0));
+            return result;
+        } catch(RuntimeException e) {
+            result.release();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package xt.audio;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import xt.audio.Structs.XtBuffer;
+import xt.audio.Structs.XtFormat;
+import xt.audio.Structs.XtLatency;
+import xt.audio.Structs.XtStreamParams;
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_BOOLEAN;
+import static java.lang.foreign.ValueLayout.JAVA_DOUBLE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static xt.audio.NativeStructs.BUFFER;
+import static xt.audio.NativeStructs.FORMAT;
+import static xt.audio.NativeStructs.LATENCY;
+import static xt.audio.NativeStructs.STREAM_PARAMS;
+import static xt.audio.NativeStructs.offset;
+import static xt.audio.NativeStructs.readFormat;
+import static xt.audio.Utility.downcall;
+import static xt.audio.Utility.handleError;
+import static xt.audio.Utility.invoke;
+
+public final class XtStream implements AutoCloseable {
+
+    private static final MethodHandle XtStreamStop = downcall("XtStreamStop", FunctionDescriptor.ofVoid(ADDRESS));
+    private static final MethodHandle XtStreamStart = downcall("XtStreamStart", FunctionDescriptor.of(JAVA_LONG, ADDRESS));
+    private static final MethodHandle XtStreamDestroy = downcall("XtStreamDestroy", FunctionDescriptor.ofVoid(ADDRESS));
+    private static final MethodHandle XtStreamGetHandle = downcall("XtStreamGetHandle", FunctionDescriptor.of(ADDRESS, ADDRESS));
+    private static final MethodHandle XtStreamIsRunning = downcall("XtStreamIsRunning", FunctionDescriptor.of(JAVA_INT, ADDRESS));
+    private static final MethodHandle XtStreamGetFormat = downcall("XtStreamGetFormat", FunctionDescriptor.of(ADDRESS.withTargetLayout(FORMAT), ADDRESS));
+    private static final MethodHandle XtStreamGetLatency = downcall("XtStreamGetLatency", FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS));
+    private static final MethodHandle XtStreamGetFrames = downcall("XtStreamGetFrames", FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS));
+    private static final MethodHandle XtStreamGetDecoupleXRuns = downcall("XtStreamGetDecoupleXRuns", FunctionDescriptor.of(JAVA_LONG, ADDRESS));
+    private static final MethodHandle XtStreamGetDrift = downcall("XtStreamGetDrift", FunctionDescriptor.of(JAVA_DOUBLE, ADDRESS, JAVA_INT));
+
+    private static final FunctionDescriptor ON_XRUN = FunctionDescriptor.ofVoid(ADDRESS, JAVA_INT, ADDRESS);
+    private static final FunctionDescriptor ON_RUNNING = FunctionDescriptor.ofVoid(ADDRESS, JAVA_INT, JAVA_LONG, ADDRESS);
+    private static final FunctionDescriptor ON_BUFFER = FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS.withTargetLayout(BUFFER), ADDRESS);
+
+    private static final long INPUT = offset(BUFFER, "input");
+    private static final long OUTPUT = offset(BUFFER, "output");
+    private static final long TIME = offset(BUFFER, "time");
+    private static final long POSITION = offset(BUFFER, "position");
+    private static final long FRAMES = offset(BUFFER, "frames");
+    private static final long TIME_VALID = offset(BUFFER, "timeValid");
+
+    private MemorySegment _s;
+    private XtFormat _format;
+    // Read from the audio thread on every callback, written on register/close.
+    volatile XtSafeBuffer<?> _safe;
+    volatile XtStreamMetrics _metrics;
+    volatile XtAllocationAudit _audit;
+    private long _inputFrameSize;
+    private long _outputFrameSize;
+
+    private final Object _user;
+    private final Arena _arena;
+    private final XtStreamParams _params;
+    private final MemorySegment _onNativeXRun;
+    private final MemorySegment _onNativeBuffer;
+    private final MemorySegment _onNativeRunning;
+    private final XtBuffer _buffer = new XtBuffer();
+
+    public XtFormat getFormat() { return _format; }
+    public void start() { handleError(invoke(() -> (long)XtStreamStart.invokeExact(_s))); }
+    public void stop() { invoke(() -> { XtStreamStop.invokeExact(_s); return null; }); }
+    public MemorySegment getHandle() { return invoke(() -> (MemorySegment)XtStreamGetHandle.invokeExact(_s)); }
+    public boolean isRunning() { return invoke(() -> (int)XtStreamIsRunning.invokeExact(_s)) != 0; }
+    public long getDecoupleXRuns() { return invoke(() -> (long)XtStreamGetDecoupleXRuns.invokeExact(_s)); }
+    public double getDrift(int index) { return invoke(() -> (double)XtStreamGetDrift.invokeExact(_s, index)); }
+
+    @Override public void close() {
+        XtStreamMetrics metrics = _metrics;
+        if(metrics != null) metrics.close();
+        XtAllocationAudit audit = _audit;
+        if(audit != null) audit.close();
+        invoke(() -> { XtStreamDestroy.invokeExact(_s); return null; });
+        _s = MemorySegment.NULL;
+        _arena.close();
+    }
+
+    XtStream(XtStreamParams params, Object user) {
+        _user = user;
+        _params = params;
+        _arena = Arena.ofShared();
+        _onNativeBuffer = upcall("onBuffer", ON_BUFFER, int.class, MemorySegment.class, MemorySegment.class, MemorySegment.class);
+        _onNativeXRun = upcall("onXRun", ON_XRUN, void.class, MemorySegment.class, int.class, MemorySegment.class);
+        _onNativeRunning = params.onRunning == null? MemorySegment.NULL: upcall("onRunning", ON_RUNNING, void.class, MemorySegment.class, int.class, long.class, MemorySegment.class);
+    }
+
+    boolean interleaved() { return _params.interleaved; }
+    void release() { _arena.close(); }
+
+    void init(MemorySegment s) {
+        _s = s;
+        _format = readFormat(invoke(() -> (MemorySegment)XtStreamGetFormat.invokeExact(_s)), 0);
+        int size = XtAudio.getSampleAttributes(_format.mix.sample).size;
+        _inputFrameSize = _params.interleaved? _format.channels.inputs * size: 0;
+        _outputFrameSize = _params.interleaved? _format.channels.outputs * size: 0;
+    }
+
+    void writeParams(MemorySegment s, long offset) {
+        s.set(JAVA_INT, offset + offset(STREAM_PARAMS, "interleaved"), _params.interleaved? 1: 0);
+        s.set(ADDRESS, offset + offset(STREAM_PARAMS, "onBuffer"), _onNativeBuffer);
+        s.set(ADDRESS, offset + offset(STREAM_PARAMS, "onXRun"), _onNativeXRun);
+        s.set(ADDRESS, offset + offset(STREAM_PARAMS, "onRunning"), _onNativeRunning);
+        s.set(JAVA_INT, offset + offset(STREAM_PARAMS, "decouple"), _params.decouple);
+    }
+
+    public int getFrames() {
+        try(var arena = Arena.ofConfined()) {
+            var frames = arena.allocate(JAVA_INT);
+            handleError(invoke(() -> (long)XtStreamGetFrames.invokeExact(_s, frames)));
+            return frames.get(JAVA_INT, 0);
+        }
+    }
+
+    public XtLatency getLatency() {
+        try(var arena = Arena.ofConfined()) {
+            var latency = arena.allocate(LATENCY);
+            handleError(invoke(() -> (long)XtStreamGetLatency.invokeExact(_s, latency)));
+            var result = new XtLatency();
+            result.input = latency.get(JAVA_DOUBLE, offset(LATENCY, "input"));
+            result.output = latency.get(JAVA_DOUBLE, offset(LATENCY, "output"));
+            return result;
+        }
+    }
+
+    private MemorySegment upcall(String name, FunctionDescriptor descriptor, Class<?> result, Class<?>... args) {
+        var type = MethodType.methodType(result, args);
+        var handle = invoke(() -> MethodHandles.lookup().findVirtual(XtStream.class, name, type));
+        return Utility.LINKER.upcallStub(handle.bindTo(this), descriptor, _arena);
+    }
+
+    // Non-interleaved buffers are arrays of channel pointers, callers
+    // reinterpret the individual channels to frames * sample size.
+    private MemorySegment buffer(MemorySegment buffer, long frameSize, int channels) {
+        if(buffer.equals(MemorySegment.NULL)) return null;
+        long size = _params.interleaved? frameSize * _buffer.frames: channels * ADDRESS.byteSize();
+        return buffer.reinterpret(size);
+    }
+
+    private void onXRun(MemorySegment stream, int index, MemorySegment user) {
+        try {
+            XtAllocationAudit audit = _audit;
+            long allocated = audit == null? 0: audit.allocated();
+            XtStreamMetrics metrics = _metrics;
+            if(metrics != null) metrics.xrun(index);
+            if(_params.onXRun != null) _params.onXRun.callback(this, index, _user);
+            if(audit != null) audit.record(XtAllocationAudit.XRUN, allocated);
+        } catch(Throwable t) {
+            Utility.onUpcallException(t);
+        }
+    }
+
+    private int onBuffer(MemorySegment stream, MemorySegment buffer, MemorySegment user) {
+        try {
+            XtAllocationAudit audit = _audit;
+            if(audit == null) return dispatch(buffer);
+            long allocated = audit.allocated();
+            int result = dispatch(buffer);
+            boolean fail = audit.record(XtAllocationAudit.BUFFER, allocated);
+            return fail && result == 0? 1: result;
+        } catch(Throwable t) {
+            Utility.onUpcallException(t);
+            return 0;
+        }
+    }
+
+    private int dispatch(MemorySegment buffer) throws Exception {
+        _buffer.frames = buffer.get(JAVA_INT, FRAMES);
+        _buffer.time = buffer.get(JAVA_DOUBLE, TIME);
+        _buffer.position = buffer.get(JAVA_LONG, POSITION);
+        _buffer.timeValid = buffer.get(JAVA_INT, TIME_VALID) != 0;
+        _buffer.input = buffer(buffer.get(ADDRESS, INPUT), _inputFrameSize, _format.channels.inputs);
+        _buffer.output = buffer(buffer.get(ADDRESS, OUTPUT), _outputFrameSize, _format.channels.outputs);
+        XtStreamMetrics metrics = _metrics;
+        if(metrics == null) return _params.onBuffer.callback(this, _buffer, _user);
+        long start = System.nanoTime();
+        int result = _params.onBuffer.callback(this, _buffer, _user);
+        metrics.record(start, System.nanoTime(), _buffer.frames);
+        return result;
+    }
+
+    private void onRunning(MemorySegment stream, int running, long error, MemorySegment user) {
+        try {
+            XtAllocationAudit audit = _audit;
+            long allocated = audit == null? 0: audit.allocated();
+            _params.onRunning.callback(this, running != 0, error, _user);
+            if(audit != null) audit.record(XtAllocationAudit.RUNNING, allocated);
+        } catch(Throwable t) {
+            Utility.onUpcallException(t);
+        }
+    }
+}
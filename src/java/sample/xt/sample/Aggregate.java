@@ -32,7 +32,7 @@ public class Aggregate {
     }
 
     static int onBuffer(XtStream stream, XtBuffer buffer, Object user) throws Exception {
-        XtSafeBuffer safe = XtSafeBuffer.get(stream);
+        XtSafeBuffer<short[]> safe = XtSafeBuffer.get(stream, short[].class);
         safe.lock(buffer);
         int count = buffer.frames * stream.getFormat().channels.inputs;
         System.arraycopy(safe.getInput(), 0, safe.getOutput(), 0, count);
@@ -67,7 +67,7 @@ public class Aggregate {
                 XtStreamParams streamParams = new XtStreamParams(true, Aggregate::onBuffer, Aggregate::onXRun, Aggregate::onRunning);
                 aggregateParams = new XtAggregateStreamParams(streamParams, deviceParams, 2, mix, output);
                 try(XtStream stream = service.aggregateStream(aggregateParams, null);
-                    XtSafeBuffer safe = XtSafeBuffer.register(stream, true)) {
+                    XtSafeBuffer<short[]> safe = XtSafeBuffer.register(stream, true)) {
                     stream.start();
                     Thread.sleep(2000);
                     stream.stop();
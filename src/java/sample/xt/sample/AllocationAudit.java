@@ -0,0 +1,59 @@
+package xt.sample;
+
+import xt.audio.Enums.XtAllocationPolicy;
+import xt.audio.Enums.XtSample;
+import xt.audio.Structs.XtBuffer;
+import xt.audio.Structs.XtChannels;
+import xt.audio.Structs.XtDeviceStreamParams;
+import xt.audio.Structs.XtFormat;
+import xt.audio.Structs.XtMix;
+import xt.audio.Structs.XtStreamParams;
+import xt.audio.XtAllocationAudit;
+import xt.audio.XtAudio;
+import xt.audio.XtOfflineRenderer;
+import xt.audio.XtPlatform;
+import xt.audio.XtSafeBuffer;
+import xt.audio.XtStream;
+
+public class AllocationAudit {
+
+    static float _phase = 0.0f;
+    static final float FREQUENCY = 440.0f;
+    static final XtMix MIX = new XtMix(44100, XtSample.FLOAT32);
+    static final XtChannels CHANNELS = new XtChannels(0, 0, 2, 0);
+    static final XtFormat FORMAT = new XtFormat(MIX, CHANNELS);
+
+    static float nextSample() {
+        _phase += FREQUENCY / FORMAT.mix.rate;
+        if(_phase >= 1.0f) _phase = -1.0f;
+        return (float)Math.sin(2.0 * _phase * Math.PI);
+    }
+
+    static int onBuffer(XtStream stream, XtBuffer buffer, Object user) {
+        XtSafeBuffer<float[]> safe = XtSafeBuffer.get(stream, float[].class);
+        safe.lock(buffer);
+        float[] output = safe.getOutput();
+        for(int f = 0; f < buffer.frames; f++) {
+            float sample = nextSample();
+            for(int c = 0; c < FORMAT.channels.outputs; c++)
+                output[f * FORMAT.channels.outputs + c] = sample;
+        }
+        safe.unlock(buffer);
+        return 0;
+    }
+
+    // Renders 10 seconds offline with a zero allocation budget, the
+    // stream fails on the first callback that allocates.
+    public static void main() throws Exception {
+        XtStreamParams streamParams = new XtStreamParams(true, AllocationAudit::onBuffer, null, null);
+        XtDeviceStreamParams deviceParams = new XtDeviceStreamParams(streamParams, FORMAT, 10.0);
+        try(XtPlatform platform = XtAudio.init(null, null, null);
+            XtOfflineRenderer renderer = new XtOfflineRenderer(platform, deviceParams, null);
+            XtSafeBuffer<float[]> safe = XtSafeBuffer.register(renderer.getStream(), true);
+            XtAllocationAudit audit = XtAllocationAudit.register(renderer.getStream(), XtAllocationPolicy.FAIL, 0, 100)) {
+            renderer.render(FORMAT.mix.rate * 10L);
+            audit.check();
+            System.out.println("Callbacks: " + audit.getCallbacks() + ", max allocated: " + audit.getMaxAllocatedBytes() + " bytes.");
+        }
+    }
+}
\ No newline at end of file
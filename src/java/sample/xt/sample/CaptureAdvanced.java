@@ -57,10 +57,10 @@ public class CaptureAdvanced {
     // Normally don't do I/O in the callback.
     static int onInterleavedSafeBuffer(XtStream stream, XtBuffer buffer, Object user) throws Exception {
         var out = (FileOutputStream)user;
-        XtSafeBuffer safe = XtSafeBuffer.get(stream);
+        XtSafeBuffer<byte[]> safe = XtSafeBuffer.get(stream, byte[].class);
         int bytes = getBufferSize(CHANNELS.inputs, buffer.frames);
         safe.lock(buffer);
-        out.write((byte[])safe.getInput(), 0, bytes);
+        out.write(safe.getInput(), 0, bytes);
         safe.unlock(buffer);
         return 0;
     }
@@ -77,12 +77,12 @@ public class CaptureAdvanced {
     // Normally don't do I/O in the callback.
     static int onNonInterleavedSafeBuffer(XtStream stream, XtBuffer buffer, Object user) throws Exception {
         var out = (FileOutputStream)user;
-        XtSafeBuffer safe = XtSafeBuffer.get(stream);
+        XtSafeBuffer<byte[][]> safe = XtSafeBuffer.get(stream, byte[][].class);
         int size = XtAudio.getSampleAttributes(MIX.sample).size;
         safe.lock(buffer);
         for(int f = 0; f < buffer.frames; f++)
             for(int c = 0; c < CHANNELS.inputs; c++)
-                out.write(((byte[][])safe.getInput())[c], f * size, size);
+                out.write(safe.getInput()[c], f * size, size);
         safe.unlock(buffer);
         return 0;
     }
@@ -120,7 +120,7 @@ public class CaptureAdvanced {
                 deviceParams = new XtDeviceStreamParams(streamParams, FORMAT, size.current);
                 try(FileOutputStream recording = new FileOutputStream("xt-audio-interleaved-safe.raw");
                     XtStream stream = device.openStream(deviceParams, recording);
-                    XtSafeBuffer safe = XtSafeBuffer.register(stream, true)) {
+                    XtSafeBuffer<byte[]> safe = XtSafeBuffer.register(stream, true)) {
                     runStream(stream);
                 }
 
@@ -140,7 +140,7 @@ public class CaptureAdvanced {
                 deviceParams = new XtDeviceStreamParams(streamParams, FORMAT, size.current);
                 try(FileOutputStream recording = new FileOutputStream("xt-audio-non-interleaved-safe.raw");
                     XtStream stream = device.openStream(deviceParams, recording);
-                    XtSafeBuffer safe = XtSafeBuffer.register(stream, false)) {
+                    XtSafeBuffer<byte[][]> safe = XtSafeBuffer.register(stream, false)) {
                     runStream(stream);
                 }
 
@@ -27,9 +27,9 @@ public class CaptureSimple {
     // Normally don't do I/O in the callback.
     static int onBuffer(XtStream stream, XtBuffer buffer, Object user) throws Exception {
         var output = (FileOutputStream)user;
-        XtSafeBuffer safe = XtSafeBuffer.get(stream);
+        XtSafeBuffer<byte[]> safe = XtSafeBuffer.get(stream, byte[].class);
         safe.lock(buffer);
-        var input = (byte[])safe.getInput();
+        var input = safe.getInput();
         int size = XtAudio.getSampleAttributes(MIX.sample).size;
         output.write(input, 0, buffer.frames * size);
         safe.unlock(buffer);
@@ -55,7 +55,7 @@ public class CaptureSimple {
                 deviceParams = new XtDeviceStreamParams(streamParams, FORMAT, size.current);
                 try(FileOutputStream recording = new FileOutputStream("xt-audio.raw");
                     XtStream stream = device.openStream(deviceParams, recording);
-                    XtSafeBuffer safe = XtSafeBuffer.register(stream, true)) {
+                    XtSafeBuffer<byte[]> safe = XtSafeBuffer.register(stream, true)) {
                     stream.start();
                     Thread.sleep(2000);
                     stream.stop();
@@ -32,7 +32,7 @@ public class FullDuplex {
     }
 
     static int onBuffer(XtStream stream, XtBuffer buffer, Object user) throws Exception {
-        XtSafeBuffer safe = XtSafeBuffer.get(stream);
+        XtSafeBuffer<?> safe = XtSafeBuffer.get(stream);
         safe.lock(buffer);
         System.arraycopy(safe.getInput(), 0, safe.getOutput(), 0, buffer.frames * 2);
         safe.unlock(buffer);
@@ -66,7 +66,7 @@ public class FullDuplex {
                 streamParams = new XtStreamParams(true, FullDuplex::onBuffer, FullDuplex::onXRun, FullDuplex::onRunning);
                 deviceParams = new XtDeviceStreamParams(streamParams, format, size.current);
                 try(XtStream stream = device.openStream(deviceParams, null);
-                    XtSafeBuffer safe = XtSafeBuffer.register(stream, true)) {
+                    XtSafeBuffer<?> safe = XtSafeBuffer.register(stream, true)) {
                     stream.start();
                     Thread.sleep(2000);
                     stream.stop();
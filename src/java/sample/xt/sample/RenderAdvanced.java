@@ -48,10 +48,10 @@ public class RenderAdvanced {
     }
 
     static int onInterleavedSafeBuffer(XtStream stream, XtBuffer buffer, Object user) throws Exception {
-        XtSafeBuffer safe = XtSafeBuffer.get(stream);
+        XtSafeBuffer<float[]> safe = XtSafeBuffer.get(stream, float[].class);
         int channels = stream.getFormat().channels.outputs;
         safe.lock(buffer);
-        float[] output = (float[])safe.getOutput();
+        float[] output = safe.getOutput();
         for(int f = 0; f < buffer.frames; f++) {
             float sample = nextSample();
             for(int c = 0; c < channels; c++) output[f * channels + c] = sample;
@@ -72,10 +72,10 @@ public class RenderAdvanced {
     }
 
     static int onNonInterleavedSafeBuffer(XtStream stream, XtBuffer buffer, Object user) throws Exception {
-        XtSafeBuffer safe = XtSafeBuffer.get(stream);
+        XtSafeBuffer<float[][]> safe = XtSafeBuffer.get(stream, float[][].class);
         int channels = stream.getFormat().channels.outputs;
         safe.lock(buffer);
-        float[][] output = (float[][])safe.getOutput();
+        float[][] output = safe.getOutput();
         for(int f = 0; f < buffer.frames; f++) {
             float sample = nextSample();
             for(int c = 0; c < channels; c++) output[c][f] = sample;
@@ -115,7 +115,7 @@ public class RenderAdvanced {
                 streamParams = new XtStreamParams(true, RenderAdvanced::onInterleavedSafeBuffer, RenderAdvanced::onXRun, RenderAdvanced::onRunning);
                 deviceParams = new XtDeviceStreamParams(streamParams, format, size.current);
                 try(XtStream stream = device.openStream(deviceParams, null);
-                    XtSafeBuffer safe = XtSafeBuffer.register(stream, true)) {
+                    XtSafeBuffer<float[]> safe = XtSafeBuffer.register(stream, true)) {
                     runStream(stream);
                 }
 
@@ -130,7 +130,7 @@ public class RenderAdvanced {
                 streamParams = new XtStreamParams(false, RenderAdvanced::onNonInterleavedSafeBuffer, RenderAdvanced::onXRun, RenderAdvanced::onRunning);
                 deviceParams = new XtDeviceStreamParams(streamParams, format, size.current);
                 try(XtStream stream = device.openStream(deviceParams, null);
-                    XtSafeBuffer safe = XtSafeBuffer.register(stream, false)) {
+                    XtSafeBuffer<float[][]> safe = XtSafeBuffer.register(stream, false)) {
                     runStream(stream);
                 }
 
@@ -146,7 +146,7 @@ public class RenderAdvanced {
                 streamParams = new XtStreamParams(true, RenderAdvanced::onInterleavedSafeBuffer, RenderAdvanced::onXRun, RenderAdvanced::onRunning);
                 deviceParams = new XtDeviceStreamParams(streamParams, sendTo0, size.current);
                 try(XtStream stream = device.openStream(deviceParams, null);
-                    XtSafeBuffer safe = XtSafeBuffer.register(stream, true)) {
+                    XtSafeBuffer<float[]> safe = XtSafeBuffer.register(stream, true)) {
                     runStream(stream);
                 }
 
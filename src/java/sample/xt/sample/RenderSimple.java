@@ -32,9 +32,9 @@ public class RenderSimple {
     }
 
     static int onBuffer(XtStream stream, XtBuffer buffer, Object user) {
-        XtSafeBuffer safe = XtSafeBuffer.get(stream);
+        XtSafeBuffer<float[]> safe = XtSafeBuffer.get(stream, float[].class);
         safe.lock(buffer);
-        float[] output = (float[])safe.getOutput();
+        float[] output = safe.getOutput();
         for(int f = 0; f < buffer.frames; f++) output[f] = nextSample();
         safe.unlock(buffer);
         return 0;
@@ -58,7 +58,7 @@ public class RenderSimple {
                 streamParams = new XtStreamParams(true, RenderSimple::onBuffer, null, null);
                 deviceParams = new XtDeviceStreamParams(streamParams, FORMAT, size.current);
                 try(XtStream stream = device.openStream(deviceParams, null);
-                    XtSafeBuffer safe = XtSafeBuffer.register(stream, true)) {
+                    XtSafeBuffer<float[]> safe = XtSafeBuffer.register(stream, true)) {
                     stream.start();
                     Thread.sleep(2000);
                     stream.stop();
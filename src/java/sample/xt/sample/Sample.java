@@ -16,12 +16,14 @@ public final class Sample {
 
     static final String[] NAMES = new String[]{
             "PrintSimple", "PrintDetailed", "CaptureSimple", "RenderSimple",
-            "CaptureAdvanced", "RenderAdvanced", "FullDuplex", "Aggregate"
+            "CaptureAdvanced", "RenderAdvanced", "FullDuplex", "Aggregate",
+            "AllocationAudit"
     };
 
     static final Runner[] SAMPLES = new Runner[]{
             PrintSimple::main, PrintDetailed::main, CaptureSimple::main, RenderSimple::main,
-            CaptureAdvanced::main, RenderAdvanced::main, FullDuplex::main, Aggregate::main
+            CaptureAdvanced::main, RenderAdvanced::main, FullDuplex::main, Aggregate::main,
+            AllocationAudit::main
     };
 
     public static void main(String[] args) throws Exception {
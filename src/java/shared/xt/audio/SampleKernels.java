@@ -0,0 +1,75 @@
+package xt.audio;
+
+// Scalar sample <-> normalized float kernels. Source and destination
+// are addressed in samples with independent strides, so the same loop
+// copies, interleaves or deinterleaves. The unit-stride branches are
+// simple counted loops the JIT auto-vectorizes (SuperWord). Encoding
+// scales by the same power of two as decoding, biases to unsigned so
+// that truncation rounds and clamps to the sample range, matching the
+// core's XtiStore functions. UInt8, Int16 and Int24 samples survive a
+// round trip, Int32 ones keep the float's 24 bits of precision.
+final class SampleKernels {
+
+    static final float UINT8_SCALE = 1.0f / 128.0f;
+    static final float INT16_SCALE = 1.0f / 32768.0f;
+    static final float INT24_SCALE = 1.0f / 8388608.0f;
+    static final float INT32_SCALE = 1.0f / 2147483648.0f;
+
+    private SampleKernels() { }
+    static float clamp(float x, float max) { return Math.max(0.5f, Math.min(max, x)); }
+    static double clamp(double x, double max) { return Math.max(0.5, Math.min(max, x)); }
+
+    static void fromUInt8(byte[] s, int sp, int ss, float[] d, int dp, int ds, int n) {
+        if(ss == 1 && ds == 1) for(int i = 0; i < n; i++) d[dp + i] = ((s[sp + i] & 0xFF) - 128) * UINT8_SCALE;
+        else for(int i = 0; i < n; i++) d[dp + i * ds] = ((s[sp + i * ss] & 0xFF) - 128) * UINT8_SCALE;
+    }
+
+    static void toUInt8(float[] s, int sp, int ss, byte[] d, int dp, int ds, int n) {
+        if(ss == 1 && ds == 1) for(int i = 0; i < n; i++) d[dp + i] = (byte)(int)clamp(s[sp + i] * 128.0f + 128.5f, 255.5f);
+        else for(int i = 0; i < n; i++) d[dp + i * ds] = (byte)(int)clamp(s[sp + i * ss] * 128.0f + 128.5f, 255.5f);
+    }
+
+    static void fromInt16(short[] s, int sp, int ss, float[] d, int dp, int ds, int n) {
+        if(ss == 1 && ds == 1) for(int i = 0; i < n; i++) d[dp + i] = s[sp + i] * INT16_SCALE;
+        else for(int i = 0; i < n; i++) d[dp + i * ds] = s[sp + i * ss] * INT16_SCALE;
+    }
+
+    static void toInt16(float[] s, int sp, int ss, short[] d, int dp, int ds, int n) {
+        if(ss == 1 && ds == 1) for(int i = 0; i < n; i++) d[dp + i] = (short)((int)clamp(s[sp + i] * 32768.0f + 32768.5f, 65535.5f) - 32768);
+        else for(int i = 0; i < n; i++) d[dp + i * ds] = (short)((int)clamp(s[sp + i * ss] * 32768.0f + 32768.5f, 65535.5f) - 32768);
+    }
+
+    // Packed little-endian 3-byte samples, offsets and strides in samples.
+    static void fromInt24(byte[] s, int sp, int ss, float[] d, int dp, int ds, int n) {
+        for(int i = 0; i < n; i++) {
+            int b = (sp + i * ss) * 3;
+            int v = (s[b] & 0xFF) | (s[b + 1] & 0xFF) << 8 | s[b + 2] << 16;
+            d[dp + i * ds] = v * INT24_SCALE;
+        }
+    }
+
+    static void toInt24(float[] s, int sp, int ss, byte[] d, int dp, int ds, int n) {
+        for(int i = 0; i < n; i++) {
+            int b = (dp + i * ds) * 3;
+            int v = (int)clamp(s[sp + i * ss] * 8388608.0 + 8388608.5, 16777215.5) - 8388608;
+            d[b] = (byte)v;
+            d[b + 1] = (byte)(v >> 8);
+            d[b + 2] = (byte)(v >> 16);
+        }
+    }
+
+    static void fromInt32(int[] s, int sp, int ss, float[] d, int dp, int ds, int n) {
+        if(ss == 1 && ds == 1) for(int i = 0; i < n; i++) d[dp + i] = s[sp + i] * INT32_SCALE;
+        else for(int i = 0; i < n; i++) d[dp + i * ds] = s[sp + i * ss] * INT32_SCALE;
+    }
+
+    static void toInt32(float[] s, int sp, int ss, int[] d, int dp, int ds, int n) {
+        if(ss == 1 && ds == 1) for(int i = 0; i < n; i++) d[dp + i] = (int)((long)clamp(s[sp + i] * 2147483648.0 + 2147483648.5, 4294967295.5) - 2147483648L);
+        else for(int i = 0; i < n; i++) d[dp + i * ds] = (int)((long)clamp(s[sp + i * ss] * 2147483648.0 + 2147483648.5, 4294967295.5) - 2147483648L);
+    }
+
+    static void copy(float[] s, int sp, int ss, float[] d, int dp, int ds, int n) {
+        if(ss == 1 && ds == 1) System.arraycopy(s, sp, d, dp, n);
+        else for(int i = 0; i < n; i++) d[dp + i * ds] = s[sp + i * ss];
+    }
+}
\ No newline at end of file
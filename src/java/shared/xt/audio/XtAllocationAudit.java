@@ -0,0 +1,126 @@
+package xt.audio;
+
+import com.sun.management.ThreadMXBean;
+import xt.audio.Enums.XtAllocationPolicy;
+import java.lang.System.Logger.Level;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+
+// Samples the calling thread's allocated bytes around every callback
+// dispatch of one stream, the binding's own marshalling included.
+// Dispatches allocating more than the threshold are violations: RECORD
+// counts them, LOG also logs them with the dispatching stack to the
+// xt.audio logger, FAIL also stops the stream by returning a nonzero
+// fault from onBuffer, so onRunning reports it. Exceptions are not
+// thrown, the native side cannot propagate them. The first violation is
+// kept for check(), so tests can enforce a zero-allocation contract with
+// a threshold of 0. Warmup callbacks are not audited, the first
+// dispatches allocate while classes load and code gets compiled.
+public final class XtAllocationAudit implements AutoCloseable {
+
+    static final int BUFFER = 0;
+    static final int XRUN = 1;
+    static final int RUNNING = 2;
+
+    private static final String[] NAMES = { "onBuffer", "onXRun", "onRunning" };
+    private static final System.Logger LOGGER = System.getLogger("xt.audio");
+    private static final ThreadMXBean THREADS = (ThreadMXBean)ManagementFactory.getThreadMXBean();
+
+    private static final VarHandle AUDIT;
+    static {
+        try {
+            AUDIT = MethodHandles.lookup().findVarHandle(XtStream.class, "_audit", XtAllocationAudit.class);
+        } catch(ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private int _warmup;
+    private volatile long _callbacks;
+    private volatile long _bytes;
+    private volatile long _max;
+    private volatile long _violations;
+    private volatile boolean _reset;
+    private volatile IllegalStateException _first;
+
+    private final long _bias;
+    private final long _threshold;
+    private final XtStream _stream;
+    private final XtAllocationPolicy _policy;
+
+    public long getThreshold() { return _threshold; }
+    public XtAllocationPolicy getPolicy() { return _policy; }
+    public long getCallbacks() { return _callbacks; }
+    public long getViolations() { return _violations; }
+    public long getAllocatedBytes() { return _bytes; }
+    public long getMaxAllocatedBytes() { return _max; }
+    public long getMeanAllocatedBytes() { return _bytes / Math.max(1, _callbacks); }
+    public void reset() { _reset = true; }
+
+    private XtAllocationAudit(XtStream stream, XtAllocationPolicy policy, long threshold, int warmup) {
+        _stream = stream;
+        _warmup = warmup;
+        _threshold = threshold;
+        _policy = Objects.requireNonNull(policy);
+        long bias = Long.MAX_VALUE;
+        for(int i = 0; i < 8; i++) bias = Math.min(bias, -allocated() + allocated());
+        _bias = bias;
+    }
+
+    // Enables the audit on the stream. Closing the stream closes its audit.
+    public static XtAllocationAudit register(XtStream stream, XtAllocationPolicy policy, long threshold, int warmup) {
+        if(!THREADS.isThreadAllocatedMemorySupported()) throw new UnsupportedOperationException();
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        var result = new XtAllocationAudit(stream, policy, threshold, warmup);
+        if(!AUDIT.compareAndSet(stream, null, result)) throw new IllegalStateException();
+        return result;
+    }
+
+    @Override
+    public void close() {
+        AUDIT.compareAndSet(_stream, this, null);
+    }
+
+    // Throws the first violation since registration or the last reset.
+    public void check() {
+        IllegalStateException first = _first;
+        if(first != null) throw new IllegalStateException(first.getMessage(), first);
+    }
+
+    // Before Java 14 sampling allocates its own id array, the bias
+    // measured in the constructor subtracts that again.
+    long allocated() {
+        return THREADS.getThreadAllocatedBytes(Utility.threadId());
+    }
+
+    // Returns true if the stream should fail.
+    boolean record(int callback, long start) {
+        long bytes = Math.max(0, allocated() - start - _bias);
+        if(_reset) clear();
+        if(_warmup > 0) {
+            _warmup--;
+            return false;
+        }
+        _callbacks = _callbacks + 1;
+        _bytes = _bytes + bytes;
+        if(bytes > _max) _max = bytes;
+        if(bytes <= _threshold) return false;
+        _violations = _violations + 1;
+        String message = NAMES[callback] + " allocated " + bytes + " bytes, threshold is " + _threshold + ".";
+        var violation = new IllegalStateException(message);
+        if(_first == null) _first = violation;
+        if(_policy == XtAllocationPolicy.LOG) LOGGER.log(Level.WARNING, message, violation);
+        return _policy == XtAllocationPolicy.FAIL;
+    }
+
+    private void clear() {
+        _reset = false;
+        _max = 0;
+        _bytes = 0;
+        _first = null;
+        _callbacks = 0;
+        _violations = 0;
+    }
+}
\ No newline at end of file
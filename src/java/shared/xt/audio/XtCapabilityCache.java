@@ -0,0 +1,295 @@
+package xt.audio;
+
+import xt.audio.Enums.XtDeviceCaps;
+import xt.audio.Enums.XtEnumFlags;
+import xt.audio.Enums.XtSample;
+import xt.audio.Enums.XtSystem;
+import xt.audio.Structs.XtMix;
+import xt.audio.Structs.XtVersion;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Opt-in cache of device capabilities, keyed by system and device id and
+// kept in a compact binary file. The file is read and written on a
+// background thread, so cached devices are available at startup without
+// opening them. Devices can only be queried on the thread that initialized
+// the library: validate compares every service's device snapshot against
+// the cache and reprobes only new or changed devices, a time budget at a
+// time, for example from the application's event loop. Format matrices of
+// validated devices also serve XtFormatMatrix.get.
+public final class XtCapabilityCache implements AutoCloseable {
+
+    static final int MAGIC = 0x58544343;
+    static final int FILE_VERSION = 1;
+
+    public static final class Entry {
+
+        private final int _caps;
+        private final String _id;
+        private final String _name;
+        private final XtMix _mix;
+        private final XtSystem _system;
+        private final String[] _inputs;
+        private final String[] _outputs;
+        private final XtFormatMatrix _matrix;
+
+        public String getId() { return _id; }
+        public String getName() { return _name; }
+        public XtSystem getSystem() { return _system; }
+        public XtFormatMatrix getFormatMatrix() { return _matrix; }
+        public int getChannelCount(boolean output) { return (output? _outputs: _inputs).length; }
+        public String getChannelName(boolean output, int index) { return (output? _outputs: _inputs)[index]; }
+        public Optional<XtMix> getMix() { return _mix == null? Optional.empty(): Optional.of(new XtMix(_mix.rate, _mix.sample)); }
+
+        Entry(XtSystem system, String id, String name, int caps, String[] inputs, String[] outputs, XtMix mix, XtFormatMatrix matrix) {
+            _id = id;
+            _mix = mix;
+            _caps = caps;
+            _name = name;
+            _system = system;
+            _inputs = inputs;
+            _matrix = matrix;
+            _outputs = outputs;
+        }
+
+        public EnumSet<XtDeviceCaps> getCapabilities() {
+            var result = EnumSet.noneOf(XtDeviceCaps.class);
+            for(XtDeviceCaps caps: XtDeviceCaps.values())
+                if((_caps & caps._flag) != 0)
+                    result.add(caps);
+            return result;
+        }
+
+        boolean matches(XtDeviceSnapshot snapshot) {
+            return _name.equals(snapshot.getName(_id)) && getCapabilities().equals(snapshot.getCapabilities(_id));
+        }
+    }
+
+    private final Path _file;
+    private final XtVersion _version;
+    private final ExecutorService _io;
+    private final CompletableFuture<Void> _loaded;
+    private final Map<String, Entry> _entries = new ConcurrentHashMap<>();
+    private final ArrayDeque<Entry> _stale = new ArrayDeque<>();
+    private final ArrayDeque<Map.Entry<XtSystem, String>> _probes = new ArrayDeque<>();
+    private final Map<XtSystem, XtDeviceSnapshot> _snapshots = new HashMap<>();
+
+    private boolean _changed;
+    private boolean _started;
+    private volatile boolean _validated;
+    private volatile IOException _error;
+    private CompletableFuture<Void> _saved = CompletableFuture.completedFuture(null);
+
+    public boolean isValidated() { return _validated; }
+    public IOException getError() { return _error; }
+
+    // Starts reading the file on a background thread, a missing or
+    // unreadable file, or one from another library version, reads as empty.
+    public XtCapabilityCache(Path file) {
+        _file = file;
+        _version = XtAudio.getVersion();
+        _io = Executors.newSingleThreadExecutor(r -> {
+            var result = new Thread(r, "XtCapabilityCache");
+            result.setDaemon(true);
+            return result;
+        });
+        _loaded = CompletableFuture.runAsync(this::load, _io);
+    }
+
+    // Waits for a pending write.
+    @Override
+    public void close() {
+        _saved.join();
+        _io.shutdown();
+    }
+
+    // Waits for the file to be read, returns null for unknown devices.
+    public Entry get(XtSystem system, String id) {
+        _loaded.join();
+        return _entries.get(key(system, id));
+    }
+
+    public List<Entry> getEntries(XtSystem system) {
+        _loaded.join();
+        var result = new ArrayList<Entry>();
+        for(Entry entry: _entries.values())
+            if(entry.getSystem() == system)
+                result.add(entry);
+        return result;
+    }
+
+    // Starts a new validation on the next call to validate, for example
+    // after XtDeviceWatcher reported a change.
+    public void invalidate() {
+        _stale.clear();
+        _probes.clear();
+        _snapshots.clear();
+        _started = false;
+        _validated = false;
+    }
+
+    // Returns true once every cached device has been validated against the
+    // devices of all systems of the platform. Spends at most about budget
+    // milliseconds probing, at least one device per call. Changes are written
+    // back on the background thread once validation completes.
+    public boolean validate(XtPlatform platform, long budgetMillis) {
+        if(_validated) return true;
+        _loaded.join();
+        long start = System.nanoTime();
+        if(!_started) begin(platform);
+        while(!_stale.isEmpty()) {
+            Entry entry = _stale.poll();
+            XtDeviceSnapshot snapshot = _snapshots.get(entry.getSystem());
+            if(snapshot.contains(entry.getId()) && entry.matches(snapshot))
+                XtFormatMatrix.put(entry.getSystem(), entry.getId(), entry.getFormatMatrix());
+            else {
+                _changed = true;
+                _entries.remove(key(entry.getSystem(), entry.getId()));
+                if(snapshot.contains(entry.getId())) _probes.add(Map.entry(entry.getSystem(), entry.getId()));
+            }
+        }
+        do {
+            var probe = _probes.poll();
+            if(probe == null) break;
+            XtSystem system = probe.getKey();
+            Entry entry = probe(platform.getService(system), _snapshots.get(system), system, probe.getValue());
+            if(entry == null) continue;
+            _changed = true;
+            _entries.put(key(system, entry.getId()), entry);
+            XtFormatMatrix.put(system, entry.getId(), entry.getFormatMatrix());
+        } while(System.nanoTime() - start < budgetMillis * 1_000_000L);
+        if(!_probes.isEmpty()) return false;
+        _validated = true;
+        _snapshots.clear();
+        if(_changed) save();
+        _changed = false;
+        return true;
+    }
+
+    private void begin(XtPlatform platform) {
+        _started = true;
+        for(XtSystem system: platform.getSystems()) {
+            XtService service = platform.getService(system);
+            if(service == null) continue;
+            XtDeviceSnapshot snapshot = service.getDeviceSnapshot(EnumSet.of(XtEnumFlags.ALL));
+            _snapshots.put(system, snapshot);
+            for(String id: snapshot.getIds())
+                if(!_entries.containsKey(key(system, id)))
+                    _probes.add(Map.entry(system, id));
+        }
+        for(Entry entry: _entries.values())
+            if(_snapshots.containsKey(entry.getSystem())) _stale.add(entry);
+            else _changed |= _entries.remove(key(entry.getSystem(), entry.getId())) != null;
+    }
+
+    // Devices that fail to open, for example because they are in use
+    // exclusively, are left out until the next validation.
+    private static Entry probe(XtService service, XtDeviceSnapshot snapshot, XtSystem system, String id) {
+        try(XtDevice device = service.openDevice(id)) {
+            String[] inputs = new String[device.getChannelCount(false)];
+            String[] outputs = new String[device.getChannelCount(true)];
+            for(int i = 0; i < inputs.length; i++) inputs[i] = device.getChannelName(false, i);
+            for(int i = 0; i < outputs.length; i++) outputs[i] = device.getChannelName(true, i);
+            int caps = 0;
+            for(XtDeviceCaps c: snapshot.getCapabilities(id)) caps |= c._flag;
+            XtMix mix = device.getMix().orElse(null);
+            return new Entry(system, id, snapshot.getName(id), caps, inputs, outputs, mix, device.getFormatMatrix());
+        } catch(XtException e) {
+            return null;
+        }
+    }
+
+    private void save() {
+        var entries = List.copyOf(_entries.values());
+        _saved = _saved.thenRunAsync(() -> store(entries), _io);
+    }
+
+    private void load() {
+        try(var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(_file)))) {
+            if(in.readInt() != MAGIC || in.readInt() != FILE_VERSION) return;
+            if(in.readInt() != _version.major || in.readInt() != _version.minor) return;
+            var entries = new HashMap<String, Entry>();
+            int count = in.readInt();
+            for(int e = 0; e < count; e++) {
+                XtSystem system = XtSystem.valueOf(in.readUTF());
+                String id = in.readUTF();
+                String name = in.readUTF();
+                int caps = in.readInt();
+                String[] inputs = readNames(in);
+                String[] outputs = readNames(in);
+                XtMix mix = in.readBoolean()? new XtMix(in.readInt(), XtSample.values()[in.readInt()]): null;
+                XtFormatMatrix matrix = XtFormatMatrix.read(in);
+                entries.put(key(system, id), new Entry(system, id, name, caps, inputs, outputs, mix, matrix));
+            }
+            _entries.putAll(entries);
+        } catch(NoSuchFileException e) {
+        } catch(IOException e) {
+            _error = e;
+        } catch(RuntimeException e) {
+            _error = new IOException("Invalid capability cache.", e);
+        }
+    }
+
+    private void store(List<Entry> entries) {
+        Path temp = _file.resolveSibling(_file.getFileName() + ".tmp");
+        try {
+            try(var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FILE_VERSION);
+                out.writeInt(_version.major);
+                out.writeInt(_version.minor);
+                out.writeInt(entries.size());
+                for(Entry entry: entries) {
+                    out.writeUTF(entry.getSystem().name());
+                    out.writeUTF(entry._id);
+                    out.writeUTF(entry._name);
+                    out.writeInt(entry._caps);
+                    writeNames(out, entry._inputs);
+                    writeNames(out, entry._outputs);
+                    out.writeBoolean(entry._mix != null);
+                    if(entry._mix != null) {
+                        out.writeInt(entry._mix.rate);
+                        out.writeInt(entry._mix.sample.ordinal());
+                    }
+                    entry._matrix.write(out);
+                }
+            }
+            Files.move(temp, _file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(IOException e) {
+            _error = e;
+        }
+    }
+
+    private static String[] readNames(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if(count < 0 || count > 4096) throw new IOException("Invalid capability cache.");
+        String[] result = new String[count];
+        for(int i = 0; i < count; i++) result[i] = in.readUTF();
+        return result;
+    }
+
+    private static void writeNames(DataOutputStream out, String[] names) throws IOException {
+        out.writeInt(names.length);
+        for(String name: names) out.writeUTF(name);
+    }
+
+    private static String key(XtSystem system, String id) { return XtFormatMatrix.key(system, id); }
+}
\ No newline at end of file
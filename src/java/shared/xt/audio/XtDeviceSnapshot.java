@@ -0,0 +1,89 @@
+package xt.audio;
+
+import xt.audio.Enums.XtDeviceCaps;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable copy of a device list's ids, names and capabilities, read
+// in one native call and decoded in one pass. Safe to cache and share
+// between threads, though devices may come and go in the meantime.
+public final class XtDeviceSnapshot {
+
+    private final int[] _caps;
+    private final String[] _ids;
+    private final String[] _names;
+    private final Map<String, Integer> _indices;
+
+    public int getCount() { return _ids.length; }
+    public String getId(int index) { return _ids[index]; }
+    public List<String> getIds() { return List.of(_ids); }
+    public boolean contains(String id) { return _indices.containsKey(id); }
+    public String getName(String id) { return _names[indexOf(id)]; }
+
+    private XtDeviceSnapshot(String[] ids, String[] names, int[] caps) {
+        _ids = ids;
+        _caps = caps;
+        _names = names;
+        _indices = new HashMap<>(ids.length * 2);
+        for(int i = 0; i < ids.length; i++) _indices.put(ids[i], i);
+    }
+
+    public EnumSet<XtDeviceCaps> getCapabilities(String id) {
+        int flags = _caps[indexOf(id)];
+        var result = EnumSet.noneOf(XtDeviceCaps.class);
+        for(XtDeviceCaps caps: XtDeviceCaps.values())
+            if((flags & caps._flag) != 0)
+                result.add(caps);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(!(o instanceof XtDeviceSnapshot)) return false;
+        var other = (XtDeviceSnapshot)o;
+        return Arrays.equals(_ids, other._ids) && Arrays.equals(_names, other._names) && Arrays.equals(_caps, other._caps);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Arrays.hashCode(_ids) + Arrays.hashCode(_names)) + Arrays.hashCode(_caps);
+    }
+
+    private int indexOf(String id) {
+        Integer result = _indices.get(id);
+        if(result == null) throw new IllegalArgumentException("Unknown device id: " + id + ".");
+        return result;
+    }
+
+    // See XtDeviceListGetSnapshot for the layout.
+    static XtDeviceSnapshot decode(byte[] buffer) {
+        var view = ByteBuffer.wrap(buffer).order(ByteOrder.nativeOrder());
+        int count = view.getInt(0);
+        int position = Integer.BYTES;
+        int[] caps = new int[count];
+        String[] ids = new String[count];
+        String[] names = new String[count];
+        for(int i = 0; i < count; i++) {
+            caps[i] = view.getInt(position);
+            position += Integer.BYTES;
+            int end = terminator(buffer, position);
+            ids[i] = new String(buffer, position, end - position, StandardCharsets.UTF_8);
+            position = end + 1;
+            end = terminator(buffer, position);
+            names[i] = new String(buffer, position, end - position, StandardCharsets.UTF_8);
+            position = end + 1;
+        }
+        return new XtDeviceSnapshot(ids, names, caps);
+    }
+
+    private static int terminator(byte[] buffer, int position) {
+        while(buffer[position] != 0) position++;
+        return position;
+    }
+}
\ No newline at end of file
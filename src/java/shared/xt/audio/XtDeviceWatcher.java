@@ -0,0 +1,133 @@
+package xt.audio;
+
+import xt.audio.Callbacks.XtOnDeviceChange;
+import xt.audio.Enums.XtDeviceChange;
+import xt.audio.Enums.XtEnumFlags;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+
+// Reports devices added to or removed from a service, and changes of its
+// default devices. Where /dev/snd exists it is watched for changes (through
+// inotify on Linux), and the device list is only read again once a burst of
+// changes has been quiet for a moment. Elsewhere the list is read again every
+// interval. Defaults are read every interval either way, default changes
+// do not show up in /dev/snd. Like the device list itself, poll must be
+// called on the thread that initialized the library, for example from the
+// application's event loop. Polls in between intervals cost no native
+// calls unless /dev/snd changed.
+public final class XtDeviceWatcher implements AutoCloseable {
+
+    static final Path DEVICES = Path.of("/dev/snd");
+    static final long QUIET_NANOS = 100_000_000L;
+
+    private final XtService _service;
+    private final WatchService _watch;
+    private final long _intervalNanos;
+    private final EnumSet<XtEnumFlags> _flags;
+    private final List<XtOnDeviceChange> _listeners = new ArrayList<>();
+
+    private long _checked;
+    private long _changed;
+    private boolean _pending;
+    private String _defaultInput;
+    private String _defaultOutput;
+    private XtDeviceSnapshot _snapshot;
+
+    public XtDeviceSnapshot getSnapshot() { return _snapshot; }
+    public boolean isWatching() { return _watch != null; }
+    public void addListener(XtOnDeviceChange listener) { _listeners.add(Objects.requireNonNull(listener)); }
+    public void removeListener(XtOnDeviceChange listener) { _listeners.remove(listener); }
+
+    public XtDeviceWatcher(XtService service, EnumSet<XtEnumFlags> flags, long intervalMillis) {
+        this(service, flags, intervalMillis, DEVICES);
+    }
+
+    // Watches the given directory instead of /dev/snd, for tests.
+    XtDeviceWatcher(XtService service, EnumSet<XtEnumFlags> flags, long intervalMillis, Path devices) {
+        _service = service;
+        _flags = EnumSet.copyOf(flags);
+        _intervalNanos = intervalMillis * 1_000_000L;
+        _watch = watch(devices);
+        _checked = System.nanoTime();
+        _snapshot = service.getDeviceSnapshot(_flags);
+        _defaultInput = service.getDefaultDeviceId(false);
+        _defaultOutput = service.getDefaultDeviceId(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(_watch != null) _watch.close();
+    }
+
+    // Returns true if listeners were notified of any change.
+    public boolean poll() throws Exception {
+        long now = System.nanoTime();
+        boolean interval = now - _checked >= _intervalNanos;
+        if(interval) _checked = now;
+        if(_watch == null) return interval && update(true);
+        WatchKey key;
+        try {
+            key = _watch.poll();
+        } catch(ClosedWatchServiceException e) {
+            key = null;
+        }
+        if(key != null) {
+            key.pollEvents();
+            key.reset();
+            _changed = now;
+            _pending = true;
+        }
+        boolean devices = _pending && now - _changed >= QUIET_NANOS;
+        if(devices) _pending = false;
+        return (devices || interval) && update(devices);
+    }
+
+    private boolean update(boolean devices) throws Exception {
+        boolean result = false;
+        if(devices) {
+            XtDeviceSnapshot previous = _snapshot;
+            _snapshot = _service.getDeviceSnapshot(_flags);
+            for(String id: previous.getIds())
+                if(!_snapshot.contains(id)) result |= dispatch(XtDeviceChange.REMOVED, id);
+            for(String id: _snapshot.getIds())
+                if(!previous.contains(id)) result |= dispatch(XtDeviceChange.ADDED, id);
+        }
+        String input = _service.getDefaultDeviceId(false);
+        String output = _service.getDefaultDeviceId(true);
+        if(!Objects.equals(input, _defaultInput)) result |= dispatch(XtDeviceChange.DEFAULT_INPUT, input);
+        if(!Objects.equals(output, _defaultOutput)) result |= dispatch(XtDeviceChange.DEFAULT_OUTPUT, output);
+        _defaultInput = input;
+        _defaultOutput = output;
+        return result;
+    }
+
+    private boolean dispatch(XtDeviceChange change, String id) throws Exception {
+        for(XtOnDeviceChange listener: List.copyOf(_listeners)) listener.callback(this, change, id);
+        return true;
+    }
+
+    private static WatchService watch(Path devices) {
+        if(!Files.isDirectory(devices)) return null;
+        WatchService result = null;
+        try {
+            result = devices.getFileSystem().newWatchService();
+            devices.register(result, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
+            return result;
+        } catch(IOException | UnsupportedOperationException e) {
+            try {
+                if(result != null) result.close();
+            } catch(IOException ignored) {
+            }
+            return null;
+        }
+    }
+}
\ No newline at end of file
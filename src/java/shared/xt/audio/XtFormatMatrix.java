@@ -0,0 +1,284 @@
+package xt.audio;
+
+import xt.audio.Enums.XtSample;
+import xt.audio.Enums.XtSystem;
+import xt.audio.Structs.XtBufferSize;
+import xt.audio.Structs.XtChannels;
+import xt.audio.Structs.XtFormat;
+import xt.audio.Structs.XtMix;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Format support of a device over a grid of rates, sample types and
+// channel counts, with the buffer size limits of every supported format
+// and the supported access modes. Probed with a single native call, see
+// probe for its cost, and cached per system and device id by get. Formats
+// with channel masks or outside the grid are reported as unsupported.
+public final class XtFormatMatrix {
+
+    public static final int[] RATES = { 8000, 11025, 16000, 22050, 32000, 44100, 48000, 88200, 96000, 176400, 192000 };
+    static final int[] CHANNELS = { 0, 1, 2, 4, 6, 8 };
+    private static final XtSample[] SAMPLES = XtSample.values();
+    private static final Map<String, XtFormatMatrix> CACHE = new ConcurrentHashMap<>();
+
+    private final int[] _rates;
+    private final int[] _inputs;
+    private final int[] _outputs;
+    private final boolean _interleaved;
+    private final boolean _nonInterleaved;
+    private final boolean[] _supports;
+    private final double[] _sizes;
+
+    public int[] getRates() { return _rates.clone(); }
+    public int[] getInputs() { return _inputs.clone(); }
+    public int[] getOutputs() { return _outputs.clone(); }
+    public boolean supportsAccess(boolean interleaved) { return interleaved? _interleaved: _nonInterleaved; }
+
+    XtFormatMatrix(int[] rates, int[] inputs, int[] outputs, boolean interleaved,
+        boolean nonInterleaved, boolean[] supports, double[] sizes) {
+        _rates = rates;
+        _sizes = sizes;
+        _inputs = inputs;
+        _outputs = outputs;
+        _supports = supports;
+        _interleaved = interleaved;
+        _nonInterleaved = nonInterleaved;
+    }
+
+    // Returns the cached matrix of the device with the given id, probing
+    // the (open) device on a miss.
+    public static XtFormatMatrix get(XtSystem system, String id, XtDevice device) {
+        return CACHE.computeIfAbsent(key(system, id), k -> probe(device));
+    }
+
+    public static void invalidate(XtSystem system, String id) { CACHE.remove(key(system, id)); }
+    static void put(XtSystem system, String id, XtFormatMatrix matrix) { CACHE.put(key(system, id), matrix); }
+    public static void invalidateAll() { CACHE.clear(); }
+    static String key(XtSystem system, String id) { return system + "/" + id; }
+
+    // Probes the standard rates and up to 8 channels plus the device's maximum.
+    public static XtFormatMatrix probe(XtDevice device) {
+        int[] inputs = channels(device.getChannelCount(false));
+        int[] outputs = channels(device.getChannelCount(true));
+        return probe(device, RATES, inputs, outputs);
+    }
+
+    // Input and output channel counts are probed independently, a duplex
+    // format is taken as supported when both its input-only and
+    // output-only formats are, with the intersection of their buffer
+    // sizes. Such formats are unverified: a device may still reject the
+    // combination, see isVerified and resolve(XtFormat, XtDevice). That
+    // makes one SupportsFormat per rate, sample type and channel count,
+    // 660 for a duplex device with over 8 channels each way on the
+    // default grid. Backends that open the device to test a format, like
+    // ALSA, pay that many opens on a cold probe.
+    public static XtFormatMatrix probe(XtDevice device, int[] rates, int[] inputs, int[] outputs) {
+        int mixes = rates.length * SAMPLES.length;
+        int channels = inputs.length + outputs.length;
+        int[] queryRates = new int[mixes * channels];
+        int[] querySamples = new int[mixes * channels];
+        int[] queryInputs = new int[mixes * channels];
+        int[] queryOutputs = new int[mixes * channels];
+        int[] queryIndices = new int[mixes * channels];
+        int queries = 0;
+        for(int m = 0; m < mixes; m++)
+            for(int c = 0; c < channels; c++) {
+                int in = c < inputs.length? inputs[c]: 0;
+                int out = c < inputs.length? 0: outputs[c - inputs.length];
+                queryIndices[m * channels + c] = -1;
+                if(in == 0 && out == 0) continue;
+                queryRates[queries] = rates[m / SAMPLES.length];
+                querySamples[queries] = SAMPLES[m % SAMPLES.length].ordinal();
+                queryInputs[queries] = in;
+                queryOutputs[queries] = out;
+                queryIndices[m * channels + c] = queries++;
+            }
+        boolean[] queried = new boolean[queries];
+        double[] sizes = new double[queries * 3];
+        device.queryFormats(Arrays.copyOf(queryRates, queries), Arrays.copyOf(querySamples, queries),
+            Arrays.copyOf(queryInputs, queries), Arrays.copyOf(queryOutputs, queries), queried, sizes);
+        int count = mixes * inputs.length * outputs.length;
+        boolean[] supports = new boolean[count];
+        double[] gridSizes = new double[count * 3];
+        for(int index = 0; index < count; index++) {
+            int o = index % outputs.length;
+            int i = index / outputs.length % inputs.length;
+            int m = index / outputs.length / inputs.length;
+            int qi = inputs[i] == 0? -1: queryIndices[m * channels + i];
+            int qo = outputs[o] == 0? -1: queryIndices[m * channels + inputs.length + o];
+            if(qi < 0 && qo < 0) continue;
+            if(qi >= 0 && !queried[qi] || qo >= 0 && !queried[qo]) continue;
+            double min = Math.max(qi < 0? 0.0: sizes[qi * 3], qo < 0? 0.0: sizes[qo * 3]);
+            double max = Math.min(qi < 0? Double.MAX_VALUE: sizes[qi * 3 + 1], qo < 0? Double.MAX_VALUE: sizes[qo * 3 + 1]);
+            double current = Math.max(qi < 0? 0.0: sizes[qi * 3 + 2], qo < 0? 0.0: sizes[qo * 3 + 2]);
+            if(min > max) continue;
+            supports[index] = true;
+            gridSizes[index * 3] = min;
+            gridSizes[index * 3 + 1] = max;
+            gridSizes[index * 3 + 2] = Math.min(current, max);
+        }
+        return new XtFormatMatrix(rates.clone(), inputs.clone(), outputs.clone(),
+            device.supportsAccess(true), device.supportsAccess(false), supports, gridSizes);
+    }
+
+    public boolean supports(XtFormat format) {
+        int index = indexOf(format);
+        return index >= 0 && _supports[index];
+    }
+
+    // Whether support was probed rather than inferred, false for duplex.
+    public boolean isVerified(XtFormat format) {
+        return supports(format) && (format.channels.inputs == 0 || format.channels.outputs == 0);
+    }
+
+    // Returns null when the format is not supported.
+    public XtBufferSize getBufferSize(XtFormat format) {
+        int index = indexOf(format);
+        if(index < 0 || !_supports[index]) return null;
+        var result = new XtBufferSize();
+        result.min = _sizes[index * 3];
+        result.max = _sizes[index * 3 + 1];
+        result.current = _sizes[index * 3 + 2];
+        return result;
+    }
+
+    public List<XtFormat> getFormats() {
+        var result = new ArrayList<XtFormat>();
+        for(int index = 0; index < _supports.length; index++)
+            if(_supports[index]) result.add(format(index));
+        return result;
+    }
+
+    // Returns the supported format closest to the preferred one, or null if
+    // none is. Missing channels weigh most, then extra channels, then the
+    // rate distance, then the sample type (wider types first).
+    public XtFormat resolve(XtFormat preferred) {
+        int best = -1;
+        long bestCost = Long.MAX_VALUE;
+        for(int index = 0; index < _supports.length; index++) {
+            if(!_supports[index]) continue;
+            long cost = cost(index, preferred);
+            if(cost < bestCost) {
+                best = index;
+                bestCost = cost;
+            }
+        }
+        return best < 0? null: format(best);
+    }
+
+    // As resolve, but confirms unverified candidates on the open device,
+    // in order of preference, and returns the first it accepts.
+    public XtFormat resolve(XtFormat preferred, XtDevice device) {
+        var candidates = new ArrayList<Integer>();
+        for(int index = 0; index < _supports.length; index++)
+            if(_supports[index]) candidates.add(index);
+        candidates.sort(Comparator.comparingLong(index -> cost(index, preferred)));
+        for(int index: candidates) {
+            XtFormat format = format(index);
+            if(isVerified(format) || device.supportsFormat(format)) return format;
+        }
+        return null;
+    }
+
+    private long cost(int index, XtFormat preferred) {
+        int wantIn = preferred.channels.inputs;
+        int wantOut = preferred.channels.outputs;
+        int haveOut = _outputs[index % _outputs.length];
+        int haveIn = _inputs[index / _outputs.length % _inputs.length];
+        int haveSample = index / _outputs.length / _inputs.length % SAMPLES.length;
+        int haveRate = _rates[index / _outputs.length / _inputs.length / SAMPLES.length];
+        long missing = Math.min(255, Math.max(0, wantIn - haveIn) + Math.max(0, wantOut - haveOut));
+        long extra = Math.min(255, Math.max(0, haveIn - wantIn) + Math.max(0, haveOut - wantOut));
+        long rate = Math.min((1L << 32) - 1, Math.abs((long)haveRate - preferred.mix.rate));
+        long sample = haveSample == preferred.mix.sample.ordinal()? 0: SAMPLES.length - haveSample;
+        return missing << 56 | extra << 48 | rate << 8 | sample;
+    }
+
+    private XtFormat format(int index) {
+        int o = index % _outputs.length;
+        index /= _outputs.length;
+        int i = index % _inputs.length;
+        index /= _inputs.length;
+        int s = index % SAMPLES.length;
+        int r = index / SAMPLES.length;
+        return new XtFormat(new XtMix(_rates[r], SAMPLES[s]), new XtChannels(_inputs[i], 0, _outputs[o], 0));
+    }
+
+    private int indexOf(XtFormat format) {
+        if(format.channels.inMask != 0 || format.channels.outMask != 0) return -1;
+        int r = find(_rates, format.mix.rate);
+        int i = find(_inputs, format.channels.inputs);
+        int o = find(_outputs, format.channels.outputs);
+        if(r < 0 || i < 0 || o < 0) return -1;
+        return ((r * SAMPLES.length + format.mix.sample.ordinal()) * _inputs.length + i) * _outputs.length + o;
+    }
+
+    private static int find(int[] values, int value) {
+        for(int i = 0; i < values.length; i++)
+            if(values[i] == value) return i;
+        return -1;
+    }
+
+    void write(DataOutput out) throws IOException {
+        writeInts(out, _rates);
+        writeInts(out, _inputs);
+        writeInts(out, _outputs);
+        out.writeBoolean(_interleaved);
+        out.writeBoolean(_nonInterleaved);
+        var supported = new BitSet(_supports.length);
+        for(int index = 0; index < _supports.length; index++) supported.set(index, _supports[index]);
+        byte[] bits = supported.toByteArray();
+        out.writeInt(bits.length);
+        out.write(bits);
+        for(int index = supported.nextSetBit(0); index >= 0; index = supported.nextSetBit(index + 1))
+            for(int i = 0; i < 3; i++) out.writeDouble(_sizes[index * 3 + i]);
+    }
+
+    static XtFormatMatrix read(DataInput in) throws IOException {
+        int[] rates = readInts(in);
+        int[] inputs = readInts(in);
+        int[] outputs = readInts(in);
+        boolean interleaved = in.readBoolean();
+        boolean nonInterleaved = in.readBoolean();
+        byte[] bits = new byte[in.readInt()];
+        in.readFully(bits);
+        var supported = BitSet.valueOf(bits);
+        int count = rates.length * SAMPLES.length * inputs.length * outputs.length;
+        if(supported.length() > count) throw new IOException("Invalid format matrix.");
+        boolean[] supports = new boolean[count];
+        double[] sizes = new double[count * 3];
+        for(int index = supported.nextSetBit(0); index >= 0; index = supported.nextSetBit(index + 1)) {
+            supports[index] = true;
+            for(int i = 0; i < 3; i++) sizes[index * 3 + i] = in.readDouble();
+        }
+        return new XtFormatMatrix(rates, inputs, outputs, interleaved, nonInterleaved, supports, sizes);
+    }
+
+    private static void writeInts(DataOutput out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for(int value: values) out.writeInt(value);
+    }
+
+    private static int[] readInts(DataInput in) throws IOException {
+        int length = in.readInt();
+        if(length < 0 || length > 4096) throw new IOException("Invalid format matrix.");
+        int[] result = new int[length];
+        for(int i = 0; i < length; i++) result[i] = in.readInt();
+        return result;
+    }
+
+    static int[] channels(int max) {
+        int[] result = Arrays.stream(CHANNELS).filter(c -> c < max).toArray();
+        result = Arrays.copyOf(result, result.length + 1);
+        result[result.length - 1] = max;
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package xt.audio;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Callback timing for one stream, published as an MXBean under
+// xt.audio:type=XtStreamMetrics. Histograms are log2 of nanoseconds,
+// bucket i counts [2^i, 2^(i+1)). Utilization is callback time divided by
+// the buffer duration. Gaps are measured between callback starts. Only
+// the audio thread writes, readers may see a callback half recorded.
+// Streams without metrics pay a single field read per callback.
+public final class XtStreamMetrics implements XtStreamMetricsMXBean, AutoCloseable {
+
+    public static final int BUCKETS = 64;
+    public static final int DEVICES = 64;
+
+    private static final int CALLBACKS = 0;
+    private static final int DURATION_SUM = 1;
+    private static final int DURATION_MAX = 2;
+    private static final int GAP_MAX = 3;
+    private static final int UTILIZATION_SUM = 4;
+    private static final int UTILIZATION_MAX = 5;
+    private static final double PPM = 1000000.0;
+
+    private static final VarHandle METRICS;
+    private static final AtomicInteger IDS = new AtomicInteger();
+    static {
+        try {
+            METRICS = MethodHandles.lookup().findVarHandle(XtStream.class, "_metrics", XtStreamMetrics.class);
+        } catch(ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public static final class Snapshot {
+        public final long callbacks;
+        public final long meanDurationNanos;
+        public final long maxDurationNanos;
+        public final long maxGapNanos;
+        public final double meanUtilization;
+        public final double maxUtilization;
+        public final long[] durationHistogram;
+        public final long[] gapHistogram;
+        public final long[] xruns;
+
+        Snapshot(XtStreamMetrics metrics) {
+            callbacks = metrics.getCallbacks();
+            meanDurationNanos = metrics.getMeanDurationNanos();
+            maxDurationNanos = metrics.getMaxDurationNanos();
+            maxGapNanos = metrics.getMaxGapNanos();
+            meanUtilization = metrics.getMeanUtilization();
+            maxUtilization = metrics.getMaxUtilization();
+            durationHistogram = metrics.getDurationHistogram();
+            gapHistogram = metrics.getGapHistogram();
+            xruns = metrics.getXRuns();
+        }
+    }
+
+    private long _last;
+    private volatile boolean _reset;
+
+    private final int _rate;
+    private final XtStream _stream;
+    private final ObjectName _name;
+    private final AtomicLongArray _stats = new AtomicLongArray(6);
+    private final AtomicLongArray _gaps = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray _durations = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray _xruns = new AtomicLongArray(DEVICES);
+
+    public ObjectName getObjectName() { return _name; }
+    public Snapshot snapshot() { return new Snapshot(this); }
+    @Override public void reset() { _reset = true; }
+    @Override public long getCallbacks() { return _stats.get(CALLBACKS); }
+    @Override public long getMaxGapNanos() { return _stats.get(GAP_MAX); }
+    @Override public long getMaxDurationNanos() { return _stats.get(DURATION_MAX); }
+    @Override public long getMeanDurationNanos() { return _stats.get(DURATION_SUM) / Math.max(1, getCallbacks()); }
+    @Override public double getMaxUtilization() { return _stats.get(UTILIZATION_MAX) / PPM; }
+    @Override public double getMeanUtilization() { return _stats.get(UTILIZATION_SUM) / PPM / Math.max(1, getCallbacks()); }
+    @Override public long[] getGapHistogram() { return toArray(_gaps); }
+    @Override public long[] getDurationHistogram() { return toArray(_durations); }
+    @Override public long[] getXRuns() { return toArray(_xruns); }
+
+    private XtStreamMetrics(XtStream stream) {
+        _stream = stream;
+        _rate = stream.getFormat().mix.rate;
+        try {
+            _name = new ObjectName("xt.audio:type=XtStreamMetrics,id=" + IDS.incrementAndGet());
+        } catch(JMException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // Enables metrics on the stream and registers the MXBean. Closing the
+    // stream closes its metrics.
+    public static XtStreamMetrics register(XtStream stream) {
+        var result = new XtStreamMetrics(stream);
+        if(!METRICS.compareAndSet(stream, null, result)) throw new IllegalStateException();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(result, result._name);
+        } catch(JMException e) {
+            stream._metrics = null;
+            throw new RuntimeException(e);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        if(!METRICS.compareAndSet(_stream, this, null)) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(_name);
+        } catch(JMException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    void record(long start, long end, int frames) {
+        if(_reset) clear();
+        long duration = end - start;
+        increment(_durations, bucket(duration));
+        if(_last != 0) {
+            long gap = start - _last;
+            increment(_gaps, bucket(gap));
+            if(gap > _stats.get(GAP_MAX)) _stats.lazySet(GAP_MAX, gap);
+        }
+        _last = start;
+        long utilization = frames == 0? 0: (long)(duration * PPM * _rate / 1E9 / frames);
+        increment(_stats, CALLBACKS);
+        _stats.lazySet(DURATION_SUM, _stats.get(DURATION_SUM) + duration);
+        _stats.lazySet(UTILIZATION_SUM, _stats.get(UTILIZATION_SUM) + utilization);
+        if(duration > _stats.get(DURATION_MAX)) _stats.lazySet(DURATION_MAX, duration);
+        if(utilization > _stats.get(UTILIZATION_MAX)) _stats.lazySet(UTILIZATION_MAX, utilization);
+    }
+
+    void xrun(int index) {
+        _xruns.incrementAndGet(Math.max(0, Math.min(index, DEVICES - 1)));
+    }
+
+    private void clear() {
+        _reset = false;
+        _last = 0;
+        for(int i = 0; i < _stats.length(); i++) _stats.lazySet(i, 0);
+        for(int i = 0; i < BUCKETS; i++) _gaps.lazySet(i, 0);
+        for(int i = 0; i < BUCKETS; i++) _durations.lazySet(i, 0);
+        for(int i = 0; i < DEVICES; i++) _xruns.set(i, 0);
+    }
+
+    private static int bucket(long nanos) {
+        return 63 - Long.numberOfLeadingZeros(Math.max(1, nanos));
+    }
+
+    private static void increment(AtomicLongArray array, int index) {
+        array.lazySet(index, array.get(index) + 1);
+    }
+
+    private static long[] toArray(AtomicLongArray array) {
+        var result = new long[array.length()];
+        for(int i = 0; i < result.length; i++) result[i] = array.get(i);
+        return result;
+    }
+}
\ No newline at end of file
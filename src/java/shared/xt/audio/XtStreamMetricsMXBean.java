@@ -0,0 +1,14 @@
+package xt.audio;
+
+public interface XtStreamMetricsMXBean {
+    long getCallbacks();
+    long getMeanDurationNanos();
+    long getMaxDurationNanos();
+    long getMaxGapNanos();
+    double getMeanUtilization();
+    double getMaxUtilization();
+    long[] getDurationHistogram();
+    long[] getGapHistogram();
+    long[] getXRuns();
+    void reset();
+}
\ No newline at end of file
@@ -1,4 +1,7 @@
 module xt.audio {
+  requires transitive java.management;
+  requires jdk.management;
+  requires jdk.unsupported;
   requires transitive com.sun.jna;
   exports xt.audio;
 }
\ No newline at end of file
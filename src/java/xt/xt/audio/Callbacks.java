@@ -1,6 +1,7 @@
 package xt.audio;
 
 import com.sun.jna.Callback;
+import xt.audio.Enums.XtDeviceChange;
 import xt.audio.Structs.XtBuffer;
 import xt.audio.Structs.XtLocation;
 
@@ -21,4 +22,8 @@ public interface Callbacks {
     interface XtOnRunning {
         void callback(XtStream stream, boolean running, long error, Object user) throws Exception;
     }
+
+    interface XtOnDeviceChange {
+        void callback(XtDeviceWatcher watcher, XtDeviceChange change, String id) throws Exception;
+    }
 }
\ No newline at end of file
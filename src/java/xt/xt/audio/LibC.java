@@ -0,0 +1,14 @@
+package xt.audio;
+
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+
+// Direct-mapped native to native copies, JNA itself only copies
+// between native memory and Java arrays.
+final class LibC {
+    static { Native.register(Platform.C_LIBRARY_NAME); }
+    private LibC() { }
+    static native Pointer memcpy(Pointer dest, Pointer src, long count);
+    static native Pointer memset(Pointer dest, int value, long count);
+}
\ No newline at end of file
@@ -17,8 +17,29 @@ interface NativeStructs {
         public StreamParams stream;
         public XtFormat format;
         public double bufferSize;
+        public boolean adaptive;
+        public Routing routing;
         public DeviceStreamParams() {}
-        @Override protected List getFieldOrder() { return Arrays.asList("stream", "format", "bufferSize"); }
+        @Override protected List getFieldOrder() { return Arrays.asList("stream", "format", "bufferSize", "adaptive", "routing"); }
+    }
+
+    public static class Route extends Structure {
+        public boolean output;
+        public int channel;
+        public int bus;
+        public float gain;
+        public Route() {}
+        public static class ByValue extends Route implements Structure.ByValue {}
+        @Override protected List getFieldOrder() { return Arrays.asList("output", "channel", "bus", "gain"); }
+    }
+
+    public static class Routing extends Structure {
+        public Pointer routes;
+        public int count;
+        public int inputs;
+        public int outputs;
+        public Routing() {}
+        @Override protected List getFieldOrder() { return Arrays.asList("routes", "count", "inputs", "outputs"); }
     }
 
     public static class AggregateDeviceParams extends Structure {
@@ -36,8 +57,9 @@ interface NativeStructs {
         public int count;
         public XtMix mix;
         public Pointer master;
+        public boolean driftCompensation;
         public AggregateStreamParams() {}
-        @Override protected List getFieldOrder() { return Arrays.asList("stream", "devices", "count", "mix", "master"); }
+        @Override protected List getFieldOrder() { return Arrays.asList("stream", "devices", "count", "mix", "master", "driftCompensation"); }
     }
 
     public static class StreamParams extends Structure {
@@ -45,7 +67,8 @@ interface NativeStructs {
         public OnBuffer onBuffer;
         public OnXRun onXRun;
         public OnRunning onRunning;
+        public int decouple;
         public StreamParams() {}
-        @Override protected List getFieldOrder() { return Arrays.asList("interleaved", "onBuffer", "onXRun", "onRunning"); }
+        @Override protected List getFieldOrder() { return Arrays.asList("interleaved", "onBuffer", "onXRun", "onRunning", "decouple"); }
     }
 }
\ No newline at end of file
@@ -0,0 +1,180 @@
+package xt.audio;
+
+import com.sun.jna.Pointer;
+
+// One final class per sample type and layout so every copy is a
+// statically bound, monomorphic Pointer.read/write on a typed array.
+interface SafeBuffers {
+
+    final class ByteInterleaved extends XtSafeBuffer<byte[]> {
+        private final byte[] _input;
+        private final byte[] _output;
+        @Override public byte[] getInput() { return _input; }
+        @Override public byte[] getOutput() { return _output; }
+        @Override void fromNative(Pointer source, int frames) { source.read(0, _input, 0, frames * _inputs * _count); }
+        @Override void toNative(Pointer dest, int frames) { dest.write(0, _output, 0, frames * _outputs * _count); }
+        ByteInterleaved(XtStream stream, int inputs, int outputs, int count, int elems) {
+            super(stream, inputs, outputs, count);
+            _input = new byte[inputs * elems];
+            _output = new byte[outputs * elems];
+        }
+    }
+
+    final class ByteChannels extends XtSafeBuffer<byte[][]> {
+        private final byte[][] _input;
+        private final byte[][] _output;
+        @Override public byte[][] getInput() { return _input; }
+        @Override public byte[][] getOutput() { return _output; }
+        ByteChannels(XtStream stream, int inputs, int outputs, int count, int elems) {
+            super(stream, inputs, outputs, count);
+            _input = new byte[inputs][elems];
+            _output = new byte[outputs][elems];
+        }
+        @Override void fromNative(Pointer source, int frames) {
+            int elems = frames * _count;
+            for(int i = 0; i < _inputs; i++) channel(source, i).read(0, _input[i], 0, elems);
+        }
+        @Override void toNative(Pointer dest, int frames) {
+            int elems = frames * _count;
+            for(int i = 0; i < _outputs; i++) channel(dest, i).write(0, _output[i], 0, elems);
+        }
+    }
+
+    final class ShortInterleaved extends XtSafeBuffer<short[]> {
+        private final short[] _input;
+        private final short[] _output;
+        @Override public short[] getInput() { return _input; }
+        @Override public short[] getOutput() { return _output; }
+        @Override void fromNative(Pointer source, int frames) { source.read(0, _input, 0, frames * _inputs * _count); }
+        @Override void toNative(Pointer dest, int frames) { dest.write(0, _output, 0, frames * _outputs * _count); }
+        ShortInterleaved(XtStream stream, int inputs, int outputs, int count, int elems) {
+            super(stream, inputs, outputs, count);
+            _input = new short[inputs * elems];
+            _output = new short[outputs * elems];
+        }
+    }
+
+    final class ShortChannels extends XtSafeBuffer<short[][]> {
+        private final short[][] _input;
+        private final short[][] _output;
+        @Override public short[][] getInput() { return _input; }
+        @Override public short[][] getOutput() { return _output; }
+        ShortChannels(XtStream stream, int inputs, int outputs, int count, int elems) {
+            super(stream, inputs, outputs, count);
+            _input = new short[inputs][elems];
+            _output = new short[outputs][elems];
+        }
+        @Override void fromNative(Pointer source, int frames) {
+            int elems = frames * _count;
+            for(int i = 0; i < _inputs; i++) channel(source, i).read(0, _input[i], 0, elems);
+        }
+        @Override void toNative(Pointer dest, int frames) {
+            int elems = frames * _count;
+            for(int i = 0; i < _outputs; i++) channel(dest, i).write(0, _output[i], 0, elems);
+        }
+    }
+
+    final class IntInterleaved extends XtSafeBuffer<int[]> {
+        private final int[] _input;
+        private final int[] _output;
+        @Override public int[] getInput() { return _input; }
+        @Override public int[] getOutput() { return _output; }
+        @Override void fromNative(Pointer source, int frames) { source.read(0, _input, 0, frames * _inputs * _count); }
+        @Override void toNative(Pointer dest, int frames) { dest.write(0, _output, 0, frames * _outputs * _count); }
+        IntInterleaved(XtStream stream, int inputs, int outputs, int count, int elems) {
+            super(stream, inputs, outputs, count);
+            _input = new int[inputs * elems];
+            _output = new int[outputs * elems];
+        }
+    }
+
+    final class IntChannels extends XtSafeBuffer<int[][]> {
+        private final int[][] _input;
+        private final int[][] _output;
+        @Override public int[][] getInput() { return _input; }
+        @Override public int[][] getOutput() { return _output; }
+        IntChannels(XtStream stream, int inputs, int outputs, int count, int elems) {
+            super(stream, inputs, outputs, count);
+            _input = new int[inputs][elems];
+            _output = new int[outputs][elems];
+        }
+        @Override void fromNative(Pointer source, int frames) {
+            int elems = frames * _count;
+            for(int i = 0; i < _inputs; i++) channel(source, i).read(0, _input[i], 0, elems);
+        }
+        @Override void toNative(Pointer dest, int frames) {
+            int elems = frames * _count;
+            for(int i = 0; i < _outputs; i++) channel(dest, i).write(0, _output[i], 0, elems);
+        }
+    }
+
+    final class FloatInterleaved extends XtSafeBuffer<float[]> {
+        private final float[] _input;
+        private final float[] _output;
+        @Override public float[] getInput() { return _input; }
+        @Override public float[] getOutput() { return _output; }
+        @Override void fromNative(Pointer source, int frames) { source.read(0, _input, 0, frames * _inputs * _count); }
+        @Override void toNative(Pointer dest, int frames) { dest.write(0, _output, 0, frames * _outputs * _count); }
+        FloatInterleaved(XtStream stream, int inputs, int outputs, int count, int elems) {
+            super(stream, inputs, outputs, count);
+            _input = new float[inputs * elems];
+            _output = new float[outputs * elems];
+        }
+    }
+
+    final class FloatChannels extends XtSafeBuffer<float[][]> {
+        private final float[][] _input;
+        private final float[][] _output;
+        @Override public float[][] getInput() { return _input; }
+        @Override public float[][] getOutput() { return _output; }
+        FloatChannels(XtStream stream, int inputs, int outputs, int count, int elems) {
+            super(stream, inputs, outputs, count);
+            _input = new float[inputs][elems];
+            _output = new float[outputs][elems];
+        }
+        @Override void fromNative(Pointer source, int frames) {
+            int elems = frames * _count;
+            for(int i = 0; i < _inputs; i++) channel(source, i).read(0, _input[i], 0, elems);
+        }
+        @Override void toNative(Pointer dest, int frames) {
+            int elems = frames * _count;
+            for(int i = 0; i < _outputs; i++) channel(dest, i).write(0, _output[i], 0, elems);
+        }
+    }
+
+    final class FloatViewInterleaved extends XtSafeBuffer<float[]> {
+        private final float[] _input;
+        private final float[] _output;
+        private final XtConverter _inputConverter;
+        private final XtConverter _outputConverter;
+        @Override public float[] getInput() { return _input; }
+        @Override public float[] getOutput() { return _output; }
+        @Override void fromNative(Pointer source, int frames) { _inputConverter.toFloat(source, frames, _input); }
+        @Override void toNative(Pointer dest, int frames) { _outputConverter.fromFloat(_output, frames, dest); }
+        FloatViewInterleaved(XtStream stream, XtConverter input, XtConverter output, int frames) {
+            super(stream, input.getChannels(), output.getChannels(), 1);
+            _inputConverter = input;
+            _outputConverter = output;
+            _input = new float[_inputs * frames];
+            _output = new float[_outputs * frames];
+        }
+    }
+
+    final class FloatViewChannels extends XtSafeBuffer<float[][]> {
+        private final float[][] _input;
+        private final float[][] _output;
+        private final XtConverter _inputConverter;
+        private final XtConverter _outputConverter;
+        @Override public float[][] getInput() { return _input; }
+        @Override public float[][] getOutput() { return _output; }
+        @Override void fromNative(Pointer source, int frames) { _inputConverter.toFloat(source, frames, _input); }
+        @Override void toNative(Pointer dest, int frames) { _outputConverter.fromFloat(_output, frames, dest); }
+        FloatViewChannels(XtStream stream, XtConverter input, XtConverter output, int frames) {
+            super(stream, input.getChannels(), output.getChannels(), 1);
+            _inputConverter = input;
+            _outputConverter = output;
+            _input = new float[_inputs][frames];
+            _output = new float[_outputs][frames];
+        }
+    }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package xt.audio;
 
+import com.sun.jna.Native;
 import com.sun.jna.Pointer;
 import com.sun.jna.Structure;
 import com.sun.jna.TypeMapper;
@@ -30,10 +31,28 @@ public interface Structs {
         public XtOnBuffer onBuffer;
         public XtOnXRun onXRun;
         public XtOnRunning onRunning;
+        public XtThreadParams thread;
+        public int decouple;
         public XtStreamParams() {}
         public XtStreamParams(boolean interleaved, XtOnBuffer onBuffer, XtOnXRun onXRun, XtOnRunning onRunning) {
             this.interleaved = interleaved; this.onBuffer = onBuffer; this.onXRun = onXRun; this.onRunning = onRunning;
         }
+        public XtStreamParams(boolean interleaved, XtOnBuffer onBuffer, XtOnXRun onXRun, XtOnRunning onRunning, XtThreadParams thread) {
+            this(interleaved, onBuffer, onXRun, onRunning); this.thread = thread;
+        }
+    }
+
+    // How native audio threads are attached to the JVM on their first
+    // callback. Without it every callback attaches and detaches again.
+    public static class XtThreadParams {
+        public String name;
+        public boolean daemon;
+        public boolean detach;
+        public ThreadGroup group;
+        public XtThreadParams() {}
+        public XtThreadParams(String name, boolean daemon, boolean detach, ThreadGroup group) {
+            this.name = name; this.daemon = daemon; this.detach = detach; this.group = group;
+        }
     }
 
     public static class XtVersion extends Structure {
@@ -62,9 +81,38 @@ public interface Structs {
         public XtStreamParams stream;
         public XtFormat format;
         public double bufferSize;
+        public boolean adaptive;
+        public XtRouting routing;
         public XtDeviceStreamParams() {}
         public XtDeviceStreamParams(XtStreamParams stream, XtFormat format, double bufferSize) {
-            this.stream = stream; this.format = format; this.bufferSize = bufferSize;
+            this(stream, format, bufferSize, false);
+        }
+        public XtDeviceStreamParams(XtStreamParams stream, XtFormat format, double bufferSize, boolean adaptive) {
+            this.stream = stream; this.format = format; this.bufferSize = bufferSize; this.adaptive = adaptive;
+        }
+        public XtDeviceStreamParams(XtStreamParams stream, XtFormat format, double bufferSize, boolean adaptive, XtRouting routing) {
+            this(stream, format, bufferSize, adaptive); this.routing = routing;
+        }
+    }
+
+    public static class XtRoute {
+        public boolean output;
+        public int channel;
+        public int bus;
+        public float gain;
+        public XtRoute() {}
+        public XtRoute(boolean output, int channel, int bus, float gain) {
+            this.output = output; this.channel = channel; this.bus = bus; this.gain = gain;
+        }
+    }
+
+    public static class XtRouting {
+        public XtRoute[] routes;
+        public int inputs;
+        public int outputs;
+        public XtRouting() {}
+        public XtRouting(XtRoute[] routes, int inputs, int outputs) {
+            this.routes = routes; this.inputs = inputs; this.outputs = outputs;
         }
     }
 
@@ -93,6 +141,9 @@ public interface Structs {
         public XtFormat(XtMix mix, XtChannels channels) { this.mix = mix; this.channels = channels; }
     }
 
+    // The buffer passed to onBuffer is reused across callbacks, and so are
+    // its input and output Pointers: both are only valid for the duration
+    // of the callback. Copy the fields or Pointer.nativeValue to keep them.
     public static class XtBuffer extends Structure {
         public Pointer input;
         public Pointer output;
@@ -104,6 +155,37 @@ public interface Structs {
         @Override protected List getFieldOrder() {
             return Arrays.asList("input", "output", "time", "position", "frames", "timeValid");
         }
+
+        private static final XtBuffer LAYOUT = new XtBuffer();
+        private static final int INPUT = LAYOUT.fieldOffset("input");
+        private static final int OUTPUT = LAYOUT.fieldOffset("output");
+        private static final int TIME = LAYOUT.fieldOffset("time");
+        private static final int POSITION = LAYOUT.fieldOffset("position");
+        private static final int FRAMES = LAYOUT.fieldOffset("frames");
+        private static final int TIME_VALID = LAYOUT.fieldOffset("timeValid");
+
+        private final Pointer _input = new Pointer(0);
+        private final Pointer _output = new Pointer(0);
+
+        static long readAddress(Pointer p, long offset) {
+            return Native.POINTER_SIZE == 8? p.getLong(offset): p.getInt(offset) & 0xFFFFFFFFL;
+        }
+
+        // Flyweight read, no reflection and no allocation. Input/output
+        // point into the reusable _input/_output instances, so callers
+        // must not hold on to them beyond the current callback.
+        void readFast(Pointer p) {
+            long input = readAddress(p, INPUT);
+            long output = readAddress(p, OUTPUT);
+            Pointer.nativeValue(_input, input);
+            Pointer.nativeValue(_output, output);
+            this.input = input == 0? null: _input;
+            this.output = output == 0? null: _output;
+            this.time = p.getDouble(TIME);
+            this.position = p.getLong(POSITION);
+            this.frames = p.getInt(FRAMES);
+            this.timeValid = p.getInt(TIME_VALID) != 0;
+        }
     }
 
     public static class XtServiceError extends Structure {
@@ -151,9 +233,13 @@ public interface Structs {
         public int count;
         public XtMix mix;
         public XtDevice master;
+        public boolean driftCompensation;
         public XtAggregateStreamParams() {}
         public XtAggregateStreamParams(XtStreamParams stream, XtAggregateDeviceParams[] devices, int count, XtMix mix, XtDevice master) {
-            this.stream = stream; this.devices = devices; this.count = count; this.mix = mix; this.master = master;
+            this(stream, devices, count, mix, master, false);
+        }
+        public XtAggregateStreamParams(XtStreamParams stream, XtAggregateDeviceParams[] devices, int count, XtMix mix, XtDevice master, boolean driftCompensation) {
+            this.stream = stream; this.devices = devices; this.count = count; this.mix = mix; this.master = master; this.driftCompensation = driftCompensation;
         }
     }
 }
\ No newline at end of file
@@ -63,4 +63,5 @@ class Utility {
     static native String XtPrintLocation(XtLocation location);
     static void handleError(long error) { if(error != 0) throw new XtException(error); }
     static <T> T handleError(long error, T result) { if(error != 0) throw new XtException(error); return result; }
+    static long threadId() { return Thread.currentThread().getId(); }
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package xt.audio;
+
+import xt.audio.Enums.XtSample;
+import xt.audio.Structs.XtAttributes;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+// WAV/RF64 header of a fixed DATA_OFFSET bytes, so sample data is page
+// aligned and the header can be rewritten in place as the file grows.
+// A JUNK chunk reserves room for the ds64 chunk, it is converted once
+// the RIFF size no longer fits 32 bits.
+final class Wave {
+
+    static final int DATA_OFFSET = 4096;
+    static final int FORMAT_PCM = 1;
+    static final int FORMAT_FLOAT = 3;
+    static final int FORMAT_EXTENSIBLE = 0xFFFE;
+    static final long MAX_RIFF_SIZE = 0xFFFFFFFFL;
+
+    private static final int RIFF_SIZE = 4;
+    private static final int DS64 = 12;
+    private static final int DS64_RIFF_SIZE = 20;
+    private static final int DS64_DATA_SIZE = 28;
+    private static final int DS64_SAMPLE_COUNT = 36;
+    private static final int FMT = 48;
+    private static final int DATA_SIZE = DATA_OFFSET - 4;
+
+    static final class Info {
+        int rate;
+        int channels;
+        long offset;
+        long bytes;
+        XtSample sample;
+    }
+
+    private Wave() { }
+
+    // Walks the chunks of a WAV or RF64 file. A data size that runs past
+    // the end of the file (unfinished recording) is cut to what's there.
+    static Info parse(FileChannel channel) throws IOException {
+        var chunk = ByteBuffer.allocate(40).order(ByteOrder.LITTLE_ENDIAN);
+        read(channel, chunk, 0, 12);
+        String riff = id(chunk, 0);
+        if(!riff.equals("RIFF") && !riff.equals("RF64") || !id(chunk, 8).equals("WAVE"))
+            throw new IOException("Not a WAV file.");
+        long ds64DataSize = -1;
+        Info result = null;
+        long position = 12;
+        while(true) {
+            read(channel, chunk, position, 8);
+            String id = id(chunk, 0);
+            long size = chunk.getInt(4) & 0xFFFFFFFFL;
+            if(id.equals("ds64")) {
+                read(channel, chunk, position + 8, 16);
+                ds64DataSize = chunk.getLong(8);
+            } else if(id.equals("fmt ")) {
+                read(channel, chunk, position + 8, (int)Math.min(size, 40));
+                result = format(chunk, (int)size);
+            } else if(id.equals("data")) {
+                if(result == null) throw new IOException("Missing fmt chunk.");
+                result.offset = position + 8;
+                result.bytes = size == MAX_RIFF_SIZE && ds64DataSize >= 0? ds64DataSize: size;
+                result.bytes = Math.min(result.bytes, channel.size() - result.offset);
+                return result;
+            }
+            position += 8 + size + (size & 1);
+        }
+    }
+
+    private static Info format(ByteBuffer chunk, int size) throws IOException {
+        int tag = chunk.getShort(0) & 0xFFFF;
+        if(tag == FORMAT_EXTENSIBLE && size >= 40) tag = chunk.getShort(24) & 0xFFFF;
+        int bits = chunk.getShort(14);
+        var result = new Info();
+        result.channels = chunk.getShort(2);
+        result.rate = chunk.getInt(4);
+        if(tag == FORMAT_FLOAT && bits == 32) result.sample = XtSample.FLOAT32;
+        else if(tag == FORMAT_PCM && bits == 8) result.sample = XtSample.UINT8;
+        else if(tag == FORMAT_PCM && bits == 16) result.sample = XtSample.INT16;
+        else if(tag == FORMAT_PCM && bits == 24) result.sample = XtSample.INT24;
+        else if(tag == FORMAT_PCM && bits == 32) result.sample = XtSample.INT32;
+        else throw new IOException("Unsupported WAV format " + tag + "/" + bits + ".");
+        if(result.channels <= 0 || result.rate <= 0) throw new IOException("Invalid WAV format.");
+        return result;
+    }
+
+    private static void read(FileChannel channel, ByteBuffer buffer, long position, int bytes) throws IOException {
+        buffer.clear().limit(bytes);
+        while(buffer.hasRemaining())
+            if(channel.read(buffer, position + buffer.position()) < 0) throw new EOFException();
+    }
+
+    private static String id(ByteBuffer buffer, int position) {
+        byte[] bytes = new byte[4];
+        for(int i = 0; i < 4; i++) bytes[i] = buffer.get(position + i);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    static ByteBuffer header(XtSample sample, int channels, int rate, long mask) {
+        XtAttributes attrs = XtAudio.getSampleAttributes(sample);
+        int bits = attrs.size * 8;
+        int blockAlign = attrs.size * channels;
+        boolean extensible = channels > 2 || bits > 16;
+        int tag = attrs.isFloat? FORMAT_FLOAT: FORMAT_PCM;
+        var result = ByteBuffer.allocate(DATA_OFFSET).order(ByteOrder.LITTLE_ENDIAN);
+        put(result, 0, "RIFF");
+        result.putInt(RIFF_SIZE, DATA_OFFSET - 8);
+        put(result, 8, "WAVE");
+        put(result, DS64, "JUNK");
+        result.putInt(DS64 + 4, 28);
+        put(result, FMT, "fmt ");
+        result.putInt(FMT + 4, extensible? 40: 16);
+        result.putShort(FMT + 8, (short)(extensible? FORMAT_EXTENSIBLE: tag));
+        result.putShort(FMT + 10, (short)channels);
+        result.putInt(FMT + 12, rate);
+        result.putInt(FMT + 16, rate * blockAlign);
+        result.putShort(FMT + 20, (short)blockAlign);
+        result.putShort(FMT + 22, (short)bits);
+        if(extensible) {
+            result.putShort(FMT + 24, (short)22);
+            result.putShort(FMT + 26, (short)bits);
+            result.putInt(FMT + 28, (int)mask);
+            result.putInt(FMT + 32, tag);
+            result.putLong(FMT + 36, 0xaa00008000100000L);
+            result.putInt(FMT + 44, 0x719b3800);
+        }
+        int junk = FMT + 8 + (extensible? 40: 16);
+        put(result, junk, "JUNK");
+        result.putInt(junk + 4, DATA_SIZE - 4 - junk - 8);
+        put(result, DATA_SIZE - 4, "data");
+        return result;
+    }
+
+    // Rewrites the size fields for the given amount of sample data,
+    // switching to RF64 when needed. Returns whether the file is RF64.
+    static boolean update(ByteBuffer header, long bytes, long frames) {
+        long riff = DATA_OFFSET - 8 + bytes;
+        if(riff <= MAX_RIFF_SIZE) {
+            header.putInt(RIFF_SIZE, (int)riff);
+            header.putInt(DATA_SIZE, (int)bytes);
+            return false;
+        }
+        put(header, 0, "RF64");
+        header.putInt(RIFF_SIZE, -1);
+        put(header, DS64, "ds64");
+        header.putLong(DS64_RIFF_SIZE, riff);
+        header.putLong(DS64_DATA_SIZE, bytes);
+        header.putLong(DS64_SAMPLE_COUNT, frames);
+        header.putInt(DS64_SAMPLE_COUNT + 8, 0);
+        header.putInt(DATA_SIZE, -1);
+        return true;
+    }
+
+    private static void put(ByteBuffer buffer, int position, String id) {
+        byte[] bytes = id.getBytes(StandardCharsets.US_ASCII);
+        for(int i = 0; i < 4; i++) buffer.put(position + i, bytes[i]);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package xt.audio;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import xt.audio.Enums.XtSample;
+import xt.audio.Structs.XtBuffer;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Pooled block of captured frames handed out by XtCapturePublisher.
+// Every onNext carries one reference which the subscriber must release,
+// retain adds one for passing the chunk on. At zero the chunk goes back
+// to the pool and must not be touched anymore. Non-interleaved chunks
+// keep one block per channel, see getData(int).
+public final class XtAudioChunk {
+
+    private static final VarHandle REFS;
+    static {
+        try {
+            REFS = MethodHandles.lookup().findVarHandle(XtAudioChunk.class, "_refs", int.class);
+        } catch(ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile int _refs;
+
+    int _frames;
+    long _position;
+    double _time;
+    boolean _timeValid;
+
+    private final int _size;
+    private final int _capacity;
+    private final int _channels;
+    private final int _frameSize;
+    private final XtSample _sample;
+    private final boolean _interleaved;
+    private final Memory _memory;
+
+    public int getFrames() { return _frames; }
+    public int getCapacity() { return _capacity; }
+    public int getChannels() { return _channels; }
+    public XtSample getSample() { return _sample; }
+    public boolean isInterleaved() { return _interleaved; }
+    public long getPosition() { return _position; }
+    public double getTime() { return _time; }
+    public boolean isTimeValid() { return _timeValid; }
+
+    XtAudioChunk(XtSample sample, int channels, int capacity, boolean interleaved) {
+        _sample = sample;
+        _channels = channels;
+        _capacity = capacity;
+        _interleaved = interleaved;
+        _size = XtAudio.getSampleAttributes(sample).size;
+        _frameSize = _size * channels;
+        _memory = new Memory((long)capacity * _frameSize);
+    }
+
+    public ByteBuffer getData() {
+        if(!_interleaved) throw new IllegalStateException();
+        return view(0, (long)_frames * _frameSize);
+    }
+
+    public ByteBuffer getData(int channel) {
+        if(_interleaved) throw new IllegalStateException();
+        return view((long)channel * _capacity * _size, (long)_frames * _size);
+    }
+
+    public void retain() { add(1); }
+    public void release() { add(-1); }
+
+    // Rejects a change on a pooled chunk before applying it.
+    private void add(int delta) {
+        int refs;
+        do {
+            refs = _refs;
+            if(refs <= 0) throw new IllegalStateException();
+        } while(!REFS.compareAndSet(this, refs, refs + delta));
+    }
+
+    int refs() { return _refs; }
+    boolean acquire() { return REFS.compareAndSet(this, 0, 1); }
+
+    void reset(XtBuffer buffer) {
+        _frames = 0;
+        _time = buffer.time;
+        _position = buffer.position;
+        _timeValid = buffer.timeValid;
+    }
+
+    void reset(XtAudioChunk chunk) {
+        _frames = 0;
+        _time = chunk._time;
+        _position = chunk._position;
+        _timeValid = chunk._timeValid;
+    }
+
+    // Appends frames from a native XtBuffer input, src and dst are scratch.
+    void append(Pointer input, int frames, Pointer src, Pointer dst) {
+        long base = Pointer.nativeValue(_memory);
+        if(_interleaved) copy(dst, base + (long)_frames * _frameSize, src, Pointer.nativeValue(input), (long)frames * _frameSize);
+        else for(int c = 0; c < _channels; c++) {
+            long from = XtBuffer.readAddress(input, (long)c * Native.POINTER_SIZE);
+            copy(dst, base + ((long)c * _capacity + _frames) * _size, src, from, (long)frames * _size);
+        }
+        _frames += frames;
+    }
+
+    void append(XtAudioChunk chunk, Pointer src, Pointer dst) {
+        long base = Pointer.nativeValue(_memory);
+        long from = Pointer.nativeValue(chunk._memory);
+        if(_interleaved) copy(dst, base + (long)_frames * _frameSize, src, from, (long)chunk._frames * _frameSize);
+        else for(int c = 0; c < _channels; c++) {
+            long to = base + ((long)c * _capacity + _frames) * _size;
+            copy(dst, to, src, from + (long)c * chunk._capacity * _size, (long)chunk._frames * _size);
+        }
+        _frames += chunk._frames;
+    }
+
+    private ByteBuffer view(long offset, long bytes) {
+        return _memory.getByteBuffer(offset, bytes).asReadOnlyBuffer().order(ByteOrder.nativeOrder());
+    }
+
+    private static void copy(Pointer dst, long to, Pointer src, long from, long bytes) {
+        if(bytes == 0) return;
+        Pointer.nativeValue(dst, to);
+        Pointer.nativeValue(src, from);
+        LibC.memcpy(dst, src, bytes);
+    }
+}
\ No newline at end of file
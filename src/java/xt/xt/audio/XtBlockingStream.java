@@ -0,0 +1,211 @@
+package xt.audio;
+
+import com.sun.jna.Memory;
+import xt.audio.Structs.XtBuffer;
+import xt.audio.Structs.XtDeviceStreamParams;
+import xt.audio.Structs.XtFormat;
+import xt.audio.Structs.XtStreamParams;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
+
+// Blocking read/write over the callback model. The stream is opened
+// interleaved and its callback only copies between the device buffer and
+// an XtRingBuffer per direction, conversion from/to float happens on the
+// calling thread. Rings hold the device buffer plus extraLatency
+// milliseconds. A blocked reader or writer parks and the callback unparks
+// it only once its request fits. Once the stream is no longer running,
+// read and write transfer what they can without blocking and return the
+// partial count, so output can be primed before start.
+public final class XtBlockingStream implements AutoCloseable {
+
+    private XtStream _stream;
+    private int _frames;
+    private XtRingBuffer _input;
+    private XtRingBuffer _output;
+    private Memory _readMemory;
+    private Memory _writeMemory;
+    private XtConverter _readConverter;
+    private XtConverter _writeConverter;
+    private final XtBuffer _readBuffer = new XtBuffer();
+    private final XtBuffer _writeBuffer = new XtBuffer();
+
+    private volatile long _error;
+    private volatile long _xruns;
+    private volatile boolean _running;
+    private volatile Thread _reader;
+    private volatile Thread _writer;
+    private volatile int _readNeed;
+    private volatile int _writeNeed;
+
+    public XtStream getStream() { return _stream; }
+    public long getXRuns() { return _xruns; }
+    public int getFrames() { return _frames; }
+    public long getOverruns() { return _input == null? 0: _input.getOverruns(); }
+    public long getUnderruns() { return _output == null? 0: _output.getUnderruns(); }
+    public int available() { return _input == null? 0: _input.available(); }
+    public int free() { return _output == null? 0: _output.free(); }
+
+    public XtBlockingStream(XtDevice device, XtFormat format, double bufferSize, double extraLatency) {
+        var params = new XtStreamParams(true, (s, b, u) -> onBuffer(b), this::onXRun, this::onRunning);
+        _stream = device.openStream(new XtDeviceStreamParams(params, format, bufferSize), null);
+        try {
+            init(_stream.getFormat(), _stream.getFrames(), extraLatency);
+        } catch(RuntimeException e) {
+            _stream.close();
+            throw e;
+        }
+    }
+
+    // Detached from any device, the caller drives onBuffer and start,
+    // stop and close only change the running state.
+    XtBlockingStream(XtFormat format, int frames, double extraLatency) {
+        init(format, frames, extraLatency);
+        _running = true;
+    }
+
+    private void init(XtFormat format, int frames, double extraLatency) {
+        _frames = frames;
+        int extra = (int)Math.ceil(format.mix.rate * extraLatency / 1000.0);
+        int size = XtAudio.getSampleAttributes(format.mix.sample).size;
+        if(format.channels.inputs > 0) {
+            _input = new XtRingBuffer(format.mix.sample, format.channels.inputs, frames + extra, true);
+            _readMemory = new Memory((long)frames * format.channels.inputs * size);
+            _readConverter = new XtConverter(format.mix.sample, format.channels.inputs, frames, true);
+            _readBuffer.output = _readMemory;
+        }
+        if(format.channels.outputs > 0) {
+            _output = new XtRingBuffer(format.mix.sample, format.channels.outputs, frames + extra, true);
+            _writeMemory = new Memory((long)frames * format.channels.outputs * size);
+            _writeConverter = new XtConverter(format.mix.sample, format.channels.outputs, frames, true);
+            _writeBuffer.input = _writeMemory;
+        }
+    }
+
+    public void start() {
+        _running = true;
+        try {
+            if(_stream != null) _stream.start();
+        } catch(RuntimeException e) {
+            halt();
+            throw e;
+        }
+    }
+
+    public void stop() {
+        if(_stream != null) _stream.stop();
+        halt();
+    }
+
+    @Override
+    public void close() {
+        if(_stream != null) _stream.close();
+        halt();
+    }
+
+    public int read(float[] dest, int frames) throws InterruptedException {
+        return read(dest, 0, frames);
+    }
+
+    // Blocks until all frames are read or the stream stops, offset is in
+    // frames. Returns the number of frames read.
+    public int read(float[] dest, int offset, int frames) throws InterruptedException {
+        if(_input == null) throw new IllegalStateException();
+        int done = 0;
+        while(done < frames) {
+            int count = Math.min(frames - done, _frames);
+            if(!awaitInput(count)) count = Math.min(count, _input.available());
+            if(count == 0) break;
+            _readBuffer.frames = count;
+            _input.read(_readBuffer);
+            _readConverter.toFloat(_readMemory, count, dest, offset + done);
+            done += count;
+        }
+        if(done == 0 && _error != 0) throw new XtException(_error);
+        return done;
+    }
+
+    public int write(float[] source, int frames) throws InterruptedException {
+        return write(source, 0, frames);
+    }
+
+    // Blocks until all frames are written or the stream stops, offset is
+    // in frames. Returns the number of frames written.
+    public int write(float[] source, int offset, int frames) throws InterruptedException {
+        if(_output == null) throw new IllegalStateException();
+        int done = 0;
+        while(done < frames) {
+            int count = Math.min(frames - done, _frames);
+            if(!awaitOutput(count)) count = Math.min(count, _output.free());
+            if(count == 0) break;
+            _writeConverter.fromFloat(source, offset + done, count, _writeMemory);
+            _writeBuffer.frames = count;
+            _output.write(_writeBuffer);
+            done += count;
+        }
+        if(done == 0 && _error != 0) throw new XtException(_error);
+        return done;
+    }
+
+    // The fences here and in await* order each ring publish before the
+    // waiter load and each waiter store before the ring recheck, so either
+    // the callback sees the waiter or the waiter sees the frames.
+    int onBuffer(XtBuffer buffer) {
+        if(_input != null) _input.write(buffer);
+        if(_output != null) _output.read(buffer);
+        VarHandle.fullFence();
+        if(_input != null) wake(_reader, _input.available() >= _readNeed);
+        if(_output != null) wake(_writer, _output.free() >= _writeNeed);
+        return 0;
+    }
+
+    private void onXRun(XtStream stream, int index, Object user) {
+        _xruns = _xruns + 1;
+    }
+
+    private void onRunning(XtStream stream, boolean running, long error, Object user) {
+        _error = error;
+        if(!running) halt();
+    }
+
+    private void halt() {
+        _running = false;
+        wake(_reader, true);
+        wake(_writer, true);
+    }
+
+    private static void wake(Thread thread, boolean ready) {
+        if(thread != null && ready) LockSupport.unpark(thread);
+    }
+
+    private boolean awaitInput(int frames) throws InterruptedException {
+        _readNeed = frames;
+        _reader = Thread.currentThread();
+        VarHandle.fullFence();
+        try {
+            while(_input.available() < frames) {
+                if(!_running) return false;
+                LockSupport.park(this);
+                if(Thread.interrupted()) throw new InterruptedException();
+            }
+            return true;
+        } finally {
+            _reader = null;
+        }
+    }
+
+    private boolean awaitOutput(int frames) throws InterruptedException {
+        _writeNeed = frames;
+        _writer = Thread.currentThread();
+        VarHandle.fullFence();
+        try {
+            while(_output.free() < frames) {
+                if(!_running) return false;
+                LockSupport.park(this);
+                if(Thread.interrupted()) throw new InterruptedException();
+            }
+            return true;
+        } finally {
+            _writer = null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,278 @@
+package xt.audio;
+
+import com.sun.jna.Pointer;
+import xt.audio.Structs.XtBuffer;
+import xt.audio.Structs.XtFormat;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.LockSupport;
+
+// Publishes a capture stream as pooled XtAudioChunks. The callback only
+// calls write(XtBuffer): it claims a free chunk, copies the buffer into it
+// and hands the chunk index to a dispatcher thread over a single-producer/
+// single-consumer queue. When the pool is exhausted the buffer is dropped.
+// The dispatcher delivers each chunk to every subscriber with outstanding
+// demand. Subscribers without demand skip the chunk under DROP, under
+// COALESCE their undelivered chunks are merged into one of up to
+// chunkFrames frames that is delivered on the next request. onNext is
+// called on the dispatcher thread and should return quickly.
+public final class XtCapturePublisher implements Flow.Publisher<XtAudioChunk>, AutoCloseable {
+
+    public enum XtBackpressure { DROP, COALESCE }
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+    private static final VarHandle DEMAND;
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(XtCapturePublisher.class, "_head", long.class);
+            TAIL = lookup.findVarHandle(XtCapturePublisher.class, "_tail", long.class);
+            DEMAND = lookup.findVarHandle(Subscription.class, "_demand", long.class);
+        } catch(ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final class Subscription implements Flow.Subscription {
+        volatile long _demand;
+        volatile boolean _cancelled;
+        volatile Throwable _error;
+        XtAudioChunk _pending;
+        final XtCapturePublisher _publisher;
+        final Flow.Subscriber<? super XtAudioChunk> _subscriber;
+
+        Subscription(XtCapturePublisher publisher, Flow.Subscriber<? super XtAudioChunk> subscriber) {
+            _publisher = publisher;
+            _subscriber = subscriber;
+        }
+
+        @Override public void cancel() {
+            _cancelled = true;
+            LockSupport.unpark(_publisher._thread);
+        }
+
+        @Override public void request(long n) {
+            if(n <= 0) _error = new IllegalArgumentException("Request must be positive.");
+            else {
+                long demand;
+                do demand = _demand;
+                while(!DEMAND.compareAndSet(this, demand, demand + n < 0? Long.MAX_VALUE: demand + n));
+            }
+            LockSupport.unpark(_publisher._thread);
+        }
+
+        boolean take() {
+            long demand;
+            do {
+                demand = _demand;
+                if(demand == 0) return false;
+                if(demand == Long.MAX_VALUE) return true;
+            } while(!DEMAND.compareAndSet(this, demand, demand - 1));
+            return true;
+        }
+    }
+
+    private long _head;
+    private long _tail;
+    private int _cursor;
+    private volatile long _dropped;
+    private volatile long _skipped;
+    private volatile boolean _closing;
+    private volatile boolean _parked;
+    private volatile boolean _done;
+
+    private final int _mask;
+    private final int[] _queue;
+    private final Thread _thread;
+    private final XtAudioChunk[] _pool;
+    private final XtBackpressure _backpressure;
+    private final List<Subscription> _subscriptions = new CopyOnWriteArrayList<>();
+    private final Pointer _writeSrc = new Pointer(0);
+    private final Pointer _writeDst = new Pointer(0);
+    private final Pointer _mergeSrc = new Pointer(0);
+    private final Pointer _mergeDst = new Pointer(0);
+
+    public int getChunks() { return _pool.length; }
+    public int getChunkFrames() { return _pool[0].getCapacity(); }
+    public XtBackpressure getBackpressure() { return _backpressure; }
+    public long getDroppedFrames() { return _dropped; }
+    public long getSkippedFrames() { return _skipped; }
+
+    // Chunks hold at least one stream buffer, chunkFrames only matters
+    // for COALESCE.
+    public XtCapturePublisher(XtStream stream, int chunks, int chunkFrames, XtBackpressure backpressure) {
+        this(stream.getFormat(), stream.interleaved(), Math.max(chunkFrames, stream.getFrames()), chunks, backpressure);
+    }
+
+    XtCapturePublisher(XtFormat format, boolean interleaved, int capacity, int chunks, XtBackpressure backpressure) {
+        if(format.channels.inputs == 0 || chunks <= 0) throw new IllegalArgumentException();
+        _backpressure = Objects.requireNonNull(backpressure);
+        _pool = new XtAudioChunk[chunks];
+        for(int i = 0; i < chunks; i++)
+            _pool[i] = new XtAudioChunk(format.mix.sample, format.channels.inputs, capacity, interleaved);
+        _queue = new int[chunks == 1? 1: Integer.highestOneBit(chunks - 1) << 1];
+        _mask = _queue.length - 1;
+        _thread = new Thread(this::run, "XtCapturePublisher");
+        _thread.setDaemon(true);
+        _thread.start();
+    }
+
+    public void write(XtBuffer buffer) {
+        if(buffer.input == null || buffer.frames == 0 || _closing) return;
+        int index = acquire(_cursor);
+        if(index < 0) {
+            _dropped = _dropped + buffer.frames;
+            return;
+        }
+        _cursor = index + 1;
+        XtAudioChunk chunk = _pool[index];
+        int frames = Math.min(buffer.frames, chunk.getCapacity());
+        if(frames < buffer.frames) _dropped = _dropped + buffer.frames - frames;
+        chunk.reset(buffer);
+        chunk.append(buffer.input, frames, _writeSrc, _writeDst);
+        long tail = (long)TAIL.getOpaque(this);
+        _queue[(int)(tail & _mask)] = index;
+        TAIL.setRelease(this, tail + 1);
+        // Pairs with the fence in run: either this sees _parked or the
+        // dispatcher sees the new tail before it parks.
+        VarHandle.fullFence();
+        if(_parked) LockSupport.unpark(_thread);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super XtAudioChunk> subscriber) {
+        var subscription = new Subscription(this, Objects.requireNonNull(subscriber));
+        subscriber.onSubscribe(subscription);
+        _subscriptions.add(subscription);
+        if(_done && _subscriptions.remove(subscription)) subscriber.onComplete();
+        LockSupport.unpark(_thread);
+    }
+
+    // Delivers what is queued, then completes all subscribers.
+    @Override
+    public void close() {
+        _closing = true;
+        LockSupport.unpark(_thread);
+        boolean interrupted = false;
+        while(true) {
+            try {
+                _thread.join();
+                break;
+            } catch(InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if(interrupted) Thread.currentThread().interrupt();
+    }
+
+    private int acquire(int start) {
+        for(int i = 0; i < _pool.length; i++) {
+            int index = (start + i) % _pool.length;
+            if(_pool[index].acquire()) return index;
+        }
+        return -1;
+    }
+
+    private void run() {
+        while(true) {
+            boolean closing = _closing;
+            long head = (long)HEAD.getOpaque(this);
+            long tail = (long)TAIL.getAcquire(this);
+            for(; head != tail; head++) {
+                dispatch(_pool[_queue[(int)(head & _mask)]]);
+                HEAD.setRelease(this, head + 1);
+            }
+            for(Subscription subscription: _subscriptions) service(subscription);
+            if(closing) break;
+            _parked = true;
+            VarHandle.fullFence();
+            if((long)TAIL.getAcquire(this) == head && !_closing) LockSupport.park(this);
+            _parked = false;
+        }
+        _done = true;
+        for(Subscription subscription: _subscriptions)
+            if(_subscriptions.remove(subscription)) {
+                discard(subscription);
+                if(!subscription._cancelled) subscription._subscriber.onComplete();
+            }
+        // Chunks written while closing are recycled, not delivered.
+        long head = (long)HEAD.getOpaque(this);
+        for(long tail = (long)TAIL.getAcquire(this); head != tail; head++) {
+            _pool[_queue[(int)(head & _mask)]].release();
+            HEAD.setRelease(this, head + 1);
+        }
+    }
+
+    private void dispatch(XtAudioChunk chunk) {
+        for(Subscription subscription: _subscriptions) {
+            if(subscription._cancelled || subscription._error != null) continue;
+            if(subscription._pending == null && subscription.take()) {
+                chunk.retain();
+                next(subscription, chunk);
+            } else if(_backpressure == XtBackpressure.DROP) _skipped += chunk.getFrames();
+            else coalesce(subscription, chunk);
+        }
+        chunk.release();
+    }
+
+    private void coalesce(Subscription subscription, XtAudioChunk chunk) {
+        XtAudioChunk pending = subscription._pending;
+        if(pending == null) {
+            chunk.retain();
+            subscription._pending = chunk;
+            return;
+        }
+        if(pending.getFrames() + chunk.getFrames() > pending.getCapacity()) {
+            _skipped += chunk.getFrames();
+            return;
+        }
+        if(pending.refs() != 1) {
+            int index = acquire(0);
+            if(index < 0) {
+                _skipped += chunk.getFrames();
+                return;
+            }
+            XtAudioChunk copy = _pool[index];
+            copy.reset(pending);
+            copy.append(pending, _mergeSrc, _mergeDst);
+            pending.release();
+            subscription._pending = pending = copy;
+        }
+        pending.append(chunk, _mergeSrc, _mergeDst);
+    }
+
+    private void service(Subscription subscription) {
+        Throwable error = subscription._error;
+        if(subscription._cancelled || error != null) {
+            if(!_subscriptions.remove(subscription)) return;
+            discard(subscription);
+            if(!subscription._cancelled) subscription._subscriber.onError(error);
+            return;
+        }
+        XtAudioChunk pending = subscription._pending;
+        if(pending == null || !subscription.take()) return;
+        subscription._pending = null;
+        next(subscription, pending);
+    }
+
+    private void next(Subscription subscription, XtAudioChunk chunk) {
+        try {
+            subscription._subscriber.onNext(chunk);
+        } catch(RuntimeException e) {
+            subscription._cancelled = true;
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    private static void discard(Subscription subscription) {
+        XtAudioChunk pending = subscription._pending;
+        subscription._pending = null;
+        if(pending != null) pending.release();
+    }
+}
\ No newline at end of file
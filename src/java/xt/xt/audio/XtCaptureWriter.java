@@ -0,0 +1,159 @@
+package xt.audio;
+
+import xt.audio.Structs.XtBuffer;
+import xt.audio.Structs.XtFormat;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+// Records a capture stream to a WAV file, switching to RF64 past 4 GB.
+// The callback only calls write(XtBuffer), which copies into an XtRingBuffer.
+// A background thread drains the ring in large, page-aligned batches and
+// rewrites the header after every batch, so the file on disk is always
+// valid up to the last completed batch.
+public final class XtCaptureWriter implements AutoCloseable {
+
+    static final int PAGE_SIZE = 4096;
+    static final int BATCH_SIZE = 1 << 20;
+    static final long POLL_MILLIS = 100;
+
+    private final int _size;
+    private final int _batch;
+    private final int _inputs;
+    private final int _frameSize;
+    private final boolean _interleaved;
+    private final Thread _thread;
+    private final XtRingBuffer _ring;
+    private final ByteBuffer _header;
+    private final FileChannel _channel;
+    private final byte[][] _channels;
+    private final byte[] _staging;
+    private final ByteBuffer _stagingView;
+
+    private long _bytes;
+    private volatile long _frames;
+    private volatile long _batches;
+    private volatile long _maxFill;
+    private volatile boolean _rf64;
+    private volatile boolean _closing;
+    private volatile IOException _error;
+
+    public int getBufferFrames() { return _ring.getFrames(); }
+    public int getFill() { return _ring.available(); }
+    public long getMaxFill() { return _maxFill; }
+    public long getFramesWritten() { return _frames; }
+    public long getBatchesWritten() { return _batches; }
+    public long getDroppedFrames() { return _ring.getOverruns(); }
+    public boolean isRF64() { return _rf64; }
+
+    // The buffer should cover the worst disk stall to ride out, at least
+    // a few batches of BATCH_SIZE bytes are always allocated.
+    public XtCaptureWriter(XtStream stream, Path path, double bufferSeconds) throws IOException {
+        XtFormat format = stream.getFormat();
+        _inputs = format.channels.inputs;
+        if(_inputs == 0) throw new IllegalArgumentException();
+        _interleaved = stream.interleaved();
+        _size = XtAudio.getSampleAttributes(format.mix.sample).size;
+        _frameSize = _size * _inputs;
+        int aligned = lcm(_frameSize, PAGE_SIZE) / _frameSize;
+        _batch = Math.max(1, BATCH_SIZE / _frameSize / aligned) * aligned;
+        int frames = Math.max(_batch * 4, (int)Math.ceil(format.mix.rate * bufferSeconds));
+        _ring = new XtRingBuffer(format.mix.sample, _inputs, frames, _interleaved);
+        _channels = _interleaved? null: new byte[_inputs][_batch * _size];
+        _staging = _interleaved? null: new byte[_batch * _frameSize];
+        _stagingView = _interleaved? null: ByteBuffer.wrap(_staging);
+        _header = Wave.header(format.mix.sample, _inputs, format.mix.rate, format.channels.inMask);
+        _channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            writeHeader();
+            _channel.position(Wave.DATA_OFFSET);
+        } catch(IOException e) {
+            _channel.close();
+            throw e;
+        }
+        _thread = new Thread(this::run, "XtCaptureWriter");
+        _thread.setDaemon(true);
+        _thread.start();
+    }
+
+    public void write(XtBuffer buffer) {
+        _ring.write(buffer);
+        int fill = _ring.available();
+        if(fill > _maxFill) _maxFill = fill;
+    }
+
+    @Override
+    public void close() throws IOException {
+        _closing = true;
+        boolean interrupted = false;
+        while(true) {
+            try {
+                _thread.join();
+                break;
+            } catch(InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        _channel.close();
+        if(interrupted) Thread.currentThread().interrupt();
+        if(_error != null) throw _error;
+    }
+
+    private void run() {
+        try {
+            while(!_closing)
+                if(_ring.awaitAvailable(_batch, POLL_MILLIS, TimeUnit.MILLISECONDS))
+                    drain(_batch);
+            while(drain(_batch) > 0);
+        } catch(IOException e) {
+            _error = e;
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int drain(int max) throws IOException {
+        int frames = _interleaved? drainInterleaved(max): drainNonInterleaved(max);
+        if(frames == 0) return 0;
+        _bytes += (long)frames * _frameSize;
+        _frames = _frames + frames;
+        _batches = _batches + 1;
+        writeHeader();
+        return frames;
+    }
+
+    private int drainInterleaved(int max) throws IOException {
+        int frames = _ring.peek(max);
+        ByteBuffer[] views = _ring.views();
+        while(views[0].hasRemaining() || views[1].hasRemaining()) _channel.write(views);
+        _ring.release(frames);
+        return frames;
+    }
+
+    private int drainNonInterleaved(int max) throws IOException {
+        int frames = _ring.read(_channels, 0, max);
+        for(int c = 0; c < _inputs; c++)
+            for(int f = 0; f < frames; f++)
+                for(int b = 0; b < _size; b++)
+                    _staging[f * _frameSize + c * _size + b] = _channels[c][f * _size + b];
+        _stagingView.clear().limit(frames * _frameSize);
+        while(_stagingView.hasRemaining()) _channel.write(_stagingView);
+        return frames;
+    }
+
+    private void writeHeader() throws IOException {
+        _rf64 = Wave.update(_header, _bytes, _frames);
+        _header.clear();
+        long position = 0;
+        while(_header.hasRemaining()) position += _channel.write(_header, position);
+    }
+
+    private static int lcm(int a, int b) {
+        int x = a, y = b;
+        while(y != 0) { int t = x % y; x = y; y = t; }
+        return a / x * b;
+    }
+}
\ No newline at end of file
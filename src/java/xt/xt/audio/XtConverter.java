@@ -0,0 +1,136 @@
+package xt.audio;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import xt.audio.Enums.XtSample;
+import xt.audio.Structs.XtBuffer;
+
+// Converts between native XtBuffer pointers in any XtSample and
+// normalized float arrays, interleaving or deinterleaving on the way.
+public final class XtConverter {
+
+    private final int _channels;
+    private final XtSample _sample;
+    private final boolean _interleaved;
+    private final byte[] _bytes;
+    private final short[] _shorts;
+    private final int[] _ints;
+    private final float[] _floats;
+    private final Pointer _channel = new Pointer(0);
+
+    public XtSample getSample() { return _sample; }
+    public int getChannels() { return _channels; }
+    public boolean isInterleaved() { return _interleaved; }
+
+    public XtConverter(XtSample sample, int channels, int frames, boolean interleaved) {
+        _sample = sample;
+        _channels = channels;
+        _interleaved = interleaved;
+        int elems = interleaved? channels * frames: frames;
+        _bytes = sample == XtSample.UINT8? new byte[elems]: sample == XtSample.INT24? new byte[elems * 3]: null;
+        _shorts = sample == XtSample.INT16? new short[elems]: null;
+        _ints = sample == XtSample.INT32? new int[elems]: null;
+        _floats = sample == XtSample.FLOAT32? new float[elems]: null;
+    }
+
+    public void toFloat(Pointer source, int frames, float[] dest) {
+        toFloat(source, frames, dest, 0);
+    }
+
+    // Offset is in frames into dest.
+    void toFloat(Pointer source, int frames, float[] dest, int offset) {
+        int position = offset * _channels;
+        if(_interleaved) {
+            read(source, frames * _channels);
+            decode(0, 1, dest, position, 1, frames * _channels);
+        } else for(int c = 0; c < _channels; c++) {
+            read(channel(source, c), frames);
+            decode(0, 1, dest, position + c, _channels, frames);
+        }
+    }
+
+    public void toFloat(Pointer source, int frames, float[][] dest) {
+        if(_interleaved) {
+            read(source, frames * _channels);
+            for(int c = 0; c < _channels; c++) decode(c, _channels, dest[c], 0, 1, frames);
+        } else for(int c = 0; c < _channels; c++) {
+            read(channel(source, c), frames);
+            decode(0, 1, dest[c], 0, 1, frames);
+        }
+    }
+
+    public void fromFloat(float[] source, int frames, Pointer dest) {
+        fromFloat(source, 0, frames, dest);
+    }
+
+    // Offset is in frames into source.
+    void fromFloat(float[] source, int offset, int frames, Pointer dest) {
+        int position = offset * _channels;
+        if(_interleaved) {
+            encode(source, position, 1, 0, 1, frames * _channels);
+            write(dest, frames * _channels);
+        } else for(int c = 0; c < _channels; c++) {
+            encode(source, position + c, _channels, 0, 1, frames);
+            write(channel(dest, c), frames);
+        }
+    }
+
+    public void fromFloat(float[][] source, int frames, Pointer dest) {
+        if(_interleaved) {
+            for(int c = 0; c < _channels; c++) encode(source[c], 0, 1, c, _channels, frames);
+            write(dest, frames * _channels);
+        } else for(int c = 0; c < _channels; c++) {
+            encode(source[c], 0, 1, 0, 1, frames);
+            write(channel(dest, c), frames);
+        }
+    }
+
+    private Pointer channel(Pointer buffer, int channel) {
+        Pointer.nativeValue(_channel, XtBuffer.readAddress(buffer, (long)channel * Native.POINTER_SIZE));
+        return _channel;
+    }
+
+    private void read(Pointer source, int count) {
+        switch(_sample) {
+        case UINT8: source.read(0, _bytes, 0, count); break;
+        case INT16: source.read(0, _shorts, 0, count); break;
+        case INT24: source.read(0, _bytes, 0, count * 3); break;
+        case INT32: source.read(0, _ints, 0, count); break;
+        case FLOAT32: source.read(0, _floats, 0, count); break;
+        default: throw new IllegalArgumentException();
+        }
+    }
+
+    private void write(Pointer dest, int count) {
+        switch(_sample) {
+        case UINT8: dest.write(0, _bytes, 0, count); break;
+        case INT16: dest.write(0, _shorts, 0, count); break;
+        case INT24: dest.write(0, _bytes, 0, count * 3); break;
+        case INT32: dest.write(0, _ints, 0, count); break;
+        case FLOAT32: dest.write(0, _floats, 0, count); break;
+        default: throw new IllegalArgumentException();
+        }
+    }
+
+    private void decode(int sp, int ss, float[] d, int dp, int ds, int n) {
+        switch(_sample) {
+        case UINT8: SampleKernels.fromUInt8(_bytes, sp, ss, d, dp, ds, n); break;
+        case INT16: SampleKernels.fromInt16(_shorts, sp, ss, d, dp, ds, n); break;
+        case INT24: SampleKernels.fromInt24(_bytes, sp, ss, d, dp, ds, n); break;
+        case INT32: SampleKernels.fromInt32(_ints, sp, ss, d, dp, ds, n); break;
+        case FLOAT32: SampleKernels.copy(_floats, sp, ss, d, dp, ds, n); break;
+        default: throw new IllegalArgumentException();
+        }
+    }
+
+    private void encode(float[] s, int sp, int ss, int dp, int ds, int n) {
+        switch(_sample) {
+        case UINT8: SampleKernels.toUInt8(s, sp, ss, _bytes, dp, ds, n); break;
+        case INT16: SampleKernels.toInt16(s, sp, ss, _shorts, dp, ds, n); break;
+        case INT24: SampleKernels.toInt24(s, sp, ss, _bytes, dp, ds, n); break;
+        case INT32: SampleKernels.toInt32(s, sp, ss, _ints, dp, ds, n); break;
+        case FLOAT32: SampleKernels.copy(s, sp, ss, _floats, dp, ds, n); break;
+        default: throw new IllegalArgumentException();
+        }
+    }
+}
\ No newline at end of file
@@ -1,13 +1,19 @@
 package xt.audio;
 
+import com.sun.jna.Memory;
 import com.sun.jna.Native;
 import com.sun.jna.Pointer;
+import xt.audio.Enums.XtSample;
 import xt.audio.NativeStructs.DeviceStreamParams;
+import xt.audio.NativeStructs.Route;
+import xt.audio.NativeStructs.Routing;
 import xt.audio.NativeStructs.StreamParams;
 import xt.audio.Structs.XtBufferSize;
 import xt.audio.Structs.XtDeviceStreamParams;
 import xt.audio.Structs.XtFormat;
 import xt.audio.Structs.XtMix;
+import xt.audio.Structs.XtRoute;
+import xt.audio.Structs.XtRouting;
 import java.nio.charset.Charset;
 import java.util.Optional;
 
@@ -23,12 +29,36 @@ public final class XtDevice implements AutoCloseable {
     private static native long XtDeviceShowControlPanel(Pointer d);
     private static native long XtDeviceGetMix(Pointer d, IntByReference valid, XtMix mix);
     private static native long XtDeviceGetBufferSize(Pointer d, XtFormat format, XtBufferSize size);
+    private static native long XtDeviceQueryFormats(Pointer d, Pointer formats, int count, int[] supports, Pointer sizes);
     private static native long XtDeviceGetChannelCount(Pointer d, boolean output, IntByReference count);
     private static native long XtDeviceSupportsFormat(Pointer d, XtFormat format, IntByReference supports);
     private static native long XtDeviceSupportsAccess(Pointer d, boolean interleaved, IntByReference supports);
     private static native long XtDeviceGetChannelName(Pointer d, boolean output, int index, byte[] buffer, IntByReference size);
     private static native long XtDeviceOpenStream(Pointer d, DeviceStreamParams params, Pointer user, PointerByReference stream);
 
+    static Routing toNative(XtRouting routing) {
+        var result = new Routing();
+        if(routing == null) return result;
+        var size = Native.getNativeSize(Route.ByValue.class);
+        result.inputs = routing.inputs;
+        result.outputs = routing.outputs;
+        result.count = routing.routes.length;
+        if(result.count == 0) return result;
+        var routes = new Memory(result.count * size);
+        for(int i = 0; i < result.count; i++) {
+            var route = new Route();
+            XtRoute r = routing.routes[i];
+            route.output = r.output;
+            route.channel = r.channel;
+            route.bus = r.bus;
+            route.gain = r.gain;
+            route.write();
+            routes.write(i * size, route.getPointer().getByteArray(0, size), 0, size);
+        }
+        result.routes = routes;
+        return result;
+    }
+
     private Pointer _d;
     Pointer handle() { return _d; }
     XtDevice(Pointer d) { _d = d; }
@@ -43,6 +73,31 @@ public final class XtDevice implements AutoCloseable {
         return result;
     }
 
+    public XtFormatMatrix getFormatMatrix() {
+        return XtFormatMatrix.probe(this);
+    }
+
+    // Formats are passed as parallel arrays without channel masks, sizes
+    // receive min, max and current for each format. JNA lays out the
+    // contiguous XtFormat array, so field offsets follow the platform ABI.
+    void queryFormats(int[] rates, int[] samples, int[] inputs, int[] outputs, boolean[] supports, double[] sizes) {
+        int count = rates.length;
+        if(count == 0) return;
+        int[] nativeSupports = new int[count];
+        var nativeSizes = new Memory((long)count * 3 * Double.BYTES);
+        var nativeFormats = (XtFormat[])new XtFormat().toArray(count);
+        for(int i = 0; i < count; i++) {
+            nativeFormats[i].mix.rate = rates[i];
+            nativeFormats[i].mix.sample = XtSample.values()[samples[i]];
+            nativeFormats[i].channels.inputs = inputs[i];
+            nativeFormats[i].channels.outputs = outputs[i];
+            nativeFormats[i].write();
+        }
+        handleError(XtDeviceQueryFormats(_d, nativeFormats[0].getPointer(), count, nativeSupports, nativeSizes));
+        nativeSizes.read(0, sizes, 0, count * 3);
+        for(int i = 0; i < count; i++) supports[i] = nativeSupports[i] != 0;
+    }
+
     public int getChannelCount(boolean output) {
         var count = new IntByReference();
         handleError(XtDeviceGetChannelCount(_d, output, count));
@@ -83,9 +138,12 @@ public final class XtDevice implements AutoCloseable {
         native_.format = params.format;
         native_.stream = new StreamParams();
         native_.bufferSize = params.bufferSize;
+        native_.adaptive = params.adaptive;
+        native_.routing = toNative(params.routing);
         native_.stream.onBuffer = result.onNativeBuffer();
+        native_.stream.decouple = params.stream.decouple;
         native_.stream.interleaved = params.stream.interleaved;
-        native_.stream.onXRun = params.stream.onXRun == null? null: result.onNativeXRun();
+        native_.stream.onXRun = result.onNativeXRun();
         native_.stream.onRunning = params.stream.onRunning == null? null: result.onNativeRunning();
         handleError(XtDeviceOpenStream(_d, native_, Pointer.NULL, stream));
         result.init(stream.getValue());
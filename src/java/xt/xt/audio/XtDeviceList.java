@@ -16,6 +16,9 @@ public final class XtDeviceList implements AutoCloseable {
     private static native long XtDeviceListGetId(Pointer l, int index, byte[] buffer, IntByReference size);
     private static native long XtDeviceListGetName(Pointer l, String id, byte[] buffer, IntByReference size);
     private static native long XtDeviceListGetCapabilities(Pointer l, String id, IntByReference capabilities);
+    private static native long XtDeviceListGetSnapshot(Pointer l, byte[] buffer, IntByReference size);
+
+    static final int SNAPSHOT_SIZE = 4096;
 
     private Pointer _l;
     XtDeviceList(Pointer l) { _l = l; }
@@ -27,6 +30,16 @@ public final class XtDeviceList implements AutoCloseable {
         return count.getValue();
     }
 
+    public XtDeviceSnapshot getSnapshot() {
+        byte[] buffer = new byte[SNAPSHOT_SIZE];
+        var size = new IntByReference(buffer.length);
+        handleError(XtDeviceListGetSnapshot(_l, buffer, size));
+        if(size.getValue() <= buffer.length) return XtDeviceSnapshot.decode(buffer);
+        buffer = new byte[size.getValue()];
+        handleError(XtDeviceListGetSnapshot(_l, buffer, size));
+        return XtDeviceSnapshot.decode(buffer);
+    }
+
     public EnumSet<XtDeviceCaps> getCapabilities(String id) {
         var flags = new IntByReference();
         var result = EnumSet.noneOf(XtDeviceCaps.class);
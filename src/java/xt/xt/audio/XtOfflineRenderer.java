@@ -0,0 +1,342 @@
+package xt.audio;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import xt.audio.Enums.XtSystem;
+import xt.audio.Structs.XtBuffer;
+import xt.audio.Structs.XtDeviceStreamParams;
+import xt.audio.Structs.XtFormat;
+import xt.audio.Structs.XtStreamParams;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+// Runs a stream's callbacks back to back on a free-running Null device,
+// as fast as the callback allows. Buffers have the same format and layout
+// as on a real device. Input comes from a WAV file or a raw interleaved
+// PCM channel in the stream's format, silence past its end. Output goes
+// to a WAV file or a raw interleaved PCM channel, for example one over a
+// ByteArrayOutputStream. render must be called on the thread that
+// initialized the library.
+public final class XtOfflineRenderer implements AutoCloseable {
+
+    private final int _rate;
+    private final int _size;
+    private final int _inputs;
+    private final int _outputs;
+    private final XtFormat _format;
+    private final XtStream _stream;
+    private final XtDevice _device;
+    private final XtStreamParams _params;
+    private final int _frames;
+    private final byte[] _staging;
+    private final ByteBuffer _stagingView;
+    private final ShortBuffer _stagingShorts;
+    private final IntBuffer _stagingInts;
+    private final byte[] _bytes;
+    private final short[] _shorts;
+    private final int[] _ints;
+    private final Pointer _channel = new Pointer(0);
+
+    private long _nanos;
+    private long _inputBytes;
+    private long _outputBytes;
+    private ByteBuffer _header;
+    private long _inputAddress;
+    private long _outputAddress;
+    private ByteBuffer _inputView;
+    private ByteBuffer _outputView;
+    private ReadableByteChannel _input;
+    private WritableByteChannel _output;
+    private boolean _ownsInput;
+    private boolean _ownsOutput;
+
+    private volatile long _target;
+    private volatile long _rendered;
+    private volatile long _fault;
+    private volatile boolean _done;
+    private volatile Thread _waiter;
+    private volatile IOException _error;
+
+    public XtStream getStream() { return _stream; }
+    public long getFramesRendered() { return _rendered; }
+    public double getFramesPerSecond() { return _nanos == 0? 0.0: _rendered * 1E9 / _nanos; }
+    public double getRealtimeFactor() { return getFramesPerSecond() / _rate; }
+
+    public XtOfflineRenderer(XtPlatform platform, XtDeviceStreamParams params, Object user) {
+        XtService service = platform.getService(XtSystem.NULL);
+        if(service == null) throw new IllegalStateException("Null backend not available.");
+        _params = params.stream;
+        _format = params.format;
+        _rate = _format.mix.rate;
+        _inputs = _format.channels.inputs;
+        _outputs = _format.channels.outputs;
+        _size = XtAudio.getSampleAttributes(_format.mix.sample).size;
+        String base = _inputs == 0? "1": _outputs == 0? "0": "2";
+        String id = base + "?inputs=" + _inputs + "&outputs=" + _outputs + "&rate=" + _rate
+            + "&sample=" + _format.mix.sample.name().toLowerCase() + "&buffer=" + params.bufferSize + "&freerun=1";
+        var wrapped = new XtStreamParams(_params.interleaved, this::onBuffer, _params.onXRun, this::onRunning, _params.thread);
+        _device = service.openDevice(id);
+        try {
+            _stream = _device.openStream(new XtDeviceStreamParams(wrapped, _format, params.bufferSize), user);
+        } catch(RuntimeException e) {
+            _device.close();
+            throw e;
+        }
+        _frames = _stream.getFrames();
+        int channels = Math.max(_inputs, _outputs);
+        boolean split = !_params.interleaved;
+        _staging = split? new byte[_frames * channels * _size]: null;
+        _stagingView = split? ByteBuffer.wrap(_staging).order(ByteOrder.nativeOrder()): null;
+        _stagingShorts = split && _size == 2? _stagingView.asShortBuffer(): null;
+        _stagingInts = split && _size == 4? _stagingView.asIntBuffer(): null;
+        _bytes = split && (_size == 1 || _size == 3)? new byte[_frames * _size]: null;
+        _shorts = split && _size == 2? new short[_frames]: null;
+        _ints = split && _size == 4? new int[_frames]: null;
+    }
+
+    // The file must match the stream's rate, sample type and input count.
+    public void setInput(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            Wave.Info info = Wave.parse(channel);
+            if(info.rate != _rate || info.sample != _format.mix.sample || info.channels != _inputs)
+                throw new IOException("Input format does not match stream format.");
+            channel.position(info.offset);
+            setInput(channel, info.bytes, true);
+        } catch(IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public void setInput(ReadableByteChannel channel) throws IOException {
+        setInput(channel, Long.MAX_VALUE, false);
+    }
+
+    public void setOutput(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            setOutput(channel, true);
+            _header = Wave.header(_format.mix.sample, _outputs, _rate, _format.channels.outMask);
+            writeHeader();
+            channel.position(Wave.DATA_OFFSET);
+        } catch(IOException e) {
+            _header = null;
+            _output = null;
+            _ownsOutput = false;
+            channel.close();
+            throw e;
+        }
+    }
+
+    public void setOutput(WritableByteChannel channel) throws IOException {
+        setOutput(channel, false);
+        _header = null;
+    }
+
+    // Renders the given number of frames, the last buffer is cut short.
+    // The calling thread parks while the Null device's runner thread runs
+    // the callbacks. Returns early if the stream stops because the
+    // callback failed.
+    public long render(long frames) throws IOException {
+        if(frames <= 0) return 0;
+        long start = _rendered;
+        _fault = 0;
+        _done = false;
+        _error = null;
+        _target = start + frames;
+        _waiter = Thread.currentThread();
+        boolean interrupted = false;
+        long begin = System.nanoTime();
+        _stream.start();
+        while(!_done) {
+            LockSupport.park(this);
+            if(Thread.interrupted()) interrupted = true;
+        }
+        _stream.stop();
+        _nanos += System.nanoTime() - begin;
+        if(interrupted) Thread.currentThread().interrupt();
+        if(_header != null) writeHeader();
+        if(_error != null) throw _error;
+        if(_fault != 0) throw new XtException(_fault);
+        return _rendered - start;
+    }
+
+    @Override
+    public void close() throws IOException {
+        _stream.close();
+        _device.close();
+        try {
+            if(_header != null) writeHeader();
+        } finally {
+            try {
+                if(_ownsOutput) _output.close();
+            } finally {
+                if(_ownsInput) _input.close();
+            }
+        }
+    }
+
+    private void setInput(ReadableByteChannel channel, long bytes, boolean owns) throws IOException {
+        if(_inputs == 0) throw new IllegalStateException();
+        if(_ownsInput) _input.close();
+        _input = channel;
+        _ownsInput = owns;
+        _inputBytes = bytes;
+    }
+
+    private void setOutput(WritableByteChannel channel, boolean owns) throws IOException {
+        if(_outputs == 0) throw new IllegalStateException();
+        if(_header != null) writeHeader();
+        if(_ownsOutput) _output.close();
+        _output = channel;
+        _ownsOutput = owns;
+        _outputBytes = 0;
+    }
+
+    private int onBuffer(XtStream stream, XtBuffer buffer, Object user) throws Exception {
+        long remaining = _target - _rendered;
+        if(_done || remaining <= 0) return 0;
+        int frames = (int)Math.min(buffer.frames, remaining);
+        try {
+            if(_inputs > 0) fill(buffer.input, frames, buffer.frames);
+            int result = _params.onBuffer.callback(stream, buffer, user);
+            if(result != 0) return result;
+            if(_outputs > 0 && _output != null) drain(buffer.output, frames);
+        } catch(IOException e) {
+            _error = e;
+            finish();
+            return 0;
+        }
+        _rendered = _rendered + frames;
+        if(frames == remaining) finish();
+        return 0;
+    }
+
+    private void onRunning(XtStream stream, boolean running, long error, Object user) throws Exception {
+        if(_params.onRunning != null) _params.onRunning.callback(stream, running, error, user);
+        if(running || error == 0 || _done) return;
+        _fault = error;
+        finish();
+    }
+
+    private void finish() {
+        _done = true;
+        LockSupport.unpark(_waiter);
+    }
+
+    // Reads only the frames rendered so input stays in step with output,
+    // the rest of the buffer is silent.
+    private void fill(Pointer input, int frames, int bufferFrames) throws IOException {
+        int wanted = frames * _inputs * _size;
+        int bytes = bufferFrames * _inputs * _size;
+        if(_params.interleaved) {
+            if(Pointer.nativeValue(input) != _inputAddress) {
+                _inputAddress = Pointer.nativeValue(input);
+                _inputView = input.getByteBuffer(0, (long)_frames * _inputs * _size);
+            }
+            _inputView.clear().limit(wanted);
+            int read = _input == null? 0: read(_inputView);
+            input.setMemory(read, bytes - read, (byte)0);
+            return;
+        }
+        _stagingView.clear().limit(wanted);
+        int read = _input == null? 0: read(_stagingView);
+        Arrays.fill(_staging, read, bytes, (byte)0);
+        for(int c = 0; c < _inputs; c++) toChannel(channel(input, c), c, _inputs, bufferFrames);
+    }
+
+    private void drain(Pointer output, int frames) throws IOException {
+        int bytes = frames * _outputs * _size;
+        ByteBuffer view;
+        if(!_params.interleaved) {
+            for(int c = 0; c < _outputs; c++) fromChannel(channel(output, c), c, _outputs, frames);
+            view = _stagingView;
+        } else {
+            if(Pointer.nativeValue(output) != _outputAddress) {
+                _outputAddress = Pointer.nativeValue(output);
+                _outputView = output.getByteBuffer(0, (long)_frames * _outputs * _size);
+            }
+            view = _outputView;
+        }
+        view.clear().limit(bytes);
+        while(view.hasRemaining()) _output.write(view);
+        _outputBytes += bytes;
+    }
+
+    private Pointer channel(Pointer buffer, int channel) {
+        Pointer.nativeValue(_channel, XtBuffer.readAddress(buffer, (long)channel * Native.POINTER_SIZE));
+        return _channel;
+    }
+
+    // Gathers one channel out of the interleaved staging area a sample
+    // at a time and writes it with a single bulk copy, 24-bit samples go
+    // through bytes.
+    private void toChannel(Pointer channel, int c, int channels, int frames) {
+        switch(_size) {
+        case 1:
+            for(int f = 0; f < frames; f++) _bytes[f] = _staging[f * channels + c];
+            channel.write(0, _bytes, 0, frames);
+            break;
+        case 2:
+            for(int f = 0; f < frames; f++) _shorts[f] = _stagingShorts.get(f * channels + c);
+            channel.write(0, _shorts, 0, frames);
+            break;
+        case 4:
+            for(int f = 0; f < frames; f++) _ints[f] = _stagingInts.get(f * channels + c);
+            channel.write(0, _ints, 0, frames);
+            break;
+        default:
+            for(int f = 0; f < frames; f++)
+                System.arraycopy(_staging, (f * channels + c) * _size, _bytes, f * _size, _size);
+            channel.write(0, _bytes, 0, frames * _size);
+        }
+    }
+
+    private void fromChannel(Pointer channel, int c, int channels, int frames) {
+        switch(_size) {
+        case 1:
+            channel.read(0, _bytes, 0, frames);
+            for(int f = 0; f < frames; f++) _staging[f * channels + c] = _bytes[f];
+            break;
+        case 2:
+            channel.read(0, _shorts, 0, frames);
+            for(int f = 0; f < frames; f++) _stagingShorts.put(f * channels + c, _shorts[f]);
+            break;
+        case 4:
+            channel.read(0, _ints, 0, frames);
+            for(int f = 0; f < frames; f++) _stagingInts.put(f * channels + c, _ints[f]);
+            break;
+        default:
+            channel.read(0, _bytes, 0, frames * _size);
+            for(int f = 0; f < frames; f++)
+                System.arraycopy(_bytes, f * _size, _staging, (f * channels + c) * _size, _size);
+        }
+    }
+
+    private int read(ByteBuffer view) throws IOException {
+        view.limit((int)Math.min(view.limit(), _inputBytes));
+        while(view.hasRemaining())
+            if(_input.read(view) < 0) break;
+        _inputBytes -= view.position();
+        return view.position();
+    }
+
+    private void writeHeader() throws IOException {
+        var channel = (FileChannel)_output;
+        Wave.update(_header, _outputBytes, _outputBytes / (_outputs * _size));
+        _header.clear();
+        long position = 0;
+        while(_header.hasRemaining()) position += channel.write(_header, position);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,252 @@
+package xt.audio;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import xt.audio.Enums.XtSample;
+import xt.audio.Structs.XtBuffer;
+import xt.audio.Structs.XtFormat;
+import xt.audio.Structs.XtMix;
+import sun.misc.Unsafe;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.ref.Reference;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+// Plays WAV or raw PCM files on a render stream. Files are memory mapped
+// and a worker thread converts them to the stream's sample type, channel
+// count and layout into an XtRingBuffer, so page faults and disk reads
+// happen on the worker. The callback only calls read(XtBuffer), a bulk
+// copy out of the ring. Queued files play back to back without a gap.
+// The worker parks while the queue is empty or the ring is full, reads
+// from the ring wake it, and each window is unmapped once converted.
+public final class XtRenderSource implements AutoCloseable {
+
+    static final int CHUNK_FRAMES = 4096;
+    static final long WINDOW_SIZE = 64L << 20;
+    private static final Unsafe UNSAFE = unsafe();
+
+    private static final class Source {
+        Path path;
+        int channels;
+        long offset;
+        long frames;
+        XtSample sample;
+        FileChannel channel;
+    }
+
+    private final int _chunk;
+    private final int _outputs;
+    private final XtSample _sample;
+    private final boolean _interleaved;
+    private final int _rate;
+    private final Thread _thread;
+    private final XtRingBuffer _ring;
+    private final Queue<Source> _queue = new ConcurrentLinkedQueue<>();
+
+    private final float[] _output;
+    private final XtConverter _converter;
+    private final XtBuffer _staging = new XtBuffer();
+    private final XtBuffer _direct = new XtBuffer();
+    private final Memory _stagingMemory;
+    private final Memory[] _stagingChannels;
+
+    private volatile long _frames;
+    private volatile int _pending;
+    private volatile boolean _closing;
+    private volatile Path _current;
+    private volatile IOException _error;
+
+    public int getFill() { return _ring.available(); }
+    public int getBufferFrames() { return _ring.getFrames(); }
+    public long getUnderruns() { return _ring.getUnderruns(); }
+    public long getFramesQueued() { return _frames; }
+    public int getPending() { return _pending; }
+    public Path getCurrent() { return _current; }
+    public IOException getError() { return _error; }
+    public void read(XtBuffer buffer) { _ring.read(buffer); }
+
+    public XtRenderSource(XtStream stream, double bufferSeconds) {
+        XtFormat format = stream.getFormat();
+        _outputs = format.channels.outputs;
+        if(_outputs == 0) throw new IllegalArgumentException();
+        _rate = format.mix.rate;
+        _sample = format.mix.sample;
+        _interleaved = stream.interleaved();
+        int size = XtAudio.getSampleAttributes(_sample).size;
+        int frames = Math.max(CHUNK_FRAMES * 2, (int)Math.ceil(_rate * bufferSeconds));
+        _ring = new XtRingBuffer(_sample, _outputs, frames, _interleaved);
+        _chunk = Math.min(CHUNK_FRAMES, _ring.getFrames() / 2);
+        _output = new float[_chunk * _outputs];
+        _converter = new XtConverter(_sample, _outputs, _chunk, _interleaved);
+        if(_interleaved) {
+            _stagingChannels = null;
+            _stagingMemory = new Memory((long)_chunk * _outputs * size);
+        } else {
+            _stagingChannels = new Memory[_outputs];
+            _stagingMemory = new Memory((long)_outputs * Native.POINTER_SIZE);
+            for(int c = 0; c < _outputs; c++) {
+                _stagingChannels[c] = new Memory((long)_chunk * size);
+                _stagingMemory.setPointer((long)c * Native.POINTER_SIZE, _stagingChannels[c]);
+            }
+        }
+        _staging.input = _stagingMemory;
+        _thread = new Thread(this::run, "XtRenderSource");
+        _thread.setDaemon(true);
+        _thread.start();
+    }
+
+    public void queue(Path path) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            Wave.Info info = Wave.parse(channel);
+            queue(path, channel, info.sample, info.channels, info.rate, info.offset, info.bytes);
+        } catch(IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public void queueRaw(Path path, XtMix mix, int channels) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            queue(path, channel, mix.sample, channels, mix.rate, 0, channel.size());
+        } catch(IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        _closing = true;
+        _thread.interrupt();
+        boolean interrupted = false;
+        while(true) {
+            try {
+                _thread.join();
+                break;
+            } catch(InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        Source source;
+        while((source = _queue.poll()) != null) source.channel.close();
+        if(interrupted) Thread.currentThread().interrupt();
+    }
+
+    private void queue(Path path, FileChannel channel, XtSample sample, int channels, int rate, long offset, long bytes) {
+        if(rate != _rate) throw new IllegalArgumentException("Sample rate " + rate + " does not match stream rate " + _rate + ".");
+        var source = new Source();
+        source.path = path;
+        source.sample = sample;
+        source.offset = offset;
+        source.channel = channel;
+        source.channels = channels;
+        source.frames = bytes / ((long)channels * XtAudio.getSampleAttributes(sample).size);
+        _queue.add(source);
+        _pending = _queue.size();
+        LockSupport.unpark(_thread);
+    }
+
+    private void run() {
+        try {
+            while(!_closing) {
+                Source source = _queue.poll();
+                _pending = _queue.size();
+                if(source == null) {
+                    _current = null;
+                    LockSupport.park(this);
+                    if(Thread.interrupted()) return;
+                    continue;
+                }
+                _current = source.path;
+                try {
+                    try {
+                        play(source);
+                    } finally {
+                        source.channel.close();
+                    }
+                } catch(IOException e) {
+                    // Closing interrupts the worker, which closes the channel.
+                    if(!_closing) _error = e;
+                }
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void play(Source source) throws IOException, InterruptedException {
+        int size = XtAudio.getSampleAttributes(source.sample).size;
+        int frameSize = size * source.channels;
+        long windowFrames = Math.max(_chunk, WINDOW_SIZE / frameSize / _chunk * _chunk);
+        var input = new float[_chunk * source.channels];
+        var converter = new XtConverter(source.sample, source.channels, _chunk, true);
+        boolean same = source.sample == _sample && source.channels == _outputs && _interleaved;
+        for(long window = 0; window < source.frames && !_closing; window += windowFrames) {
+            long frames = Math.min(windowFrames, source.frames - window);
+            long position = source.offset + window * frameSize;
+            MappedByteBuffer mapped = source.channel.map(FileChannel.MapMode.READ_ONLY, position, frames * frameSize);
+            Pointer pointer = Native.getDirectBufferPointer(mapped);
+            try {
+                for(long f = 0; f < frames && !_closing; ) {
+                    int count = (int)Math.min(_chunk, frames - f);
+                    _ring.awaitFree(count, false);
+                    Pointer chunk = pointer.share(f * frameSize);
+                    if(same) write(_direct, chunk, count);
+                    else {
+                        converter.toFloat(chunk, count, input);
+                        mapChannels(input, source.channels, count);
+                        _converter.fromFloat(_output, count, _stagingMemory);
+                        write(_staging, _stagingMemory, count);
+                    }
+                    f += count;
+                }
+            } finally {
+                // The window is only read through pointer, keep it mapped
+                // until done, then release it instead of waiting for the
+                // buffer to be collected.
+                Reference.reachabilityFence(mapped);
+                unmap(mapped);
+            }
+        }
+    }
+
+    // Java 11 has no public unmap, invokeCleaner is the supported way
+    // around that. Without it windows are released when collected.
+    private static void unmap(MappedByteBuffer mapped) {
+        if(UNSAFE != null) UNSAFE.invokeCleaner(mapped);
+    }
+
+    private static Unsafe unsafe() {
+        try {
+            Field field = Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return (Unsafe)field.get(null);
+        } catch(ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void write(XtBuffer buffer, Pointer input, int frames) {
+        buffer.input = input;
+        buffer.frames = frames;
+        _ring.write(buffer);
+        _frames = _frames + frames;
+    }
+
+    // Mono goes to every output, otherwise channels map one to one and
+    // surplus inputs are dropped, surplus outputs silent.
+    private void mapChannels(float[] input, int inputs, int frames) {
+        for(int f = 0; f < frames; f++)
+            for(int c = 0; c < _outputs; c++)
+                _output[f * _outputs + c] = inputs == 1? input[f]: c < inputs? input[f * inputs + c]: 0.0f;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,282 @@
+package xt.audio;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import xt.audio.Enums.XtSample;
+import xt.audio.Structs.XtBuffer;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Single-producer/single-consumer ring of audio frames in native memory.
+// The XtBuffer overloads are meant for the audio thread and never block,
+// allocate or lock: write(XtBuffer) drops what does not fit and counts it
+// as overrun, read(XtBuffer) pads with silence and counts underrun. The
+// array overloads and await* are meant for the other side. Offsets and
+// counts are in frames, the layout is fixed by the interleaved flag.
+public final class XtRingBuffer {
+
+    private static final VarHandle READ;
+    private static final VarHandle WRITE;
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+            READ = lookup.findVarHandle(XtRingBuffer.class, "_read", long.class);
+            WRITE = lookup.findVarHandle(XtRingBuffer.class, "_write", long.class);
+        } catch(ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private long _read;
+    private long _write;
+    private volatile long _overruns;
+    private volatile long _underruns;
+    private volatile Thread _waiter;
+
+    private final int _mask;
+    private final int _size;
+    private final int _frames;
+    private final int _channels;
+    private final int _frameSize;
+    private final int _silence;
+    private final XtSample _sample;
+    private final boolean _interleaved;
+    private final Memory _memory;
+    private final ByteBuffer[] _views;
+    private final Pointer _readRing = new Pointer(0);
+    private final Pointer _readNative = new Pointer(0);
+    private final Pointer _writeRing = new Pointer(0);
+    private final Pointer _writeNative = new Pointer(0);
+
+    public int getFrames() { return _frames; }
+    public int getChannels() { return _channels; }
+    public XtSample getSample() { return _sample; }
+    public long getOverruns() { return _overruns; }
+    public long getUnderruns() { return _underruns; }
+    public boolean isInterleaved() { return _interleaved; }
+    public int available() { return (int)((long)WRITE.getAcquire(this) - (long)READ.getAcquire(this)); }
+    public int free() { return _frames - available(); }
+
+    // Capacity is rounded up to a power of two frames.
+    public XtRingBuffer(XtSample sample, int channels, int frames, boolean interleaved) {
+        if(channels <= 0 || frames <= 0 || frames > (1 << 30)) throw new IllegalArgumentException();
+        _sample = sample;
+        _channels = channels;
+        _interleaved = interleaved;
+        _frames = frames == 1? 1: Integer.highestOneBit(frames - 1) << 1;
+        _mask = _frames - 1;
+        _size = XtAudio.getSampleAttributes(sample).size;
+        _frameSize = _size * channels;
+        if((long)_frames * _frameSize > Integer.MAX_VALUE) throw new IllegalArgumentException();
+        _silence = sample == XtSample.UINT8? 0x80: 0;
+        _memory = new Memory((long)_frames * _frameSize);
+        _memory.setMemory(0, _memory.size(), (byte)_silence);
+        var view = _memory.getByteBuffer(0, _memory.size());
+        _views = new ByteBuffer[] { view.duplicate(), view.duplicate() };
+    }
+
+    public int write(XtBuffer buffer) {
+        long write = (long)WRITE.getOpaque(this);
+        int free = _frames - (int)(write - (long)READ.getAcquire(this));
+        int frames = Math.min(free, buffer.frames);
+        if(buffer.input == null) return 0;
+        if(frames < buffer.frames) _overruns = _overruns + buffer.frames - frames;
+        if(frames == 0) return 0;
+        copy(buffer.input, write, frames, true);
+        WRITE.setRelease(this, write + frames);
+        wake();
+        return frames;
+    }
+
+    public int read(XtBuffer buffer) {
+        long read = (long)READ.getOpaque(this);
+        int available = (int)((long)WRITE.getAcquire(this) - read);
+        int frames = Math.min(available, buffer.frames);
+        if(buffer.output == null) return 0;
+        if(frames < buffer.frames) {
+            _underruns = _underruns + buffer.frames - frames;
+            silence(buffer.output, frames, buffer.frames - frames);
+        }
+        if(frames == 0) return 0;
+        copy(buffer.output, read, frames, false);
+        READ.setRelease(this, read + frames);
+        wake();
+        return frames;
+    }
+
+    public int read(byte[] dest, int offset, int frames) {
+        checkLayout(true);
+        long read = (long)READ.getOpaque(this);
+        frames = Math.min(frames, (int)((long)WRITE.getAcquire(this) - read));
+        int index = (int)(read & _mask);
+        int first = Math.min(frames, _frames - index);
+        _memory.read((long)index * _frameSize, dest, offset * _frameSize, first * _frameSize);
+        _memory.read(0, dest, (offset + first) * _frameSize, (frames - first) * _frameSize);
+        READ.setRelease(this, read + frames);
+        wake();
+        return frames;
+    }
+
+    public int write(byte[] source, int offset, int frames) {
+        checkLayout(true);
+        long write = (long)WRITE.getOpaque(this);
+        frames = Math.min(frames, _frames - (int)(write - (long)READ.getAcquire(this)));
+        int index = (int)(write & _mask);
+        int first = Math.min(frames, _frames - index);
+        _memory.write((long)index * _frameSize, source, offset * _frameSize, first * _frameSize);
+        _memory.write(0, source, (offset + first) * _frameSize, (frames - first) * _frameSize);
+        WRITE.setRelease(this, write + frames);
+        wake();
+        return frames;
+    }
+
+    public int read(byte[][] dest, int offset, int frames) {
+        checkLayout(false);
+        long read = (long)READ.getOpaque(this);
+        frames = Math.min(frames, (int)((long)WRITE.getAcquire(this) - read));
+        int index = (int)(read & _mask);
+        int first = Math.min(frames, _frames - index);
+        for(int c = 0; c < _channels; c++) {
+            long base = (long)c * _frames * _size;
+            _memory.read(base + (long)index * _size, dest[c], offset * _size, first * _size);
+            _memory.read(base, dest[c], (offset + first) * _size, (frames - first) * _size);
+        }
+        READ.setRelease(this, read + frames);
+        wake();
+        return frames;
+    }
+
+    public int write(byte[][] source, int offset, int frames) {
+        checkLayout(false);
+        long write = (long)WRITE.getOpaque(this);
+        frames = Math.min(frames, _frames - (int)(write - (long)READ.getAcquire(this)));
+        int index = (int)(write & _mask);
+        int first = Math.min(frames, _frames - index);
+        for(int c = 0; c < _channels; c++) {
+            long base = (long)c * _frames * _size;
+            _memory.write(base + (long)index * _size, source[c], offset * _size, first * _size);
+            _memory.write(base, source[c], (offset + first) * _size, (frames - first) * _size);
+        }
+        WRITE.setRelease(this, write + frames);
+        wake();
+        return frames;
+    }
+
+    // Parks (or spins) the calling thread until the given number of
+    // frames can be read. Only the consuming side may wait.
+    public void awaitAvailable(int frames, boolean spin) throws InterruptedException {
+        await(frames, spin, true, 0L);
+    }
+
+    // As awaitAvailable, but parks at most the given time. Returns
+    // whether the frames became available.
+    public boolean awaitAvailable(int frames, long timeout, TimeUnit unit) throws InterruptedException {
+        return await(frames, false, true, System.nanoTime() + Math.max(1L, unit.toNanos(timeout)));
+    }
+
+    // Parks (or spins) the calling thread until the given number of
+    // frames can be written. Only the producing side may wait.
+    public void awaitFree(int frames, boolean spin) throws InterruptedException {
+        await(frames, spin, false, 0L);
+    }
+
+    public boolean awaitFree(int frames, long timeout, TimeUnit unit) throws InterruptedException {
+        return await(frames, false, false, System.nanoTime() + Math.max(1L, unit.toNanos(timeout)));
+    }
+
+    // Deadline 0 waits indefinitely.
+    private boolean await(int frames, boolean spin, boolean available, long deadline) throws InterruptedException {
+        if(frames > _frames) throw new IllegalArgumentException();
+        while((available? available(): free()) < frames) {
+            if(Thread.interrupted()) throw new InterruptedException();
+            if(spin) { Thread.onSpinWait(); continue; }
+            long remaining = deadline - System.nanoTime();
+            if(deadline != 0L && remaining <= 0L) return false;
+            _waiter = Thread.currentThread();
+            VarHandle.fullFence();
+            if((available? available(): free()) < frames)
+                if(deadline == 0L) LockSupport.park(this);
+                else LockSupport.parkNanos(this, remaining);
+            _waiter = null;
+        }
+        return true;
+    }
+
+    // Consumer side zero-copy access for interleaved rings: exposes up to
+    // frames readable frames as two views over the ring memory (the second
+    // one empty unless the region wraps). Call release when done.
+    int peek(int frames) {
+        checkLayout(true);
+        long read = (long)READ.getOpaque(this);
+        frames = Math.min(frames, (int)((long)WRITE.getAcquire(this) - read));
+        int index = (int)(read & _mask);
+        int first = Math.min(frames, _frames - index);
+        _views[0].limit((index + first) * _frameSize).position(index * _frameSize);
+        _views[1].limit((frames - first) * _frameSize).position(0);
+        return frames;
+    }
+
+    ByteBuffer[] views() { return _views; }
+    void release(int frames) {
+        READ.setRelease(this, (long)READ.getOpaque(this) + frames);
+        wake();
+    }
+
+    // The fence orders the index store before the _waiter load, await
+    // orders the _waiter store before its recheck, so one of them sees
+    // the other and no wakeup is lost.
+    private void wake() {
+        VarHandle.fullFence();
+        Thread waiter = _waiter;
+        if(waiter != null) LockSupport.unpark(waiter);
+    }
+
+    private void checkLayout(boolean interleaved) {
+        if(_interleaved != interleaved) throw new IllegalStateException();
+    }
+
+    private long address(Pointer buffer, int channel) {
+        return XtBuffer.readAddress(buffer, (long)channel * Native.POINTER_SIZE);
+    }
+
+    private void silence(Pointer buffer, int offset, int frames) {
+        if(_interleaved) {
+            Pointer.nativeValue(_readNative, Pointer.nativeValue(buffer) + (long)offset * _frameSize);
+            LibC.memset(_readNative, _silence, (long)frames * _frameSize);
+        } else for(int c = 0; c < _channels; c++) {
+            Pointer.nativeValue(_readNative, address(buffer, c) + (long)offset * _size);
+            LibC.memset(_readNative, _silence, (long)frames * _size);
+        }
+    }
+
+    // Native side of the copy at frame 0 of buffer, ring side at position.
+    private void copy(Pointer buffer, long position, int frames, boolean toRing) {
+        int index = (int)(position & _mask);
+        int first = Math.min(frames, _frames - index);
+        if(_interleaved) {
+            long native_ = Pointer.nativeValue(buffer);
+            long ring = Pointer.nativeValue(_memory);
+            copy(native_, ring + (long)index * _frameSize, (long)first * _frameSize, toRing);
+            copy(native_ + (long)first * _frameSize, ring, (long)(frames - first) * _frameSize, toRing);
+        } else for(int c = 0; c < _channels; c++) {
+            long native_ = address(buffer, c);
+            long ring = Pointer.nativeValue(_memory) + (long)c * _frames * _size;
+            copy(native_, ring + (long)index * _size, (long)first * _size, toRing);
+            copy(native_ + (long)first * _size, ring, (long)(frames - first) * _size, toRing);
+        }
+    }
+
+    private void copy(long native_, long ring, long bytes, boolean toRing) {
+        if(bytes == 0) return;
+        Pointer nativePointer = toRing? _writeNative: _readNative;
+        Pointer ringPointer = toRing? _writeRing: _readRing;
+        Pointer.nativeValue(nativePointer, native_);
+        Pointer.nativeValue(ringPointer, ring);
+        if(toRing) LibC.memcpy(ringPointer, nativePointer, bytes);
+        else LibC.memcpy(nativePointer, ringPointer, bytes);
+    }
+}
\ No newline at end of file
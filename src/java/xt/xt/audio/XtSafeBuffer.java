@@ -2,119 +2,122 @@ package xt.audio;
 
 import com.sun.jna.Native;
 import com.sun.jna.Pointer;
-import xt.audio.Enums.XtSample;
-import xt.audio.Structs.XtAttributes;
 import xt.audio.Structs.XtBuffer;
 import xt.audio.Structs.XtFormat;
-import java.lang.reflect.Array;
-import java.util.HashMap;
-import java.util.Map;
-
-public final class XtSafeBuffer implements AutoCloseable {
-
-    static final Map<XtStream, XtSafeBuffer> _map = new HashMap<>();
-    static final Map<XtSample, Class<?>> _types = Map.of(
-            XtSample.UINT8, byte.class,
-            XtSample.INT16, short.class,
-            XtSample.INT24, byte.class,
-            XtSample.INT32, int.class,
-            XtSample.FLOAT32, float.class
-    );
-
-    public static XtSafeBuffer register(XtStream stream, boolean interleaved) {
-        var result = new XtSafeBuffer(stream, interleaved);
-        _map.put(stream, result);
-        return result;
-    }
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 
-    private final int _inputs;
-    private final int _outputs;
-    private final Object _input;
-    private final Object _output;
-    private final XtStream _stream;
-    private final XtFormat _format;
-    private final XtAttributes _attrs;
-    private final boolean _interleaved;
+public abstract class XtSafeBuffer<T> implements AutoCloseable {
 
-    public Object getInput() { return _input; }
-    public Object getOutput() { return _output; }
-    public void close() { _map.remove(_stream); }
-    public static XtSafeBuffer get(XtStream stream) { return _map.get(stream); }
+    static final VarHandle SAFE;
+    static {
+        try {
+            SAFE = MethodHandles.lookup().findVarHandle(XtStream.class, "_safe", XtSafeBuffer.class);
+        } catch(ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
-    XtSafeBuffer(XtStream stream, boolean interleaved) {
-        _stream = stream;
-        _interleaved = interleaved;
-        _format = stream.getFormat();
-        _inputs = _format.channels.inputs;
-        _outputs = _format.channels.outputs;
-        _attrs = XtAudio.getSampleAttributes(_format.mix.sample);
-        _input = createBuffer(_inputs);
-        _output = createBuffer(_outputs);
+    // T is byte[] for UINT8/INT24, short[] for INT16, int[] for INT32 and
+    // float[] for FLOAT32, or the corresponding T[] when non-interleaved.
+    public static <T> XtSafeBuffer<T> register(XtStream stream, boolean interleaved) {
+        XtSafeBuffer<T> result = create(stream, interleaved);
+        stream._safe = result;
+        return result;
     }
 
-    Object createBuffer(int channels) {
-        var type = _types.get(_format.mix.sample);
-        int elems = _stream.getFrames() * _attrs.count;
-        if(_interleaved) return Array.newInstance(type, channels * elems);
-        var channelType = Array.newInstance(type, 0).getClass();
-        var result = Array.newInstance(channelType, channels);
-        for(int i = 0; i < channels; i++) Array.set(result, i, Array.newInstance(type, elems));
+    // Float view: T is float[] or float[][] in [-1, 1] whatever the stream's
+    // sample type, converted to and from the stream's native layout.
+    public static <T> XtSafeBuffer<T> registerFloat(XtStream stream, boolean interleaved) {
+        XtSafeBuffer<T> result = createFloat(stream, interleaved);
+        stream._safe = result;
         return result;
     }
 
-    public void lock(XtBuffer buffer) {
-        if(buffer.input == Pointer.NULL) return;
-        if(_interleaved) lockInterleaved(buffer);
-        else for(int i = 0; i < _inputs; i++) lockChannel(buffer, i);
+    static <T> XtSafeBuffer<T> createFloat(XtStream stream, boolean interleaved) {
+        return createFloat(stream, stream.getFormat(), stream.getFrames(), stream.interleaved(), interleaved);
     }
 
-    public void unlock(XtBuffer buffer) {
-        if(buffer.output == Pointer.NULL) return;
-        if(_interleaved) unlockInterleaved(buffer);
-        else for(int i = 0; i < _outputs; i++) unlockChannel(buffer, i);
+    // Package-private overloads over a format and frame count instead of
+    // an open stream, used by the benches; stream may be null there.
+    @SuppressWarnings("unchecked")
+    static <T> XtSafeBuffer<T> createFloat(XtStream stream, XtFormat format, int frames, boolean native_, boolean interleaved) {
+        var input = new XtConverter(format.mix.sample, format.channels.inputs, frames, native_);
+        var output = new XtConverter(format.mix.sample, format.channels.outputs, frames, native_);
+        return (XtSafeBuffer<T>)(interleaved
+            ? new SafeBuffers.FloatViewInterleaved(stream, input, output, frames)
+            : new SafeBuffers.FloatViewChannels(stream, input, output, frames));
     }
 
-    void lockInterleaved(XtBuffer buffer) {
-        int elems = _inputs * buffer.frames * _attrs.count;
-        fromNative(buffer.input, _input, elems);
+    static <T> XtSafeBuffer<T> create(XtStream stream, boolean interleaved) {
+        return create(stream, stream.getFormat(), stream.getFrames(), interleaved);
     }
 
-    void unlockInterleaved(XtBuffer buffer) {
-        int elems = _outputs * buffer.frames * _attrs.count;
-        toNative(_output, buffer.output, elems);
+    @SuppressWarnings("unchecked")
+    static <T> XtSafeBuffer<T> create(XtStream stream, XtFormat format, int frames, boolean interleaved) {
+        int count = XtAudio.getSampleAttributes(format.mix.sample).count;
+        int elems = frames * count;
+        int inputs = format.channels.inputs;
+        int outputs = format.channels.outputs;
+        switch(format.mix.sample) {
+        case UINT8: case INT24: return (XtSafeBuffer<T>)(interleaved
+            ? new SafeBuffers.ByteInterleaved(stream, inputs, outputs, count, elems)
+            : new SafeBuffers.ByteChannels(stream, inputs, outputs, count, elems));
+        case INT16: return (XtSafeBuffer<T>)(interleaved
+            ? new SafeBuffers.ShortInterleaved(stream, inputs, outputs, count, elems)
+            : new SafeBuffers.ShortChannels(stream, inputs, outputs, count, elems));
+        case INT32: return (XtSafeBuffer<T>)(interleaved
+            ? new SafeBuffers.IntInterleaved(stream, inputs, outputs, count, elems)
+            : new SafeBuffers.IntChannels(stream, inputs, outputs, count, elems));
+        case FLOAT32: return (XtSafeBuffer<T>)(interleaved
+            ? new SafeBuffers.FloatInterleaved(stream, inputs, outputs, count, elems)
+            : new SafeBuffers.FloatChannels(stream, inputs, outputs, count, elems));
+        default: throw new IllegalArgumentException();
+        }
     }
 
-    void lockChannel(XtBuffer buffer, int channel) {
-        int elems = buffer.frames * _attrs.count;
-        var channelBuffer = buffer.input.getPointer(channel * Native.POINTER_SIZE);
-        fromNative(channelBuffer, Array.get(_input, channel), elems);
+    final int _count;
+    final int _inputs;
+    final int _outputs;
+    private final XtStream _stream;
+    private final Pointer _channel = new Pointer(0);
+
+    public abstract T getInput();
+    public abstract T getOutput();
+    abstract void fromNative(Pointer source, int frames);
+    abstract void toNative(Pointer dest, int frames);
+
+    public void close() { SAFE.compareAndSet(_stream, this, null); }
+    public static XtSafeBuffer<?> get(XtStream stream) { return stream._safe; }
+
+    // Throws ClassCastException if the buffer's arrays are not a T.
+    @SuppressWarnings("unchecked")
+    public static <T> XtSafeBuffer<T> get(XtStream stream, Class<T> type) {
+        XtSafeBuffer<?> result = stream._safe;
+        if(result != null) type.cast(result.getInput());
+        return (XtSafeBuffer<T>)result;
     }
 
-    void unlockChannel(XtBuffer buffer, int channel) {
-        int elems = buffer.frames * _attrs.count;
-        var channelBuffer = buffer.output.getPointer(channel * Native.POINTER_SIZE);
-        toNative(Array.get(_output, channel), channelBuffer, elems);
+    XtSafeBuffer(XtStream stream, int inputs, int outputs, int count) {
+        _count = count;
+        _stream = stream;
+        _inputs = inputs;
+        _outputs = outputs;
     }
 
-    void toNative(Object source, Pointer dest, int count) {
-        switch(_format.mix.sample) {
-        case UINT8: dest.write(0, (byte[])source, 0, count); break;
-        case INT16: dest.write(0, (short[])source, 0, count); break;
-        case INT24: dest.write(0, (byte[])source, 0, count); break;
-        case INT32: dest.write(0, (int[])source, 0, count); break;
-        case FLOAT32: dest.write(0, (float[])source, 0, count); break;
-        default: throw new IllegalArgumentException();
-        }
+    public final void lock(XtBuffer buffer) {
+        if(buffer.input == Pointer.NULL) return;
+        fromNative(buffer.input, buffer.frames);
     }
 
-    void fromNative(Pointer source, Object dest, int count) {
-        switch(_format.mix.sample) {
-        case UINT8: source.read(0, (byte[])dest, 0, count); break;
-        case INT16: source.read(0, (short[])dest, 0, count); break;
-        case INT24: source.read(0, (byte[])dest, 0, count); break;
-        case INT32: source.read(0, (int[])dest, 0, count); break;
-        case FLOAT32: source.read(0, (float[])dest, 0, count); break;
-        default: throw new IllegalArgumentException();
-        }
+    public final void unlock(XtBuffer buffer) {
+        if(buffer.output == Pointer.NULL) return;
+        toNative(buffer.output, buffer.frames);
+    }
+
+    // Reuses a single Pointer, valid until the next call.
+    final Pointer channel(Pointer buffer, int channel) {
+        Pointer.nativeValue(_channel, XtBuffer.readAddress(buffer, (long)channel * Native.POINTER_SIZE));
+        return _channel;
     }
 }
\ No newline at end of file
@@ -61,6 +61,12 @@ public final class XtService {
         return handleError(XtServiceOpenDeviceList(_s, flag, list), new XtDeviceList(list.getValue()));
     }
 
+    public XtDeviceSnapshot getDeviceSnapshot(EnumSet<XtEnumFlags> flags) {
+        try(var list = openDeviceList(flags)) {
+            return list.getSnapshot();
+        }
+    }
+
     public EnumSet<XtServiceCaps> getCapabilities() {
         var result = EnumSet.noneOf(XtServiceCaps.class);
         var flags = XtServiceGetCapabilities(_s);
@@ -83,9 +89,11 @@ public final class XtService {
         native_.count = params.count;
         native_.stream = new StreamParams();
         native_.master = params.master.handle();
+        native_.driftCompensation = params.driftCompensation;
         native_.stream.onBuffer = result.onNativeBuffer();
+        native_.stream.decouple = params.stream.decouple;
         native_.stream.interleaved = params.stream.interleaved;
-        native_.stream.onXRun = params.stream.onXRun == null? null: result.onNativeXRun();
+        native_.stream.onXRun = result.onNativeXRun();
         native_.stream.onRunning = params.stream.onRunning == null? null: result.onNativeRunning();
         handleError(XtServiceAggregateStream(_s, native_, Pointer.NULL, stream));
         result.init(stream.getValue());
@@ -1,5 +1,6 @@
 package xt.audio;
 
+import com.sun.jna.CallbackThreadInitializer;
 import com.sun.jna.Native;
 import com.sun.jna.Pointer;
 import com.sun.jna.ptr.IntByReference;
@@ -10,6 +11,7 @@ import xt.audio.Structs.XtBuffer;
 import xt.audio.Structs.XtFormat;
 import xt.audio.Structs.XtLatency;
 import xt.audio.Structs.XtStreamParams;
+import xt.audio.Structs.XtThreadParams;
 import static xt.audio.Utility.handleError;
 
 public final class XtStream implements AutoCloseable {
@@ -23,9 +25,15 @@ public final class XtStream implements AutoCloseable {
     private static native XtFormat XtStreamGetFormat(Pointer s);
     private static native long XtStreamGetLatency(Pointer s, XtLatency latency);
     private static native long XtStreamGetFrames(Pointer s, IntByReference frames);
+    private static native long XtStreamGetDecoupleXRuns(Pointer s);
+    private static native double XtStreamGetDrift(Pointer s, int index);
 
     private Pointer _s;
     private XtFormat _format;
+    // Read from the audio thread on every callback, written on register/close.
+    volatile XtSafeBuffer<?> _safe;
+    volatile XtStreamMetrics _metrics;
+    volatile XtAllocationAudit _audit;
 
     private final Object _user;
     private final XtStreamParams _params;
@@ -41,8 +49,19 @@ public final class XtStream implements AutoCloseable {
     public void start() { handleError(XtStreamStart(_s)); }
     public Pointer getHandle() { return XtStreamGetHandle(_s); }
     public boolean isRunning() { return XtStreamIsRunning(_s); }
-    @Override public void close() { XtStreamDestroy(_s); _s = Pointer.NULL; }
+    public long getDecoupleXRuns() { return XtStreamGetDecoupleXRuns(_s); }
+    public double getDrift(int index) { return XtStreamGetDrift(_s, index); }
 
+    @Override public void close() {
+        XtStreamMetrics metrics = _metrics;
+        if(metrics != null) metrics.close();
+        XtAllocationAudit audit = _audit;
+        if(audit != null) audit.close();
+        XtStreamDestroy(_s);
+        _s = Pointer.NULL;
+    }
+
+    boolean interleaved() { return _params.interleaved; }
     OnXRun onNativeXRun() { return _onNativeXRun; }
     OnBuffer onNativeBuffer() { return _onNativeBuffer; }
     OnRunning onNativeRunning() { return _onNativeRunning; }
@@ -53,6 +72,12 @@ public final class XtStream implements AutoCloseable {
         _onNativeXRun = this::onXRun;
         _onNativeBuffer = this::onBuffer;
         _onNativeRunning = this::onRunning;
+        XtThreadParams thread = params.thread;
+        if(thread == null) return;
+        var initializer = new CallbackThreadInitializer(thread.daemon, thread.detach, thread.name, thread.group);
+        Native.setCallbackThreadInitializer(_onNativeXRun, initializer);
+        Native.setCallbackThreadInitializer(_onNativeBuffer, initializer);
+        Native.setCallbackThreadInitializer(_onNativeRunning, initializer);
     }
 
     void init(Pointer s) {
@@ -71,17 +96,37 @@ public final class XtStream implements AutoCloseable {
     }
 
     private void onXRun(Pointer stream, int index, Pointer user) throws Exception {
-        _params.onXRun.callback(this, index, _user);
+        XtAllocationAudit audit = _audit;
+        long allocated = audit == null? 0: audit.allocated();
+        XtStreamMetrics metrics = _metrics;
+        if(metrics != null) metrics.xrun(index);
+        if(_params.onXRun != null) _params.onXRun.callback(this, index, _user);
+        if(audit != null) audit.record(XtAllocationAudit.XRUN, allocated);
     }
 
     private int onBuffer(Pointer stream, Pointer buffer, Pointer user) throws Exception {
-        for(int i = 0; i < Native.getNativeSize(XtBuffer.ByValue.class); i++)
-            _buffer.getPointer().setByte(i, buffer.getByte(i));
-        _buffer.read();
-        return _params.onBuffer.callback(this, _buffer, _user);
+        XtAllocationAudit audit = _audit;
+        if(audit == null) return dispatch(buffer);
+        long allocated = audit.allocated();
+        int result = dispatch(buffer);
+        boolean fail = audit.record(XtAllocationAudit.BUFFER, allocated);
+        return fail && result == 0? 1: result;
+    }
+
+    private int dispatch(Pointer buffer) throws Exception {
+        _buffer.readFast(buffer);
+        XtStreamMetrics metrics = _metrics;
+        if(metrics == null) return _params.onBuffer.callback(this, _buffer, _user);
+        long start = System.nanoTime();
+        int result = _params.onBuffer.callback(this, _buffer, _user);
+        metrics.record(start, System.nanoTime(), _buffer.frames);
+        return result;
     }
 
     private void onRunning(Pointer stream, boolean running, long error, Object user) throws Exception {
+        XtAllocationAudit audit = _audit;
+        long allocated = audit == null? 0: audit.allocated();
         _params.onRunning.callback(this, running, error, user);
+        if(audit != null) audit.record(XtAllocationAudit.RUNNING, allocated);
     }
 }
\ No newline at end of file